@@ -0,0 +1,39 @@
+package org.example.a2a.benchmarks;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so that allocations per operation are reported next to
+ * the timings.
+ *
+ * <p>Accepts the regular JMH command line, e.g. {@code -p historyLength=50 MessageConversion}.
+ * Results are written to {@code jmh-result.json} next to the benchmarks jar, i.e. {@code
+ * benchmarks/target}, wherever the runner is started from.
+ */
+public class BenchmarkRunner {
+
+  public static void main(String[] args)
+      throws CommandLineOptionException, RunnerException, URISyntaxException {
+    // The jar, or the classes directory when run from an IDE, lies in the target directory
+    Path target =
+        Path.of(BenchmarkRunner.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+            .getParent();
+    Options options =
+        new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(target.resolve("jmh-result.json").toString())
+            .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,84 @@
+package org.example.a2a.benchmarks;
+
+import io.a2a.server.agentexecution.RequestContext;
+import io.a2a.spec.Message;
+import io.a2a.spec.MessageSendParams;
+import io.a2a.spec.Part;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TaskStatus;
+import io.a2a.spec.TextPart;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Deterministic A2A messages and tasks the benchmarks run on. */
+final class Fixtures {
+  static final String TASK_ID = "task-1";
+  static final String CONTEXT_ID = "context-1";
+
+  private Fixtures() {}
+
+  /**
+   * @param role The role of the message.
+   * @param index Distinguishes the message id and text from other messages.
+   * @param partCount The number of text parts.
+   * @param partChars The length of each text part.
+   * @return A message with the given shape.
+   */
+  static Message message(Message.Role role, int index, int partCount, int partChars) {
+    List<Part<?>> parts = new ArrayList<>(partCount);
+    for (int i = 0; i < partCount; i++) {
+      parts.add(new TextPart(text(index * 31 + i, partChars)));
+    }
+    return new Message.Builder()
+        .role(role)
+        .messageId("message-" + index)
+        .contextId(CONTEXT_ID)
+        .taskId(TASK_ID)
+        .parts(parts)
+        .build();
+  }
+
+  /** Returns alternating user and agent messages of the given shape, starting with the user. */
+  static List<Message> history(int historyLength, int partCount, int partChars) {
+    List<Message> history = new ArrayList<>(historyLength);
+    for (int i = 0; i < historyLength; i++) {
+      Message.Role role = i % 2 == 0 ? Message.Role.USER : Message.Role.AGENT;
+      history.add(message(role, i, partCount, partChars));
+    }
+    return history;
+  }
+
+  /** Returns a task in progress whose history ends with the given user message. */
+  static Task task(List<Message> history, Message userMessage) {
+    List<Message> messages = new ArrayList<>(history);
+    messages.add(userMessage);
+    return new Task.Builder()
+        .id(TASK_ID)
+        .contextId(CONTEXT_ID)
+        .status(new TaskStatus(TaskState.WORKING))
+        .history(messages)
+        .build();
+  }
+
+  /** Returns the context of a request continuing the given task. */
+  static RequestContext requestContext(Message userMessage, Task task) {
+    return new RequestContext.Builder()
+        .setParams(new MessageSendParams.Builder().message(userMessage).build())
+        .setTaskId(TASK_ID)
+        .setContextId(CONTEXT_ID)
+        .setTask(task)
+        .build();
+  }
+
+  /** Returns text of the given length, the same for the same seed. */
+  static String text(int seed, int length) {
+    String words = "weather in potsdam is sunny with light wind from the west and ";
+    StringBuilder text = new StringBuilder(length);
+    int offset = Math.floorMod(seed, words.length());
+    while (text.length() < length) {
+      text.append(words.charAt(offset++ % words.length()));
+    }
+    return text.toString();
+  }
+}
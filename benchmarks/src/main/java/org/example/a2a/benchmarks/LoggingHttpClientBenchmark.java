@@ -0,0 +1,210 @@
+package org.example.a2a.benchmarks;
+
+import io.a2a.client.http.A2AHttpClient;
+import io.a2a.client.http.A2AHttpResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.example.a2a.client.HttpClientMetrics;
+import org.example.a2a.client.HttpLogOptions;
+import org.example.a2a.client.LoggingA2AHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of {@link LoggingA2AHttpClient} over the client it wraps, for a request and response of
+ * the size of a message with the given history, in debug and in sampled mode.
+ *
+ * <p>Log output goes to a file, so that the result includes formatting and writing the log lines
+ * but not the terminal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(
+    value = 2,
+    jvmArgsAppend = {
+      "-Dorg.slf4j.simpleLogger.defaultLogLevel=info",
+      "-Dorg.slf4j.simpleLogger.logFile=target/logging-benchmark.log"
+    })
+@State(Scope.Benchmark)
+public class LoggingHttpClientBenchmark {
+
+  @Param({"1", "10", "50"})
+  int historyLength;
+
+  @Param({"1", "4", "16"})
+  int partCount;
+
+  @Param({"200"})
+  int partChars;
+
+  /** Logging of every exchange on the caller, or of a sample, truncated and in the background. */
+  @Param({"debug", "sampled"})
+  String mode;
+
+  private A2AHttpClient plain;
+  private A2AHttpClient logging;
+  private String body;
+
+  @Setup
+  public void setUp() {
+    body = Fixtures.text(0, historyLength * partCount * partChars);
+    plain = new StubHttpClient(new StubResponse(200, true, body));
+    HttpLogOptions options =
+        mode.equals("debug") ? HttpLogOptions.DEBUG : new HttpLogOptions(0.01, 512, true, 1024);
+    logging = new LoggingA2AHttpClient(plain, options, new HttpClientMetrics());
+  }
+
+  @Benchmark
+  public A2AHttpResponse postPlain() throws IOException, InterruptedException {
+    return post(plain);
+  }
+
+  @Benchmark
+  public A2AHttpResponse postLogged() throws IOException, InterruptedException {
+    return post(logging);
+  }
+
+  private A2AHttpResponse post(A2AHttpClient client) throws IOException, InterruptedException {
+    return client
+        .createPost()
+        .url("http://localhost:8080/v1/message:send")
+        .addHeader("Content-Type", "application/json")
+        .body(body)
+        .post();
+  }
+
+  private record StubResponse(int status, boolean success, String body)
+      implements A2AHttpResponse {}
+
+  /** Client answering every request with the same response, without any I/O. */
+  private static class StubHttpClient implements A2AHttpClient {
+    private final A2AHttpResponse response;
+
+    private StubHttpClient(A2AHttpResponse response) {
+      this.response = response;
+    }
+
+    @Override
+    public GetBuilder createGet() {
+      return new StubGetBuilder();
+    }
+
+    @Override
+    public PostBuilder createPost() {
+      return new StubPostBuilder();
+    }
+
+    @Override
+    public DeleteBuilder createDelete() {
+      return new StubDeleteBuilder();
+    }
+
+    private CompletableFuture<Void> replay(
+        Consumer<String> messageConsumer, Runnable completeRunnable) {
+      messageConsumer.accept(response.body());
+      completeRunnable.run();
+      return CompletableFuture.completedFuture(null);
+    }
+
+    private class StubGetBuilder implements GetBuilder {
+      @Override
+      public GetBuilder url(String url) {
+        return this;
+      }
+
+      @Override
+      public GetBuilder addHeader(String name, String value) {
+        return this;
+      }
+
+      @Override
+      public GetBuilder addHeaders(Map<String, String> headers) {
+        return this;
+      }
+
+      @Override
+      public A2AHttpResponse get() {
+        return response;
+      }
+
+      @Override
+      public CompletableFuture<Void> getAsyncSSE(
+          Consumer<String> messageConsumer,
+          Consumer<Throwable> errorConsumer,
+          Runnable completeRunnable) {
+        return replay(messageConsumer, completeRunnable);
+      }
+    }
+
+    private class StubPostBuilder implements PostBuilder {
+      @Override
+      public PostBuilder url(String url) {
+        return this;
+      }
+
+      @Override
+      public PostBuilder addHeader(String name, String value) {
+        return this;
+      }
+
+      @Override
+      public PostBuilder addHeaders(Map<String, String> headers) {
+        return this;
+      }
+
+      @Override
+      public PostBuilder body(String body) {
+        return this;
+      }
+
+      @Override
+      public A2AHttpResponse post() {
+        return response;
+      }
+
+      @Override
+      public CompletableFuture<Void> postAsyncSSE(
+          Consumer<String> messageConsumer,
+          Consumer<Throwable> errorConsumer,
+          Runnable completeRunnable) {
+        return replay(messageConsumer, completeRunnable);
+      }
+    }
+
+    private class StubDeleteBuilder implements DeleteBuilder {
+      @Override
+      public DeleteBuilder url(String url) {
+        return this;
+      }
+
+      @Override
+      public DeleteBuilder addHeader(String name, String value) {
+        return this;
+      }
+
+      @Override
+      public DeleteBuilder addHeaders(Map<String, String> headers) {
+        return this;
+      }
+
+      @Override
+      public A2AHttpResponse delete() {
+        return response;
+      }
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package org.example.a2a.benchmarks;
+
+import io.a2a.server.agentexecution.RequestContext;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.example.a2a.server.orchestration.OrchestrationAgent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Cost of converting between A2A and orchestration messages on every request. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MessageConversionBenchmark {
+
+  @Param({"1", "10", "50"})
+  int historyLength;
+
+  @Param({"1", "4", "16"})
+  int partCount;
+
+  @Param({"200"})
+  int partChars;
+
+  private Message userMessage;
+  private List<Message> history;
+  private RequestContext context;
+  private String content;
+
+  @Setup
+  public void setUp() {
+    userMessage = Fixtures.message(Message.Role.USER, historyLength, partCount, partChars);
+    history = Fixtures.history(historyLength, partCount, partChars);
+    Task task = Fixtures.task(history, userMessage);
+    context = Fixtures.requestContext(userMessage, task);
+    content = Fixtures.text(0, partCount * partChars);
+  }
+
+  @Benchmark
+  public Object toOrchestrationUserMessage() {
+    return OrchestrationAgent.toOrchestrationUserMessage(userMessage);
+  }
+
+  @Benchmark
+  public Object toOrchestrationMessages() {
+    return OrchestrationAgent.toOrchestrationMessages(history);
+  }
+
+  @Benchmark
+  public Object toA2AMessage() {
+    return OrchestrationAgent.toA2AMessage(context, content);
+  }
+
+  @Benchmark
+  public Object normalizedUserText() {
+    return OrchestrationAgent.normalizedUserText(userMessage);
+  }
+}
@@ -0,0 +1,200 @@
+package org.example.a2a.benchmarks;
+
+import io.a2a.client.http.A2ACardResolver;
+import io.a2a.util.Utils;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import org.example.a2a.client.Http2A2AHttpClient;
+import org.example.a2a.client.HttpTransportOptions;
+import org.example.a2a.client.batch.BatchClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the cold start of the server: the time from launching the process until it serves its
+ * agent card, the latency of the first message and the resident memory afterwards.
+ *
+ * <p>The server is started repeatedly with the simulated orchestration backend answering at once,
+ * so that the numbers show the server itself. Run it once against the JVM build and once against
+ * the native executable to compare them. Settings are read from {@code startup.*} system
+ * properties.
+ */
+public class StartupBenchmark {
+  private static final Logger log = LoggerFactory.getLogger(StartupBenchmark.class);
+
+  private static final String CARD_PATH = "/.well-known/agent-card.json";
+
+  /**
+   * @param command The command starting the server.
+   * @param runs The number of cold starts.
+   * @param url The base URL the server listens on.
+   * @param timeout How long a start may take before the run fails.
+   * @param result The file the JSON result is written to.
+   * @param log The file the output of the server is appended to.
+   */
+  record Settings(
+      List<String> command, int runs, String url, Duration timeout, Path result, Path log) {
+
+    static Settings fromSystemProperties() {
+      return new Settings(
+          Arrays.asList(
+              System.getProperty(
+                      "startup.command", "java -jar server/target/quarkus-app/quarkus-run.jar")
+                  .split(" ")),
+          Integer.getInteger("startup.runs", 5),
+          System.getProperty("startup.url", "http://localhost:8080"),
+          Duration.ofSeconds(Long.getLong("startup.timeout-seconds", 60)),
+          Path.of(System.getProperty("startup.result", "target/startup-result.json")),
+          Path.of(System.getProperty("startup.log", "target/startup-server.log")));
+    }
+  }
+
+  /**
+   * One cold start.
+   *
+   * @param readyMillis Time from launching the process until the agent card was served.
+   * @param firstMessageMillis Latency of the first message sent once the server was ready.
+   * @param rssKilobytes Resident memory after the first message, or -1 if unknown.
+   */
+  record Run(long readyMillis, long firstMessageMillis, long rssKilobytes) {}
+
+  /** Median, minimum and maximum of one measure across runs. */
+  record Summary(long median, long min, long max) {
+
+    static Summary of(List<Run> runs, ToLongFunction<Run> measure) {
+      long[] values = runs.stream().mapToLong(measure).sorted().toArray();
+      return new Summary(values[values.length / 2], values[0], values[values.length - 1]);
+    }
+  }
+
+  record Result(
+      List<String> command,
+      Summary readyMillis,
+      Summary firstMessageMillis,
+      Summary rssKilobytes,
+      List<Run> runs) {}
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    Settings settings = Settings.fromSystemProperties();
+    Files.createDirectories(settings.result().toAbsolutePath().getParent());
+    Files.createDirectories(settings.log().toAbsolutePath().getParent());
+    List<Run> runs = new ArrayList<>(settings.runs());
+    for (int i = 0; i < settings.runs(); i++) {
+      Run run = measure(settings);
+      log.info(
+          "Run {}: ready after {} ms, first message {} ms, RSS {} kB",
+          i + 1,
+          run.readyMillis(),
+          run.firstMessageMillis(),
+          run.rssKilobytes());
+      runs.add(run);
+    }
+    Result result =
+        new Result(
+            settings.command(),
+            Summary.of(runs, Run::readyMillis),
+            Summary.of(runs, Run::firstMessageMillis),
+            Summary.of(runs, Run::rssKilobytes),
+            runs);
+    Utils.OBJECT_MAPPER
+        .writerWithDefaultPrettyPrinter()
+        .writeValue(settings.result().toFile(), result);
+    log.info(
+        "Median: ready after {} ms, first message {} ms, RSS {} kB. Result written to {}",
+        result.readyMillis().median(),
+        result.firstMessageMillis().median(),
+        result.rssKilobytes().median(),
+        settings.result().toAbsolutePath());
+  }
+
+  private static Run measure(Settings settings) throws IOException, InterruptedException {
+    ProcessBuilder builder =
+        new ProcessBuilder(settings.command())
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.appendTo(settings.log().toFile()));
+    // Completions are answered at once, so the first message measures the server, not a model
+    builder.environment().put("AGENT_ORCHESTRATION_SIMULATOR_ENABLED", "true");
+    builder.environment().put("AGENT_ORCHESTRATION_SIMULATOR_LATENCY_DISTRIBUTION", "constant");
+    builder.environment().put("AGENT_ORCHESTRATION_SIMULATOR_LATENCY_MEDIAN", "0ms");
+    builder.environment().put("AGENT_ORCHESTRATION_SIMULATOR_TOKENS_PER_SECOND", "1000000");
+
+    long startNanos = System.nanoTime();
+    Process server = builder.start();
+    try {
+      awaitCard(settings, startNanos);
+      long readyNanos = System.nanoTime();
+
+      try (Http2A2AHttpClient httpClient =
+              new Http2A2AHttpClient(HttpTransportOptions.fromSystemProperties());
+          BatchClient client =
+          new BatchClient(
+              new A2ACardResolver(httpClient, settings.url()).getAgentCard(),
+              httpClient,
+              1,
+              false,
+              settings.timeout())) {
+        if (!client.submit("What is the weather in Potsdam?").get().succeeded()) {
+          throw new IOException("The first message did not complete");
+        }
+      }
+      long firstMessageNanos = System.nanoTime();
+
+      return new Run(
+          TimeUnit.NANOSECONDS.toMillis(readyNanos - startNanos),
+          TimeUnit.NANOSECONDS.toMillis(firstMessageNanos - readyNanos),
+          rssKilobytes(server.pid()));
+    } catch (Exception e) {
+      throw new IllegalStateException("Run failed, see " + settings.log().toAbsolutePath(), e);
+    } finally {
+      server.destroy();
+      if (!server.waitFor(10, TimeUnit.SECONDS)) {
+        server.destroyForcibly().waitFor();
+      }
+    }
+  }
+
+  /** Polls the agent card until the server answers, the first answer marks it as ready. */
+  private static void awaitCard(Settings settings, long startNanos)
+      throws IOException, InterruptedException {
+    HttpClient http = HttpClient.newHttpClient();
+    HttpRequest request = HttpRequest.newBuilder(URI.create(settings.url() + CARD_PATH)).build();
+    while (true) {
+      if (System.nanoTime() - startNanos > settings.timeout().toNanos()) {
+        throw new IOException("The server did not start within " + settings.timeout());
+      }
+      try {
+        if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // Not listening yet
+      }
+      Thread.sleep(5);
+    }
+  }
+
+  /** Reads the resident set size of a process on Linux. */
+  private static long rssKilobytes(long pid) {
+    try {
+      return Files.readAllLines(Path.of("/proc", Long.toString(pid), "status")).stream()
+          .filter(line -> line.startsWith("VmRSS:"))
+          .map(line -> line.replaceAll("\\D", ""))
+          .mapToLong(Long::parseLong)
+          .findFirst()
+          .orElse(-1);
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package org.example.a2a.benchmarks;
+
+import io.a2a.server.agentexecution.RequestContext;
+import io.a2a.server.events.EventQueue;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.runtime.configuration.DurationConverter;
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfig;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.example.a2a.server.AgentExecutorConfig;
+import org.example.a2a.server.StatefulAgentExecutor;
+import org.example.a2a.server.history.ConversationCache;
+import org.example.a2a.server.history.ConversationCacheConfig;
+import org.example.a2a.server.history.HistoryCompactionConfig;
+import org.example.a2a.server.history.HistoryCompactor;
+import org.example.a2a.server.metrics.PipelineMetrics;
+import org.example.a2a.server.orchestration.InFlightCalls;
+import org.example.a2a.server.orchestration.OrchestrationAgent;
+import org.example.a2a.server.resilience.ResilienceConfig;
+import org.example.a2a.server.routing.ModelRouter;
+import org.example.a2a.server.routing.RoutingConfig;
+import org.example.a2a.server.scheduling.FairScheduler;
+import org.example.a2a.server.scheduling.SchedulerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One turn of {@link StatefulAgentExecutor} against a stubbed backend: history conversion, the
+ * {@code TaskUpdater} event sequence and, when streaming, the artifact chunking.
+ *
+ * <p>The history cache and compaction are disabled so that every turn converts the whole history,
+ * the worst case for a request. All other settings are the defaults of the config mappings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StatefulExecutorBenchmark {
+
+  @Param({"1", "10", "50"})
+  int historyLength;
+
+  @Param({"1", "4", "16"})
+  int partCount;
+
+  @Param({"200"})
+  int partChars;
+
+  @Param({"false", "true"})
+  boolean streaming;
+
+  @Param({"16"})
+  int deltaCount;
+
+  private ExecutorService callExecutor;
+  private StatefulAgentExecutor executor;
+  private RequestContext context;
+
+  @Setup
+  public void setUp() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    OrchestrationAgent agent =
+        new OrchestrationAgent(
+            new StubOrchestrationBackend(Fixtures.text(0, partCount * partChars), deltaCount));
+    SmallRyeConfig config = config();
+    callExecutor = Executors.newCachedThreadPool();
+    InFlightCalls inFlightCalls =
+        new InFlightCalls(
+            callExecutor, config.getConfigMapping(ResilienceConfig.class).deadline(), registry);
+    FairScheduler scheduler =
+        new FairScheduler(config.getConfigMapping(SchedulerConfig.class), registry);
+    executor =
+        new StatefulAgentExecutor(
+            agent,
+            new ModelRouter(config.getConfigMapping(RoutingConfig.class), callExecutor, registry),
+            new ConversationCache(config.getConfigMapping(ConversationCacheConfig.class), registry),
+            new HistoryCompactor(
+                agent,
+                config.getConfigMapping(HistoryCompactionConfig.class),
+                inFlightCalls,
+                scheduler,
+                callExecutor),
+            inFlightCalls,
+            scheduler,
+            config.getConfigMapping(AgentExecutorConfig.class).streaming(),
+            callExecutor,
+            new PipelineMetrics(registry, Set.of()));
+
+    Message userMessage = Fixtures.message(Message.Role.USER, historyLength, partCount, partChars);
+    Task task = Fixtures.task(Fixtures.history(historyLength, partCount, partChars), userMessage);
+    context = Fixtures.requestContext(userMessage, task);
+  }
+
+  /** Builds the config mappings of the server from their defaults and the benchmark settings. */
+  private SmallRyeConfig config() {
+    Map<String, String> values =
+        Map.of(
+            "agent.executor.streaming.enabled", String.valueOf(streaming),
+            // The stub streams instantly, a window would only measure the wait
+            "agent.executor.streaming.coalesce-window", "0s",
+            "agent.executor.streaming.coalesce-max-chars", "0",
+            "agent.history.cache.enabled", "false",
+            "agent.history.compaction.enabled", "false");
+    return new SmallRyeConfigBuilder()
+        // Durations like 20ms, as in application.properties
+        .withConverter(Duration.class, 100, new DurationConverter())
+        .withSources(new PropertiesConfigSource(values, "benchmark", 100))
+        .withMapping(AgentExecutorConfig.class)
+        .withMapping(ResilienceConfig.class)
+        .withMapping(SchedulerConfig.class)
+        .withMapping(RoutingConfig.class)
+        .withMapping(ConversationCacheConfig.class)
+        .withMapping(HistoryCompactionConfig.class)
+        .build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    callExecutor.shutdownNow();
+  }
+
+  @Benchmark
+  public EventQueue execute() {
+    // A fresh queue per turn like in the request handler, its allocation is part of the result
+    EventQueue eventQueue = EventQueue.create();
+    executor.execute(context, eventQueue);
+    eventQueue.close();
+    return eventQueue;
+  }
+}
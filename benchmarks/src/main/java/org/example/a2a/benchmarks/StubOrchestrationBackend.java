@@ -0,0 +1,41 @@
+package org.example.a2a.benchmarks;
+
+import com.sap.ai.sdk.orchestration.OrchestrationModuleConfig;
+import com.sap.ai.sdk.orchestration.OrchestrationPrompt;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.example.a2a.server.orchestration.Completion;
+import org.example.a2a.server.orchestration.OrchestrationBackend;
+
+/**
+ * Backend answering every prompt instantly with the same text, so that benchmarks measure only the
+ * code around the orchestration call.
+ */
+public class StubOrchestrationBackend implements OrchestrationBackend {
+  private final Completion completion;
+  private final String[] deltas;
+
+  /**
+   * @param content The text of every completion.
+   * @param deltaCount The number of deltas a streamed completion is split into.
+   */
+  public StubOrchestrationBackend(String content, int deltaCount) {
+    this.completion = new Completion(content, 0, content.length() / 4);
+    int size = Math.max(1, content.length() / deltaCount);
+    this.deltas = new String[deltaCount];
+    for (int i = 0; i < deltaCount; i++) {
+      int end = i == deltaCount - 1 ? content.length() : Math.min(content.length(), (i + 1) * size);
+      deltas[i] = content.substring(Math.min(content.length(), i * size), end);
+    }
+  }
+
+  @Override
+  public Completion chat(OrchestrationPrompt prompt, OrchestrationModuleConfig config) {
+    return completion;
+  }
+
+  @Override
+  public Stream<String> stream(OrchestrationPrompt prompt, OrchestrationModuleConfig config) {
+    return Arrays.stream(deltas);
+  }
+}
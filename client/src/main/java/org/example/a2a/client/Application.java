@@ -7,9 +7,7 @@ import io.a2a.client.MessageEvent;
 import io.a2a.client.TaskEvent;
 import io.a2a.client.TaskUpdateEvent;
 import io.a2a.client.config.ClientConfig;
-import io.a2a.client.http.A2ACardResolver;
 import io.a2a.client.http.A2AHttpClient;
-import io.a2a.client.http.JdkA2AHttpClient;
 import io.a2a.client.transport.rest.RestTransport;
 import io.a2a.client.transport.rest.RestTransportConfig;
 import io.a2a.spec.A2AClientError;
@@ -20,6 +18,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
+import org.example.a2a.client.card.AgentCardCache;
 
 @Slf4j
 public class Application {
@@ -30,6 +29,16 @@ public class Application {
   private static final String URL = "http://localhost:8080";
   // Flag to indicate whether streaming mode is enabled
   private static final boolean IS_STREAMING = false;
+  // Sampling, truncation and threading of HTTP logging, see HttpLogOptions
+  private static final HttpLogOptions HTTP_LOG_OPTIONS = HttpLogOptions.fromSystemProperties();
+  // Latency and size histograms of HTTP requests
+  private static final HttpClientMetrics HTTP_METRICS = new HttpClientMetrics();
+  // One transport for card resolution and messaging, so that both share connections
+  private static final Http2A2AHttpClient HTTP_CLIENT =
+      new Http2A2AHttpClient(HttpTransportOptions.fromSystemProperties());
+  // Agent cards cached across runs, see AgentCardCache
+  private static final AgentCardCache AGENT_CARDS =
+      AgentCardCache.fromSystemProperties(getCardResolutionHttpClient());
 
   /**
    * Main entry point of the application. Initializes the agent client, sends a message, and waits
@@ -57,6 +66,10 @@ public class Application {
       // Wait until the latch is counted down to 0
       LATCH.await();
 
+      HTTP_METRICS
+          .snapshot()
+          .forEach((endpoint, stats) -> log.info("HTTP {}: {}", endpoint, stats));
+
     } catch (A2AClientError e) {
       throw new RuntimeException("Agent card retrieval failed", e);
     } catch (A2AClientException e) {
@@ -73,7 +86,8 @@ public class Application {
    * @throws A2AClientError If the agent card retrieval fails
    */
   private static AgentCard getAgentCard() throws A2AClientError {
-    return new A2ACardResolver(getCardResolutionHttpClient(), URL).getAgentCard();
+    // Served from memory or disk when possible, stale cards are refreshed in the background
+    return AGENT_CARDS.get(URL);
   }
 
   /**
@@ -108,12 +122,12 @@ public class Application {
   /**
    * Creates an HTTP client for card resolution.
    *
-   * <p>May use different transport for agent card resolution
+   * <p>Shares the transport of messaging, and is logged and measured like it
    *
    * @return The HTTP client
    */
   private static A2AHttpClient getCardResolutionHttpClient() {
-    return new LoggingA2AHttpClient(new JdkA2AHttpClient());
+    return new LoggingA2AHttpClient(HTTP_CLIENT, HTTP_LOG_OPTIONS, HTTP_METRICS);
   }
 
   /**
@@ -122,7 +136,7 @@ public class Application {
    * @return The HTTP client
    */
   private static A2AHttpClient getMessagingHttpClient() {
-    return new LoggingA2AHttpClient(new JdkA2AHttpClient());
+    return new LoggingA2AHttpClient(HTTP_CLIENT, HTTP_LOG_OPTIONS, HTTP_METRICS);
   }
 
   /**
@@ -0,0 +1,70 @@
+package org.example.a2a.client;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes log entries on a background thread, so that formatting and I/O stay off request threads.
+ *
+ * <p>Entries wait in a bounded buffer. When it is full, new entries are dropped instead of blocking
+ * the caller, and the number of dropped entries is logged once the buffer has drained.
+ */
+@Slf4j
+final class AsyncLogWriter {
+  private static AsyncLogWriter shared;
+
+  private final BlockingQueue<Runnable> buffer;
+  private final AtomicLong dropped = new AtomicLong();
+
+  private AsyncLogWriter(int capacity) {
+    this.buffer = new ArrayBlockingQueue<>(capacity);
+    Thread thread = new Thread(this::drain, "a2a-http-log");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Returns the writer shared by all logging clients, starting it on first use.
+   *
+   * @param capacity The buffer capacity, only used when the writer is started.
+   * @return The shared writer.
+   */
+  static synchronized AsyncLogWriter shared(int capacity) {
+    if (shared == null) {
+      shared = new AsyncLogWriter(capacity);
+    }
+    return shared;
+  }
+
+  /**
+   * Queues an entry without blocking.
+   *
+   * @param entry The action writing the entry.
+   */
+  void submit(Runnable entry) {
+    if (!buffer.offer(entry)) {
+      dropped.incrementAndGet();
+    }
+  }
+
+  private void drain() {
+    try {
+      while (true) {
+        Runnable entry = buffer.take();
+        try {
+          entry.run();
+        } catch (RuntimeException e) {
+          log.warn("Writing a log entry failed", e);
+        }
+        long lost = buffer.isEmpty() ? dropped.getAndSet(0) : 0;
+        if (lost > 0) {
+          log.warn("Dropped {} HTTP log entries, the log buffer was full", lost);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
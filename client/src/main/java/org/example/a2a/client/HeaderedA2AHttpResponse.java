@@ -0,0 +1,20 @@
+package org.example.a2a.client;
+
+import io.a2a.client.http.A2AHttpResponse;
+import java.util.Optional;
+
+/**
+ * An A2AHttpResponse that also exposes its headers, e.g. the validators and {@code Cache-Control}
+ * of conditional requests. Wrappers such as {@link LoggingA2AHttpClient} pass responses on as they
+ * are, so the headers remain available behind them.
+ */
+public interface HeaderedA2AHttpResponse extends A2AHttpResponse {
+
+  /**
+   * Returns the first value of a response header.
+   *
+   * @param name The case-insensitive header name.
+   * @return The value, empty if the response has no such header.
+   */
+  Optional<String> header(String name);
+}
@@ -0,0 +1,325 @@
+package org.example.a2a.client;
+
+import io.a2a.client.http.A2AHttpClient;
+import io.a2a.client.http.A2AHttpResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * An A2AHttpClient meant to be shared by card resolution, messaging and event streams.
+ *
+ * <p>All requests go through one {@link HttpClient}. With HTTP/2 concurrent requests and event
+ * streams to the same host are multiplexed over a few connections instead of opening one each.
+ * The number of requests in flight can be capped, and responses may be compressed. Responses are
+ * {@link HeaderedA2AHttpResponse}s.
+ *
+ * <p>Cancelling the future of an event stream closes the stream, so that its connection slot is
+ * released. Response handling runs on daemon threads, {@link #close()} stops them and the client.
+ */
+public class Http2A2AHttpClient implements A2AHttpClient, AutoCloseable {
+  private final HttpTransportOptions options;
+  private final ExecutorService executor;
+  private final HttpClient httpClient;
+  private final Semaphore permits;
+
+  public Http2A2AHttpClient(HttpTransportOptions options) {
+    this.options = options;
+    this.executor =
+        options.executorThreads() > 0
+            ? Executors.newFixedThreadPool(
+                options.executorThreads(),
+                runnable -> {
+                  Thread thread = new Thread(runnable, "a2a-http");
+                  thread.setDaemon(true);
+                  return thread;
+                })
+            : Executors.newVirtualThreadPerTaskExecutor();
+    this.httpClient =
+        HttpClient.newBuilder()
+            .version(options.http2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(options.connectTimeout())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(executor)
+            .build();
+    this.permits =
+        options.maxConcurrentRequests() > 0
+            ? new Semaphore(options.maxConcurrentRequests(), true)
+            : null;
+  }
+
+  @Override
+  public GetBuilder createGet() {
+    return new Get();
+  }
+
+  @Override
+  public PostBuilder createPost() {
+    return new Post();
+  }
+
+  @Override
+  public DeleteBuilder createDelete() {
+    return new Delete();
+  }
+
+  /** Aborts the requests and streams in flight and stops the response handling threads. */
+  @Override
+  public void close() {
+    httpClient.shutdownNow();
+    executor.shutdownNow();
+  }
+
+  private A2AHttpResponse send(HttpRequest.Builder request)
+      throws IOException, InterruptedException {
+    request.timeout(options.requestTimeout());
+    if (options.compression()) {
+      request.header("Accept-Encoding", "gzip");
+    }
+    acquire();
+    try {
+      HttpResponse<byte[]> response =
+          httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+      return new Response(response.statusCode(), decode(response), response.headers());
+    } finally {
+      release();
+    }
+  }
+
+  private CompletableFuture<Void> subscribe(
+      HttpRequest.Builder request,
+      Consumer<String> messageConsumer,
+      Consumer<Throwable> errorConsumer,
+      Runnable completeRunnable)
+      throws InterruptedException {
+    request.header("Accept", "text/event-stream");
+    acquire();
+    CompletableFuture<HttpResponse<Stream<String>>> exchange =
+        httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofLines());
+    AtomicReference<Stream<String>> body = new AtomicReference<>();
+    CompletableFuture<Void> subscription = new CompletableFuture<>();
+    // Cancelling the subscription aborts the exchange, or closes the stream once it is open, which
+    // ends the reading below and releases the permit
+    subscription.whenComplete(
+        (ignored, error) -> {
+          if (subscription.isCancelled()) {
+            exchange.cancel(true);
+            Stream<String> lines = body.get();
+            if (lines != null) {
+              lines.close();
+            }
+          }
+        });
+    exchange
+        // Reading the stream blocks, so it runs on the executor rather than the completing thread
+        .thenAcceptAsync(
+            response -> {
+              try (Stream<String> lines = response.body()) {
+                body.set(lines);
+                if (subscription.isCancelled()) {
+                  return;
+                }
+                if (!isSuccess(response.statusCode())) {
+                  throw new CompletionException(
+                      new IOException("Event stream request failed: " + response.statusCode()));
+                }
+                dispatchEvents(lines, messageConsumer);
+              }
+              completeRunnable.run();
+            },
+            executor)
+        .whenComplete(
+            (ignored, error) -> {
+              release();
+              if (subscription.isCancelled()) {
+                return;
+              }
+              if (error == null) {
+                subscription.complete(null);
+                return;
+              }
+              Throwable cause =
+                  error instanceof CompletionException && error.getCause() != null
+                      ? error.getCause()
+                      : error;
+              errorConsumer.accept(cause);
+              subscription.completeExceptionally(cause);
+            });
+    return subscription;
+  }
+
+  /** Passes the data of each server-sent event on, joining multi-line data. */
+  private static void dispatchEvents(Stream<String> lines, Consumer<String> messageConsumer) {
+    StringBuilder data = new StringBuilder();
+    lines.forEachOrdered(
+        line -> {
+          if (line.isEmpty()) {
+            if (!data.isEmpty()) {
+              messageConsumer.accept(data.toString());
+              data.setLength(0);
+            }
+          } else if (line.startsWith("data:")) {
+            if (!data.isEmpty()) {
+              data.append('\n');
+            }
+            data.append(line, line.startsWith("data: ") ? 6 : 5, line.length());
+          }
+        });
+    if (!data.isEmpty()) {
+      messageConsumer.accept(data.toString());
+    }
+  }
+
+  private static String decode(HttpResponse<byte[]> response) throws IOException {
+    byte[] body = response.body();
+    String encoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+    if (!encoding.equalsIgnoreCase("gzip")) {
+      return new String(body, StandardCharsets.UTF_8);
+    }
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private void acquire() throws InterruptedException {
+    if (permits != null) {
+      permits.acquire();
+    }
+  }
+
+  private void release() {
+    if (permits != null) {
+      permits.release();
+    }
+  }
+
+  private static boolean isSuccess(int status) {
+    return status >= 200 && status < 300;
+  }
+
+  private record Response(int status, String body, HttpHeaders headers)
+      implements HeaderedA2AHttpResponse {
+    @Override
+    public boolean success() {
+      return isSuccess(status);
+    }
+
+    @Override
+    public Optional<String> header(String name) {
+      return headers.firstValue(name);
+    }
+  }
+
+  /** Collects URL and headers shared by all request kinds. */
+  private abstract static class Request<T> {
+    private String url;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    abstract T self();
+
+    public T url(String url) {
+      this.url = url;
+      return self();
+    }
+
+    public T addHeader(String name, String value) {
+      headers.put(name, value);
+      return self();
+    }
+
+    public T addHeaders(Map<String, String> headers) {
+      this.headers.putAll(headers);
+      return self();
+    }
+
+    HttpRequest.Builder request() {
+      HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url));
+      headers.forEach(request::header);
+      return request;
+    }
+  }
+
+  private class Get extends Request<GetBuilder> implements GetBuilder {
+    @Override
+    GetBuilder self() {
+      return this;
+    }
+
+    @Override
+    public A2AHttpResponse get() throws IOException, InterruptedException {
+      return send(request().GET());
+    }
+
+    @Override
+    public CompletableFuture<Void> getAsyncSSE(
+        Consumer<String> messageConsumer,
+        Consumer<Throwable> errorConsumer,
+        Runnable completeRunnable)
+        throws IOException, InterruptedException {
+      return subscribe(request().GET(), messageConsumer, errorConsumer, completeRunnable);
+    }
+  }
+
+  private class Post extends Request<PostBuilder> implements PostBuilder {
+    private String body = "";
+
+    @Override
+    PostBuilder self() {
+      return this;
+    }
+
+    @Override
+    public PostBuilder body(String body) {
+      this.body = body;
+      return this;
+    }
+
+    private HttpRequest.Builder post() {
+      return request().POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public A2AHttpResponse post() throws IOException, InterruptedException {
+      return send(post());
+    }
+
+    @Override
+    public CompletableFuture<Void> postAsyncSSE(
+        Consumer<String> messageConsumer,
+        Consumer<Throwable> errorConsumer,
+        Runnable completeRunnable)
+        throws IOException, InterruptedException {
+      return subscribe(post(), messageConsumer, errorConsumer, completeRunnable);
+    }
+  }
+
+  private class Delete extends Request<DeleteBuilder> implements DeleteBuilder {
+    @Override
+    DeleteBuilder self() {
+      return this;
+    }
+
+    @Override
+    public A2AHttpResponse delete() throws IOException, InterruptedException {
+      return send(request().DELETE());
+    }
+  }
+}
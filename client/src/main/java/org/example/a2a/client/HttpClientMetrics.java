@@ -0,0 +1,119 @@
+package org.example.a2a.client;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency and size histograms of HTTP exchanges, per method and endpoint.
+ *
+ * <p>Endpoints are URL paths without query, with task ids and similar segments replaced by {@code
+ * {id}}, so that the number of tracked endpoints stays small.
+ */
+public class HttpClientMetrics {
+  // Segments of at least 16 characters containing a digit, e.g. UUIDs
+  private static final Pattern ID_SEGMENT = Pattern.compile("(?=.*\\d)[\\w-]{16,}");
+
+  private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+  /**
+   * Records a completed exchange.
+   *
+   * @param method The HTTP method.
+   * @param url The request URL.
+   * @param nanos The time until the response, or until the end of the event stream.
+   * @param requestChars The length of the request body.
+   * @param responseChars The length of the response body, or of all events.
+   */
+  void record(String method, String url, long nanos, int requestChars, long responseChars) {
+    Endpoint endpoint = endpoint(method, url);
+    endpoint.latency.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+    endpoint.requestChars.recordValue(requestChars);
+    endpoint.responseChars.recordValue(responseChars);
+  }
+
+  /** Records an exchange that failed without a response. */
+  void failed(String method, String url) {
+    endpoint(method, url).failures.increment();
+  }
+
+  /**
+   * Returns the statistics of all endpoints seen so far.
+   *
+   * @return The statistics keyed by method and endpoint, e.g. {@code POST /v1/message:send}.
+   */
+  public Map<String, Stats> snapshot() {
+    Map<String, Stats> snapshot = new TreeMap<>();
+    endpoints.forEach((key, endpoint) -> snapshot.put(key, endpoint.stats()));
+    return snapshot;
+  }
+
+  private Endpoint endpoint(String method, String url) {
+    return endpoints.computeIfAbsent(method + " " + normalize(url), key -> new Endpoint());
+  }
+
+  static String normalize(String url) {
+    int scheme = url.indexOf("://");
+    int start = url.indexOf('/', scheme < 0 ? 0 : scheme + 3);
+    if (start < 0) {
+      return "/";
+    }
+    int query = url.indexOf('?', start);
+    String path = query < 0 ? url.substring(start) : url.substring(start, query);
+    StringBuilder normalized = new StringBuilder(path.length());
+    for (String segment : path.split("/", -1)) {
+      if (!normalized.isEmpty() || !segment.isEmpty()) {
+        normalized.append('/');
+      }
+      normalized.append(ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment);
+    }
+    return normalized.isEmpty() ? "/" : normalized.toString();
+  }
+
+  /**
+   * Statistics of one endpoint.
+   *
+   * @param count Exchanges with a response.
+   * @param failures Exchanges without a response.
+   * @param p50Millis Median latency.
+   * @param p99Millis 99th percentile latency.
+   * @param maxMillis Maximum latency.
+   * @param meanRequestChars Average request body length.
+   * @param meanResponseChars Average response body length.
+   * @param p99ResponseChars 99th percentile response body length.
+   */
+  public record Stats(
+      long count,
+      long failures,
+      double p50Millis,
+      double p99Millis,
+      double maxMillis,
+      double meanRequestChars,
+      double meanResponseChars,
+      long p99ResponseChars) {}
+
+  private static class Endpoint {
+    // Latency in microseconds with three significant digits, sizes with two
+    private final Histogram latency = new ConcurrentHistogram(3);
+    private final Histogram requestChars = new ConcurrentHistogram(2);
+    private final Histogram responseChars = new ConcurrentHistogram(2);
+    private final LongAdder failures = new LongAdder();
+
+    private Stats stats() {
+      return new Stats(
+          latency.getTotalCount(),
+          failures.sum(),
+          latency.getValueAtPercentile(50) / 1000.0,
+          latency.getValueAtPercentile(99) / 1000.0,
+          latency.getMaxValue() / 1000.0,
+          requestChars.getMean(),
+          responseChars.getMean(),
+          responseChars.getValueAtPercentile(99));
+    }
+  }
+}
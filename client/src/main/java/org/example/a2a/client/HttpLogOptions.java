@@ -0,0 +1,34 @@
+package org.example.a2a.client;
+
+/**
+ * Settings of the {@link LoggingA2AHttpClient}, read from {@code a2a.http.log.*} system properties.
+ *
+ * @param sampleRate The share of exchanges that are logged, between 0 and 1. Metrics cover all.
+ * @param maxBodyChars The number of body characters logged, longer bodies are truncated. Negative
+ *     for no limit, 0 to log no bodies.
+ * @param async Whether log lines are written by a background thread instead of the caller.
+ * @param bufferCapacity The number of exchanges waiting to be logged in async mode before further
+ *     ones are dropped.
+ */
+public record HttpLogOptions(
+    double sampleRate, int maxBodyChars, boolean async, int bufferCapacity) {
+
+  /** Logs every exchange with full bodies on the calling thread. */
+  public static final HttpLogOptions DEBUG = new HttpLogOptions(1, -1, false, 0);
+
+  /**
+   * Returns the options given as system properties, falling back to {@link #DEBUG}.
+   *
+   * <p>For production use e.g. {@code -Da2a.http.log.sample-rate=0.01
+   * -Da2a.http.log.max-body-chars=512 -Da2a.http.log.async=true}.
+   *
+   * @return The options.
+   */
+  public static HttpLogOptions fromSystemProperties() {
+    return new HttpLogOptions(
+        Double.parseDouble(System.getProperty("a2a.http.log.sample-rate", "1")),
+        Integer.getInteger("a2a.http.log.max-body-chars", DEBUG.maxBodyChars()),
+        Boolean.getBoolean("a2a.http.log.async"),
+        Integer.getInteger("a2a.http.log.buffer-capacity", 1024));
+  }
+}
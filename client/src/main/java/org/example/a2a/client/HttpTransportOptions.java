@@ -0,0 +1,34 @@
+package org.example.a2a.client;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@link Http2A2AHttpClient}, read from {@code a2a.http.*} system properties.
+ *
+ * @param http2 Whether HTTP/2 is negotiated, so that concurrent requests share connections.
+ * @param connectTimeout How long establishing a connection may take.
+ * @param requestTimeout How long a non-streaming request may take until its response.
+ * @param maxConcurrentRequests Requests and open event streams allowed at once, further ones wait.
+ *     0 for no limit.
+ * @param executorThreads Platform threads handling responses and event streams, or 0 to use a
+ *     virtual thread per task.
+ * @param compression Whether compressed responses are accepted.
+ */
+public record HttpTransportOptions(
+    boolean http2,
+    Duration connectTimeout,
+    Duration requestTimeout,
+    int maxConcurrentRequests,
+    int executorThreads,
+    boolean compression) {
+
+  public static HttpTransportOptions fromSystemProperties() {
+    return new HttpTransportOptions(
+        Boolean.parseBoolean(System.getProperty("a2a.http.http2", "true")),
+        Duration.ofSeconds(Long.getLong("a2a.http.connect-timeout-seconds", 10)),
+        Duration.ofSeconds(Long.getLong("a2a.http.request-timeout-seconds", 300)),
+        Integer.getInteger("a2a.http.max-concurrent-requests", 0),
+        Integer.getInteger("a2a.http.executor-threads", 0),
+        Boolean.parseBoolean(System.getProperty("a2a.http.compression", "true")));
+  }
+}
@@ -5,21 +5,43 @@ import io.a2a.client.http.A2AHttpResponse;
 import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * A logging wrapper for the A2AHttpClient interface.
  *
- * <p>This class is unnecessary for regular usage of client and is only provided for debugging
- * purposes.
+ * <p>By default every exchange is logged with full bodies on the calling thread, which is only
+ * meant for debugging. With {@link HttpLogOptions} only a sample of exchanges is logged, bodies are
+ * truncated and log lines are written by a background thread, so that the wrapper can stay enabled
+ * in production. Requests are logged before they are sent, so a request that hangs still shows
+ * up. Bodies are truncated before entries are queued, so queued entries never hold whole bodies.
+ * Latency and body sizes of all exchanges are recorded in {@link HttpClientMetrics}.
  */
 @Slf4j
 public class LoggingA2AHttpClient implements A2AHttpClient {
   private final A2AHttpClient delegate;
+  private final HttpLogOptions options;
+  private final HttpClientMetrics metrics;
+  private final AsyncLogWriter writer;
 
   public LoggingA2AHttpClient(A2AHttpClient delegate) {
+    this(delegate, HttpLogOptions.DEBUG, new HttpClientMetrics());
+  }
+
+  /**
+   * @param delegate The client sending the requests.
+   * @param options The sampling, truncation and threading of log output.
+   * @param metrics The metrics exchanges are recorded in, may be shared by several clients.
+   */
+  public LoggingA2AHttpClient(
+      A2AHttpClient delegate, HttpLogOptions options, HttpClientMetrics metrics) {
     this.delegate = delegate;
+    this.options = options;
+    this.metrics = metrics;
+    this.writer = options.async() ? AsyncLogWriter.shared(options.bufferCapacity()) : null;
   }
 
   @Override
@@ -37,23 +59,137 @@ public class LoggingA2AHttpClient implements A2AHttpClient {
     return new LoggingDeleteBuilder(delegate.createDelete());
   }
 
-  // Shared logging utilities
-  private static void logRequest(String method, String url, String body) {
-    log.info("{} {}", method, url);
-    if (body != null && !body.trim().isEmpty()) {
-      log.info("Request body: {}", body);
-    }
+  public HttpClientMetrics metrics() {
+    return metrics;
   }
 
-  private static A2AHttpResponse logResponse(A2AHttpResponse response) {
-    log.info("Response {} {}", response.status(), response.status() >= 400 ? "ERROR" : "OK");
-    if (response.body() != null && !response.body().trim().isEmpty()) {
-      log.info("Response body: {}", response.body());
+  private A2AHttpResponse exchange(String method, String url, String body, Call call)
+      throws IOException, InterruptedException {
+    boolean sampled = sampled();
+    if (sampled) {
+      logRequest(method, url, body);
+    }
+    long start = System.nanoTime();
+    A2AHttpResponse response;
+    try {
+      response = call.execute();
+    } catch (IOException | InterruptedException | RuntimeException e) {
+      metrics.failed(method, url);
+      throw e;
+    }
+    long nanos = System.nanoTime() - start;
+    metrics.record(method, url, nanos, length(body), length(response.body()));
+    if (sampled) {
+      logResponse(method, url, response.status(), response.body(), nanos);
     }
     return response;
   }
 
-  private static class LoggingGetBuilder implements GetBuilder {
+  private CompletableFuture<Void> subscribe(
+      String method,
+      String url,
+      String body,
+      Consumer<String> messageConsumer,
+      Consumer<Throwable> errorConsumer,
+      Runnable completeRunnable,
+      Subscription subscription)
+      throws IOException, InterruptedException {
+    if (sampled()) {
+      logRequest(method, url, body);
+    }
+    long start = System.nanoTime();
+    LongAdder eventChars = new LongAdder();
+    return subscription.subscribe(
+        message -> {
+          eventChars.add(length(message));
+          messageConsumer.accept(message);
+        },
+        error -> {
+          metrics.failed(method, url);
+          errorConsumer.accept(error);
+        },
+        () -> {
+          metrics.record(method, url, System.nanoTime() - start, length(body), eventChars.sum());
+          completeRunnable.run();
+        });
+  }
+
+  private boolean sampled() {
+    double rate = options.sampleRate();
+    return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+  }
+
+  private void emit(Runnable entry) {
+    if (writer != null) {
+      writer.submit(entry);
+    } else {
+      entry.run();
+    }
+  }
+
+  private void logRequest(String method, String url, String body) {
+    String logged = loggable(body);
+    emit(
+        () -> {
+          log.info("{} {}", method, url);
+          if (logged != null) {
+            log.info("Request body: {}", logged);
+          }
+        });
+  }
+
+  private void logResponse(String method, String url, int status, String body, long nanos) {
+    String logged = loggable(body);
+    emit(
+        () -> {
+          log.info(
+              "Response {} {} to {} {} in {} ms",
+              status,
+              status >= 400 ? "ERROR" : "OK",
+              method,
+              url,
+              nanos / 1_000_000);
+          if (logged != null) {
+            log.info("Response body: {}", logged);
+          }
+        });
+  }
+
+  /** Returns the truncated body to log, or {@code null} if it is not logged. */
+  private String loggable(String body) {
+    if (body == null || body.isBlank() || options.maxBodyChars() == 0) {
+      return null;
+    }
+    return truncate(body);
+  }
+
+  private String truncate(String body) {
+    int max = options.maxBodyChars();
+    if (max < 0 || body.length() <= max) {
+      return body;
+    }
+    return body.substring(0, max) + "... (" + body.length() + " chars)";
+  }
+
+  private static int length(String body) {
+    return body == null ? 0 : body.length();
+  }
+
+  @FunctionalInterface
+  private interface Call {
+    A2AHttpResponse execute() throws IOException, InterruptedException;
+  }
+
+  @FunctionalInterface
+  private interface Subscription {
+    CompletableFuture<Void> subscribe(
+        Consumer<String> messageConsumer,
+        Consumer<Throwable> errorConsumer,
+        Runnable completeRunnable)
+        throws IOException, InterruptedException;
+  }
+
+  private class LoggingGetBuilder implements GetBuilder {
     private final GetBuilder delegate;
     private String url;
 
@@ -82,8 +218,7 @@ public class LoggingA2AHttpClient implements A2AHttpClient {
 
     @Override
     public A2AHttpResponse get() throws IOException, InterruptedException {
-      logRequest("GET", url, null);
-      return logResponse(delegate.get());
+      return exchange("GET", url, null, delegate::get);
     }
 
     @Override
@@ -92,12 +227,18 @@ public class LoggingA2AHttpClient implements A2AHttpClient {
         Consumer<Throwable> errorConsumer,
         Runnable completeRunnable)
         throws IOException, InterruptedException {
-      logRequest("GET SSE", url, null);
-      return delegate.getAsyncSSE(messageConsumer, errorConsumer, completeRunnable);
+      return subscribe(
+          "GET SSE",
+          url,
+          null,
+          messageConsumer,
+          errorConsumer,
+          completeRunnable,
+          delegate::getAsyncSSE);
     }
   }
 
-  private static class LoggingPostBuilder implements PostBuilder {
+  private class LoggingPostBuilder implements PostBuilder {
     private final PostBuilder delegate;
     private String url;
     private String body;
@@ -134,8 +275,7 @@ public class LoggingA2AHttpClient implements A2AHttpClient {
 
     @Override
     public A2AHttpResponse post() throws IOException, InterruptedException {
-      logRequest("POST", url, body);
-      return logResponse(delegate.post());
+      return exchange("POST", url, body, delegate::post);
     }
 
     @Override
@@ -144,12 +284,18 @@ public class LoggingA2AHttpClient implements A2AHttpClient {
         Consumer<Throwable> errorConsumer,
         Runnable completeRunnable)
         throws IOException, InterruptedException {
-      logRequest("POST SSE", url, body);
-      return delegate.postAsyncSSE(messageConsumer, errorConsumer, completeRunnable);
+      return subscribe(
+          "POST SSE",
+          url,
+          body,
+          messageConsumer,
+          errorConsumer,
+          completeRunnable,
+          delegate::postAsyncSSE);
     }
   }
 
-  private static class LoggingDeleteBuilder implements DeleteBuilder {
+  private class LoggingDeleteBuilder implements DeleteBuilder {
     private final DeleteBuilder delegate;
     private String url;
 
@@ -178,8 +324,7 @@ public class LoggingA2AHttpClient implements A2AHttpClient {
 
     @Override
     public A2AHttpResponse delete() throws IOException, InterruptedException {
-      logRequest("DELETE", url, null);
-      return logResponse(delegate.delete());
+      return exchange("DELETE", url, null, delegate::delete);
     }
   }
 }
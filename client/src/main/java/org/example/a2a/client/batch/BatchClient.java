@@ -0,0 +1,285 @@
+package org.example.a2a.client.batch;
+
+import io.a2a.client.Client;
+import io.a2a.client.ClientEvent;
+import io.a2a.client.MessageEvent;
+import io.a2a.client.TaskEvent;
+import io.a2a.client.TaskUpdateEvent;
+import io.a2a.client.config.ClientConfig;
+import io.a2a.client.http.A2ACardResolver;
+import io.a2a.client.http.A2AHttpClient;
+import io.a2a.client.transport.rest.RestTransport;
+import io.a2a.client.transport.rest.RestTransportConfig;
+import io.a2a.spec.A2AClientError;
+import io.a2a.spec.A2AClientException;
+import io.a2a.spec.AgentCard;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TextPart;
+import io.a2a.util.Utils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.example.a2a.client.Http2A2AHttpClient;
+import org.example.a2a.client.HttpTransportOptions;
+import org.example.a2a.client.push.WebhookReceiver;
+
+/**
+ * Sends many messages through one client, with a future per message.
+ *
+ * <p>Every message is sent with a context id of its own. The agent answers within that context,
+ * so events are correlated with their message by context id, whichever thread delivers them. At
+ * most {@code maxOutstanding} messages await their answer at the same time, further ones wait
+ * before being sent.
+ *
+ * <p>Errors of event streams carry no context id and cannot be correlated, so a message whose
+ * stream fails completes when it times out.
+ *
+ * <p>With a {@link WebhookReceiver}, messages are sent without waiting for the task to finish and
+ * register the receiver for push notifications. A message then completes with the final task
+ * pushed to the receiver, and no request is held open while the agent works.
+ */
+@Slf4j
+public class BatchClient implements AutoCloseable {
+  private final Client client;
+  private final Semaphore outstanding;
+  private final Duration timeout;
+  private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+  private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+  private final WebhookReceiver receiver;
+
+  /**
+   * @param card The agent card of the server.
+   * @param httpClient The HTTP client of the messages.
+   * @param maxOutstanding The number of messages awaiting their answer at the same time.
+   * @param streaming Whether messages are sent with streaming.
+   * @param timeout How long a message may take from being sent until its answer.
+   * @throws A2AClientException If the client cannot be created.
+   */
+  public BatchClient(
+      AgentCard card,
+      A2AHttpClient httpClient,
+      int maxOutstanding,
+      boolean streaming,
+      Duration timeout)
+      throws A2AClientException {
+    this(card, httpClient, maxOutstanding, streaming, timeout, null);
+  }
+
+  /**
+   * @param card The agent card of the server.
+   * @param httpClient The HTTP client of the messages.
+   * @param maxOutstanding The number of messages awaiting their answer at the same time.
+   * @param streaming Whether messages are sent with streaming.
+   * @param timeout How long a message may take from being sent until its answer.
+   * @param receiver The receiver of push notifications with the final tasks, or {@code null} to
+   *     take them from the responses.
+   * @throws A2AClientException If the client cannot be created.
+   */
+  public BatchClient(
+      AgentCard card,
+      A2AHttpClient httpClient,
+      int maxOutstanding,
+      boolean streaming,
+      Duration timeout,
+      WebhookReceiver receiver)
+      throws A2AClientException {
+    this.outstanding = new Semaphore(maxOutstanding, true);
+    this.timeout = timeout;
+    this.receiver = receiver;
+    ClientConfig.Builder configBuilder =
+        new ClientConfig.Builder()
+            .setAcceptedOutputModes(List.of("text/plain"))
+            .setStreaming(streaming);
+    if (receiver != null) {
+      configBuilder.setPolling(true).setPushNotificationConfig(receiver.config());
+    }
+    ClientConfig clientConfig = configBuilder.build();
+    this.client =
+        Client.builder(card)
+            .clientConfig(clientConfig)
+            .withTransport(RestTransport.class, new RestTransportConfig(httpClient))
+            .addConsumers(List.of(this::onEvent))
+            .streamingErrorHandler(error -> log.warn("Event stream failed", error))
+            .build();
+  }
+
+  /**
+   * Entry point of the batch mode, sending every line of the input file as a prompt.
+   *
+   * @param args Command-line arguments, unused
+   */
+  public static void main(String[] args) {
+    BatchOptions options = BatchOptions.fromSystemProperties();
+    try (Http2A2AHttpClient httpClient =
+            new Http2A2AHttpClient(HttpTransportOptions.fromSystemProperties());
+        WebhookReceiver receiver =
+            options.push() ? WebhookReceiver.fromSystemProperties() : null;
+        BatchClient batch =
+            new BatchClient(
+                new A2ACardResolver(httpClient, options.url()).getAgentCard(),
+                httpClient,
+                options.maxOutstanding(),
+                options.streaming(),
+                options.timeout(),
+                receiver)) {
+      List<String> prompts =
+          Files.readAllLines(options.input()).stream().filter(line -> !line.isBlank()).toList();
+      log.info(
+          "Sending {} prompts, at most {} at a time", prompts.size(), options.maxOutstanding());
+      BatchSummary summary = batch.sendAll(prompts).join();
+      Files.createDirectories(options.output().toAbsolutePath().getParent());
+      Utils.OBJECT_MAPPER
+          .writerWithDefaultPrettyPrinter()
+          .writeValue(options.output().toFile(), summary);
+      log.info(
+          "{} succeeded, {} failed, {} timed out, results written to {}",
+          summary.succeeded(),
+          summary.failed(),
+          summary.timedOut(),
+          options.output().toAbsolutePath());
+    } catch (A2AClientError e) {
+      throw new RuntimeException("Agent card retrieval failed", e);
+    } catch (A2AClientException e) {
+      throw new RuntimeException("Client initialization failed", e);
+    } catch (IOException e) {
+      throw new RuntimeException("Reading the prompts or writing the results failed", e);
+    }
+  }
+
+  /**
+   * Sends prompts as user messages and aggregates the answers.
+   *
+   * @param prompts The prompts.
+   * @return A future completing with the summary once every message has its answer or failed.
+   */
+  public CompletableFuture<BatchSummary> sendAll(List<String> prompts) {
+    List<CompletableFuture<BatchResult>> futures = prompts.stream().map(this::submit).toList();
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+        .handle((ignored, error) -> BatchSummary.of(futures));
+  }
+
+  /**
+   * Sends a prompt as a user message in a new context.
+   *
+   * @param prompt The prompt.
+   * @return A future completing with the answer.
+   */
+  public CompletableFuture<BatchResult> submit(String prompt) {
+    return submit(
+        new Message.Builder()
+            .role(Message.Role.USER)
+            .messageId(UUID.randomUUID().toString())
+            .contextId(UUID.randomUUID().toString())
+            .parts(List.of(new TextPart(prompt)))
+            .build());
+  }
+
+  /**
+   * Sends a message once fewer than {@code maxOutstanding} messages await their answer.
+   *
+   * @param message The message, with a context id no other outstanding message has.
+   * @return A future completing with the answer, or exceptionally if the message cannot be sent
+   *     or times out.
+   * @throws IllegalArgumentException If the message has no context id.
+   */
+  public CompletableFuture<BatchResult> submit(Message message) {
+    if (message.getContextId() == null) {
+      throw new IllegalArgumentException("Batch messages need a context id to be correlated");
+    }
+    Pending current = new Pending(message);
+    senders.execute(() -> send(current));
+    return current.result;
+  }
+
+  private void send(Pending current) {
+    try {
+      outstanding.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      current.result.completeExceptionally(e);
+      return;
+    }
+    String contextId = current.message.getContextId();
+    if (pending.putIfAbsent(contextId, current) != null) {
+      outstanding.release();
+      current.result.completeExceptionally(
+          new IllegalArgumentException("Another outstanding message has context " + contextId));
+      return;
+    }
+    current.result.whenComplete(
+        (result, error) -> {
+          pending.remove(contextId, current);
+          outstanding.release();
+        });
+    current.startNanos = System.nanoTime();
+    current.result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    try {
+      client.sendMessage(current.message);
+    } catch (A2AClientException | RuntimeException e) {
+      current.result.completeExceptionally(e);
+    }
+  }
+
+  private void onEvent(ClientEvent event, AgentCard card) {
+    if (event instanceof MessageEvent messageEvent) {
+      Message reply = messageEvent.getMessage();
+      Pending current = pending.get(reply.getContextId());
+      if (current != null) {
+        current.complete(null, reply);
+      }
+    } else if (event instanceof TaskEvent taskEvent) {
+      completeIfFinal(taskEvent.getTask());
+    } else if (event instanceof TaskUpdateEvent updateEvent) {
+      completeIfFinal(updateEvent.getTask());
+    }
+  }
+
+  private void completeIfFinal(Task task) {
+    Pending current = pending.get(task.getContextId());
+    if (current == null) {
+      return;
+    }
+    if (task.getStatus().state().isFinal()) {
+      current.complete(task, null);
+    } else if (receiver != null) {
+      CompletableFuture<Task> pushed = receiver.await(task.getId());
+      pushed.thenAccept(finalTask -> current.complete(finalTask, null));
+      // Timed out messages must not leave their task registered with the receiver
+      current.result.whenComplete((result, error) -> pushed.cancel(false));
+    }
+  }
+
+  /** Waits for the messages submitted so far to be sent. */
+  @Override
+  public void close() {
+    senders.close();
+  }
+
+  /** A message awaiting its answer. */
+  private static class Pending {
+    private final Message message;
+    private final CompletableFuture<BatchResult> result = new CompletableFuture<>();
+    private volatile long startNanos;
+
+    private Pending(Message message) {
+      this.message = message;
+    }
+
+    private void complete(Task task, Message reply) {
+      long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+      result.complete(
+          new BatchResult(message.getMessageId(), message.getContextId(), task, reply, latency));
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package org.example.a2a.client.batch;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of a batch run, read from {@code batch.*} system properties.
+ *
+ * @param url The base URL of the A2A service.
+ * @param maxOutstanding The number of messages awaiting their result at the same time.
+ * @param streaming Whether messages are sent with streaming.
+ * @param push Whether final results are received as push notifications instead of responses.
+ * @param timeout How long a message may take from being sent until its result.
+ * @param input The file holding one prompt per line.
+ * @param output The file the JSON summary is written to.
+ */
+public record BatchOptions(
+    String url,
+    int maxOutstanding,
+    boolean streaming,
+    boolean push,
+    Duration timeout,
+    Path input,
+    Path output) {
+
+  public static BatchOptions fromSystemProperties() {
+    return new BatchOptions(
+        System.getProperty("batch.url", "http://localhost:8080"),
+        Integer.getInteger("batch.max-outstanding", 32),
+        Boolean.parseBoolean(System.getProperty("batch.streaming", "false")),
+        Boolean.parseBoolean(System.getProperty("batch.push", "false")),
+        Duration.ofSeconds(Long.getLong("batch.timeout-seconds", 120)),
+        Path.of(System.getProperty("batch.input", "prompts.txt")),
+        Path.of(System.getProperty("batch.output", "target/batch-result.json")));
+  }
+}
@@ -0,0 +1,44 @@
+package org.example.a2a.client.batch;
+
+import io.a2a.spec.Message;
+import io.a2a.spec.Part;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TextPart;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * The final answer of the agent to one message of a batch.
+ *
+ * @param messageId The id of the message sent.
+ * @param contextId The context the message and its answer are correlated by.
+ * @param task The final task, or null if the agent answered with a message.
+ * @param reply The answer message, or null if the agent answered with a task.
+ * @param latencyMillis The time from sending the message until the answer.
+ */
+public record BatchResult(
+    String messageId, String contextId, Task task, Message reply, long latencyMillis) {
+
+  /** Whether the agent answered with a message or a completed task. */
+  public boolean succeeded() {
+    return reply != null || task.getStatus().state() == TaskState.COMPLETED;
+  }
+
+  /** Returns the text of the answer, taken from the reply or the artifacts of the task. */
+  public String text() {
+    List<Part<?>> parts =
+        reply != null
+            ? reply.getParts()
+            : task.getArtifacts() == null
+                ? List.of()
+                : task.getArtifacts().stream()
+                    .flatMap(artifact -> artifact.parts().stream())
+                    .toList();
+    return parts.stream()
+        .map(part -> part instanceof TextPart textPart ? textPart.getText() : null)
+        .filter(Objects::nonNull)
+        .collect(Collectors.joining());
+  }
+}
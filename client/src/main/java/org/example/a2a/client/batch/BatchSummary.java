@@ -0,0 +1,52 @@
+package org.example.a2a.client.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The aggregated results of a batch.
+ *
+ * @param succeeded Messages answered with a message or a completed task.
+ * @param failed Messages that could not be sent, or whose task ended in another final state.
+ * @param timedOut Messages without an answer within the timeout.
+ * @param results The answers received, in the order the messages were submitted.
+ */
+public record BatchSummary(int succeeded, int failed, int timedOut, List<BatchResult> results) {
+
+  /**
+   * Aggregates the results of completed futures, as returned by {@link BatchClient#submit}.
+   *
+   * @param futures The completed futures.
+   * @return The summary.
+   */
+  static BatchSummary of(List<CompletableFuture<BatchResult>> futures) {
+    int succeeded = 0;
+    int failed = 0;
+    int timedOut = 0;
+    List<BatchResult> results = new ArrayList<>(futures.size());
+    for (CompletableFuture<BatchResult> future : futures) {
+      switch (future.state()) {
+        case SUCCESS -> {
+          BatchResult result = future.resultNow();
+          results.add(result);
+          if (result.succeeded()) {
+            succeeded++;
+          } else {
+            failed++;
+          }
+        }
+        case FAILED -> {
+          if (future.exceptionNow() instanceof TimeoutException) {
+            timedOut++;
+          } else {
+            failed++;
+          }
+        }
+        default -> failed++;
+      }
+    }
+    return new BatchSummary(succeeded, failed, timedOut, results);
+  }
+}
@@ -0,0 +1,303 @@
+package org.example.a2a.client.card;
+
+import io.a2a.client.http.A2AHttpClient;
+import io.a2a.client.http.A2AHttpResponse;
+import io.a2a.spec.A2AClientError;
+import io.a2a.spec.AgentCard;
+import io.a2a.util.Utils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.example.a2a.client.HeaderedA2AHttpResponse;
+
+/**
+ * Cache of agent cards in memory and on disk, keyed by agent URL.
+ *
+ * <p>A fresh card is returned without any request. A stale card within the stale-while-revalidate
+ * window is returned at once while a conditional request ({@code If-None-Match}/{@code
+ * If-Modified-Since}) refreshes it in the background, so that short-lived processes only wait for
+ * the network when no usable card is cached. The refresh runs on a daemon thread. A process
+ * exiting before it has finished waits for it at shutdown, but no longer than the revalidation
+ * timeout, so a hanging agent cannot hold the process. Freshness follows the {@code Cache-Control}
+ * header of the server, with configurable fallbacks.
+ *
+ * <p>Validators and {@code Cache-Control} are read from {@link HeaderedA2AHttpResponse}s. With a
+ * client whose responses carry no headers, cards are cached for the fallback durations and
+ * fetched unconditionally.
+ */
+@Slf4j
+public class AgentCardCache {
+  private static final String CARD_PATH = "/.well-known/agent-card.json";
+  private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+  private static final Pattern STALE_WHILE_REVALIDATE =
+      Pattern.compile("stale-while-revalidate=(\\d+)");
+
+  private final A2AHttpClient httpClient;
+  private final Path directory;
+  private final Duration defaultMaxAge;
+  private final Duration defaultStaleWhileRevalidate;
+  private final Duration revalidationTimeout;
+  private final Map<String, CachedCard> cards = new ConcurrentHashMap<>();
+  private final Map<String, Thread> revalidations = new ConcurrentHashMap<>();
+  private final AtomicBoolean awaitedAtShutdown = new AtomicBoolean();
+
+  /**
+   * @param httpClient The client fetching cards, e.g. the instrumented one shared with messaging.
+   * @param directory The directory cards are persisted in, created when needed.
+   * @param defaultMaxAge How long a card is fresh if the server does not say.
+   * @param defaultStaleWhileRevalidate How long after that a stale card is still returned while it
+   *     is refreshed, if the server does not say.
+   * @param revalidationTimeout How long an exiting process waits for background refreshes.
+   */
+  public AgentCardCache(
+      A2AHttpClient httpClient,
+      Path directory,
+      Duration defaultMaxAge,
+      Duration defaultStaleWhileRevalidate,
+      Duration revalidationTimeout) {
+    this.httpClient = httpClient;
+    this.directory = directory;
+    this.defaultMaxAge = defaultMaxAge;
+    this.defaultStaleWhileRevalidate = defaultStaleWhileRevalidate;
+    this.revalidationTimeout = revalidationTimeout;
+  }
+
+  /**
+   * Returns a cache configured by {@code a2a.card-cache.*} system properties.
+   *
+   * @param httpClient The client fetching cards, e.g. the one shared with messaging.
+   * @return The cache, persisting cards in the user's cache directory by default.
+   */
+  public static AgentCardCache fromSystemProperties(A2AHttpClient httpClient) {
+    Path defaultDirectory =
+        Path.of(System.getProperty("user.home"), ".cache", "a2a", "agent-cards");
+    return new AgentCardCache(
+        httpClient,
+        Path.of(System.getProperty("a2a.card-cache.directory", defaultDirectory.toString())),
+        Duration.ofSeconds(Long.getLong("a2a.card-cache.max-age-seconds", 300)),
+        Duration.ofSeconds(Long.getLong("a2a.card-cache.stale-while-revalidate-seconds", 86400)),
+        Duration.ofSeconds(Long.getLong("a2a.card-cache.revalidation-timeout-seconds", 5)));
+  }
+
+  /**
+   * Returns the agent card of an agent, from the cache if possible.
+   *
+   * @param agentUrl The base URL of the agent.
+   * @return The agent card.
+   * @throws A2AClientError If no usable card is cached and fetching it fails.
+   */
+  public AgentCard get(String agentUrl) throws A2AClientError {
+    long now = System.currentTimeMillis();
+    CachedCard cached = cards.computeIfAbsent(agentUrl, this::readFromDisk);
+    if (cached != null && cached.isFresh(now)) {
+      return cached.card();
+    }
+    if (cached != null && cached.isUsableWhileRevalidating(now)) {
+      revalidateInBackground(agentUrl, cached);
+      return cached.card();
+    }
+    try {
+      return fetch(agentUrl, cached).card();
+    } catch (IOException | InterruptedException e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      if (cached != null) {
+        // An outdated card beats none, the agent most likely has not changed
+        log.warn("Refreshing the agent card of {} failed, using the cached one", agentUrl, e);
+        return cached.card();
+      }
+      throw new A2AClientError("Failed to fetch the agent card of " + agentUrl, e);
+    }
+  }
+
+  private void revalidateInBackground(String agentUrl, CachedCard cached) {
+    if (revalidations.containsKey(agentUrl)) {
+      return;
+    }
+    if (awaitedAtShutdown.compareAndSet(false, true)) {
+      // A short-lived process would otherwise exit before the refresh is persisted
+      Runtime.getRuntime()
+          .addShutdownHook(
+              Thread.ofPlatform()
+                  .name("agent-card-revalidation-shutdown")
+                  .unstarted(this::awaitRevalidations));
+    }
+    Thread revalidation =
+        Thread.ofPlatform()
+            .name("agent-card-revalidation")
+            .daemon(true)
+            .unstarted(
+                () -> {
+                  try {
+                    fetch(agentUrl, cached);
+                  } catch (IOException | InterruptedException | RuntimeException e) {
+                    log.debug(
+                        "Background revalidation of the agent card of {} failed", agentUrl, e);
+                  } finally {
+                    revalidations.remove(agentUrl);
+                  }
+                });
+    if (revalidations.putIfAbsent(agentUrl, revalidation) == null) {
+      revalidation.start();
+    }
+  }
+
+  /** Waits for background refreshes in progress, at most for the revalidation timeout. */
+  private void awaitRevalidations() {
+    long deadline = System.nanoTime() + revalidationTimeout.toNanos();
+    try {
+      for (Thread revalidation : revalidations.values()) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0 || !revalidation.join(Duration.ofNanos(remaining))) {
+          log.debug("Exiting before the agent cards were revalidated");
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Fetches a card, conditionally if a cached one exists, and caches the result. */
+  private CachedCard fetch(String agentUrl, CachedCard cached)
+      throws IOException, InterruptedException {
+    A2AHttpClient.GetBuilder request =
+        httpClient
+            .createGet()
+            .url(stripTrailingSlash(agentUrl) + CARD_PATH)
+            .addHeader("Accept", "application/json");
+    if (cached != null && cached.etag() != null) {
+      request.addHeader("If-None-Match", cached.etag());
+    }
+    if (cached != null && cached.lastModified() != null) {
+      request.addHeader("If-Modified-Since", cached.lastModified());
+    }
+    A2AHttpResponse response = request.get();
+
+    long now = System.currentTimeMillis();
+    Optional<String> cacheControl = header(response, "Cache-Control");
+    long maxAge = seconds(cacheControl, MAX_AGE).orElse(defaultMaxAge.toMillis());
+    long stale =
+        seconds(cacheControl, STALE_WHILE_REVALIDATE)
+            .orElse(defaultStaleWhileRevalidate.toMillis());
+
+    CachedCard updated;
+    if (response.status() == 304 && cached != null) {
+      updated =
+          new CachedCard(
+              cached.etag(), cached.lastModified(), now, maxAge, stale, cached.card());
+    } else if (response.status() == 200) {
+      updated =
+          new CachedCard(
+              header(response, "ETag").orElse(null),
+              header(response, "Last-Modified").orElse(null),
+              now,
+              maxAge,
+              stale,
+              Utils.OBJECT_MAPPER.readValue(response.body(), AgentCard.class));
+    } else {
+      throw new IOException("Unexpected status " + response.status() + " for agent card");
+    }
+    cards.put(agentUrl, updated);
+    writeToDisk(agentUrl, updated);
+    return updated;
+  }
+
+  private CachedCard readFromDisk(String agentUrl) {
+    Path file = file(agentUrl);
+    if (!Files.exists(file)) {
+      return null;
+    }
+    try {
+      return Utils.OBJECT_MAPPER.readValue(file.toFile(), CachedCard.class);
+    } catch (IOException e) {
+      log.debug("Ignoring unreadable cached agent card {}", file, e);
+      return null;
+    }
+  }
+
+  private void writeToDisk(String agentUrl, CachedCard card) {
+    Path file = file(agentUrl);
+    try {
+      Files.createDirectories(directory);
+      // Written aside and moved, so that concurrent processes never read a partial file
+      Path temporary = Files.createTempFile(directory, "card-", ".tmp");
+      Utils.OBJECT_MAPPER.writeValue(temporary.toFile(), card);
+      Files.move(
+          temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.debug("Failed to persist the agent card of {}", agentUrl, e);
+    }
+  }
+
+  private Path file(String agentUrl) {
+    return directory.resolve(sha256Hex(agentUrl) + ".json");
+  }
+
+  private static Optional<String> header(A2AHttpResponse response, String name) {
+    return response instanceof HeaderedA2AHttpResponse headered
+        ? headered.header(name)
+        : Optional.empty();
+  }
+
+  private static Optional<Long> seconds(Optional<String> cacheControl, Pattern directive) {
+    return cacheControl
+        .map(directive::matcher)
+        .filter(Matcher::find)
+        .map(matcher -> Long.parseLong(matcher.group(1)) * 1000);
+  }
+
+  private static String stripTrailingSlash(String url) {
+    return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+  }
+
+  private static String sha256Hex(String value) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * A cached card with its validators and freshness.
+   *
+   * @param etag The entity tag for {@code If-None-Match}, if the server sent one.
+   * @param lastModified The date for {@code If-Modified-Since}, if the server sent one.
+   * @param fetchedAtMillis When the card was last fetched or revalidated.
+   * @param maxAgeMillis How long the card is fresh after that.
+   * @param staleWhileRevalidateMillis How long a stale card may still be served while refreshing.
+   * @param card The agent card.
+   */
+  record CachedCard(
+      String etag,
+      String lastModified,
+      long fetchedAtMillis,
+      long maxAgeMillis,
+      long staleWhileRevalidateMillis,
+      AgentCard card) {
+
+    boolean isFresh(long now) {
+      return now < fetchedAtMillis + maxAgeMillis;
+    }
+
+    boolean isUsableWhileRevalidating(long now) {
+      return now < fetchedAtMillis + maxAgeMillis + staleWhileRevalidateMillis;
+    }
+  }
+}
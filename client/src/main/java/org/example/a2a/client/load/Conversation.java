@@ -0,0 +1,210 @@
+package org.example.a2a.client.load;
+
+import io.a2a.client.Client;
+import io.a2a.client.ClientEvent;
+import io.a2a.client.MessageEvent;
+import io.a2a.client.TaskEvent;
+import io.a2a.client.TaskUpdateEvent;
+import io.a2a.client.config.ClientConfig;
+import io.a2a.client.http.A2AHttpClient;
+import io.a2a.client.transport.rest.RestTransport;
+import io.a2a.client.transport.rest.RestTransportConfig;
+import io.a2a.spec.A2AClientException;
+import io.a2a.spec.AgentCard;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TextPart;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One simulated user, holding multi-turn conversations over its own client.
+ *
+ * <p>Follow-up turns reference the task and context of the previous turn, so that the server
+ * continues the conversation with its history.
+ *
+ * <p>Every conversation gets a context id of its own, chosen by the client, and a turn that does
+ * not complete ends its conversation. Events are attributed to the turn in flight by that id, so
+ * late events of a turn that timed out cannot complete the next one.
+ */
+class Conversation {
+  private static final List<String> PROMPTS =
+      List.of(
+          "What is the weather in Potsdam?",
+          "And what about tomorrow?",
+          "Will it rain in Berlin this weekend?",
+          "How windy is it in Hamburg right now?");
+
+  private final LoadOptions options;
+  private final LoadRecorder recorder;
+  private final boolean streaming;
+  private final Client client;
+
+  // Written by the driving thread, read by event callbacks
+  private volatile Turn turn;
+  private String taskId;
+  private String contextId;
+  private int turnIndex;
+
+  /**
+   * @param card The agent card of the server.
+   * @param httpClient The HTTP client, shared by all conversations.
+   * @param streaming Whether turns use streaming.
+   * @param options The settings of the load run.
+   * @param recorder The recorder of the turn results.
+   * @throws A2AClientException If the client cannot be created.
+   */
+  Conversation(
+      AgentCard card,
+      A2AHttpClient httpClient,
+      boolean streaming,
+      LoadOptions options,
+      LoadRecorder recorder)
+      throws A2AClientException {
+    this.options = options;
+    this.recorder = recorder;
+    this.streaming = streaming;
+    ClientConfig clientConfig =
+        new ClientConfig.Builder()
+            .setAcceptedOutputModes(List.of("text/plain"))
+            .setStreaming(streaming)
+            .build();
+    this.client =
+        Client.builder(card)
+            .clientConfig(clientConfig)
+            .withTransport(RestTransport.class, new RestTransportConfig(httpClient))
+            .addConsumers(List.of(this::onEvent))
+            .streamingErrorHandler(this::onError)
+            .build();
+  }
+
+  /**
+   * Sends the next turn and waits for its final event.
+   *
+   * @param intendedStartNanos When the turn was due to start. Latencies are measured from here, so
+   *     that time spent waiting for a free conversation is included.
+   * @throws InterruptedException If interrupted while waiting for the final event.
+   */
+  void runTurn(long intendedStartNanos) throws InterruptedException {
+    if (contextId == null) {
+      contextId = UUID.randomUUID().toString();
+    }
+    Turn current = new Turn(intendedStartNanos, contextId);
+    turn = current;
+    try {
+      client.sendMessage(nextMessage());
+      Task task = current.done.get(options.timeout().toNanos(), TimeUnit.NANOSECONDS);
+      long finalNanos = System.nanoTime();
+      if (task != null && task.getStatus().state() != TaskState.COMPLETED) {
+        recorder.failed();
+        reset();
+        return;
+      }
+      recorder.completed(
+          streaming,
+          current.firstEventNanos - intendedStartNanos,
+          finalNanos - intendedStartNanos,
+          finalNanos);
+      advance(task);
+    } catch (TimeoutException e) {
+      recorder.timedOut();
+      reset();
+    } catch (A2AClientException | ExecutionException e) {
+      recorder.failed();
+      reset();
+    }
+  }
+
+  private Message nextMessage() {
+    return new Message.Builder()
+        .role(Message.Role.USER)
+        .messageId(UUID.randomUUID().toString())
+        .taskId(taskId)
+        .contextId(contextId)
+        .parts(List.of(new TextPart(PROMPTS.get(turnIndex % PROMPTS.size()))))
+        .build();
+  }
+
+  private void advance(Task task) {
+    turnIndex++;
+    if (task == null || turnIndex >= options.turns()) {
+      // Stateless responses have no task to continue
+      reset();
+    } else {
+      taskId = task.getId();
+      contextId = task.getContextId();
+    }
+  }
+
+  private void reset() {
+    taskId = null;
+    contextId = null;
+    turnIndex = 0;
+  }
+
+  private void onEvent(ClientEvent event, AgentCard card) {
+    Turn current = turn;
+    if (current == null || !current.contextId.equals(contextIdOf(event))) {
+      // Not an event of the turn in flight, e.g. a late one of a turn that timed out
+      return;
+    }
+    current.firstEvent();
+    if (event instanceof MessageEvent) {
+      current.done.complete(null);
+    } else if (event instanceof TaskEvent taskEvent) {
+      current.completeIfFinal(taskEvent.getTask());
+    } else if (event instanceof TaskUpdateEvent updateEvent) {
+      current.completeIfFinal(updateEvent.getTask());
+    }
+  }
+
+  private static String contextIdOf(ClientEvent event) {
+    if (event instanceof MessageEvent messageEvent) {
+      return messageEvent.getMessage().getContextId();
+    } else if (event instanceof TaskEvent taskEvent) {
+      return taskEvent.getTask().getContextId();
+    } else if (event instanceof TaskUpdateEvent updateEvent) {
+      return updateEvent.getTask().getContextId();
+    }
+    return null;
+  }
+
+  private void onError(Throwable error) {
+    Turn current = turn;
+    if (current != null) {
+      current.done.completeExceptionally(error);
+    }
+  }
+
+  /** Progress of the turn in flight. */
+  private static class Turn {
+    private final String contextId;
+    private final AtomicBoolean started = new AtomicBoolean();
+    // The final task, or null if the server answered with a message
+    private final CompletableFuture<Task> done = new CompletableFuture<>();
+    private volatile long firstEventNanos;
+
+    private Turn(long intendedStartNanos, String contextId) {
+      this.firstEventNanos = intendedStartNanos;
+      this.contextId = contextId;
+    }
+
+    private void firstEvent() {
+      if (started.compareAndSet(false, true)) {
+        firstEventNanos = System.nanoTime();
+      }
+    }
+
+    private void completeIfFinal(Task task) {
+      if (task.getStatus().state().isFinal()) {
+        done.complete(task);
+      }
+    }
+  }
+}
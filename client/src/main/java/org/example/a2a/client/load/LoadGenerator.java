@@ -0,0 +1,151 @@
+package org.example.a2a.client.load;
+
+import io.a2a.client.http.A2ACardResolver;
+import io.a2a.spec.A2AClientError;
+import io.a2a.spec.A2AClientException;
+import io.a2a.spec.AgentCard;
+import io.a2a.util.Utils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.example.a2a.client.Http2A2AHttpClient;
+import org.example.a2a.client.HttpTransportOptions;
+
+/**
+ * Drives many concurrent conversations against an A2A server and reports the latencies.
+ *
+ * <p>In closed-loop mode ({@code load.rate=0}) every conversation starts its next turn as soon as
+ * the previous one has finished. In open-loop mode turns become due at a fixed rate and are picked
+ * up by the next free conversation. Latencies are then measured from when a turn became due, so a
+ * server that falls behind shows up in the latencies instead of lowering the offered load.
+ *
+ * <p>Settings are read from {@code load.*} system properties, see {@link LoadOptions}.
+ */
+@Slf4j
+public class LoadGenerator {
+  private final LoadOptions options;
+
+  public LoadGenerator(LoadOptions options) {
+    this.options = options;
+  }
+
+  /**
+   * Entry point of the load-driver mode.
+   *
+   * @param args Command-line arguments, unused
+   */
+  public static void main(String[] args) {
+    LoadOptions options = LoadOptions.fromSystemProperties();
+    try {
+      LoadReport report = new LoadGenerator(options).run();
+      Files.createDirectories(options.report().toAbsolutePath().getParent());
+      Utils.OBJECT_MAPPER
+          .writerWithDefaultPrettyPrinter()
+          .writeValue(options.report().toFile(), report);
+      log.info(
+          "Completed {} turns ({} failed, {} timed out, {} unstarted) at {} turns/s, p99 {} ms",
+          report.completed(),
+          report.failed(),
+          report.timedOut(),
+          report.unstarted(),
+          "%.1f".formatted(report.throughput()),
+          report.turns().timeToFinalTask().p99());
+      log.info("Report written to {}", options.report().toAbsolutePath());
+    } catch (A2AClientError e) {
+      throw new RuntimeException("Agent card retrieval failed", e);
+    } catch (A2AClientException e) {
+      throw new RuntimeException("Client initialization failed", e);
+    } catch (IOException e) {
+      throw new RuntimeException("Writing the report failed", e);
+    } catch (InterruptedException e) {
+      throw new RuntimeException("The load run was interrupted", e);
+    }
+  }
+
+  /**
+   * Runs the load for the configured duration and waits for the turns in flight to finish.
+   *
+   * @return The report of the run.
+   * @throws A2AClientError If the agent card retrieval fails.
+   * @throws A2AClientException If client creation fails.
+   * @throws InterruptedException If interrupted while waiting for the conversations.
+   */
+  public LoadReport run() throws A2AClientError, A2AClientException, InterruptedException {
+    // One HTTP client for all conversations, like a gateway in front of many users would use
+    try (Http2A2AHttpClient httpClient =
+        new Http2A2AHttpClient(HttpTransportOptions.fromSystemProperties())) {
+      AgentCard card = new A2ACardResolver(httpClient, options.url()).getAgentCard();
+
+      long startNanos = System.nanoTime();
+      LoadRecorder recorder = new LoadRecorder(startNanos);
+      long streamingConversations = Math.round(options.streamingRatio() * options.concurrency());
+      List<Conversation> conversations = new ArrayList<>(options.concurrency());
+      for (int i = 0; i < options.concurrency(); i++) {
+        conversations.add(
+            new Conversation(card, httpClient, i < streamingConversations, options, recorder));
+      }
+
+      long endNanos = startNanos + options.duration().toNanos();
+      BlockingQueue<Long> dueTurns = new LinkedBlockingQueue<>();
+      log.info(
+          "Running {} conversations ({} streaming) for {}s, {}",
+          options.concurrency(),
+          streamingConversations,
+          options.duration().toSeconds(),
+          options.openLoop() ? options.rate() + " turns/s" : "closed loop");
+
+      try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (Conversation conversation : conversations) {
+          users.submit(
+              () -> {
+                drive(conversation, dueTurns, endNanos);
+                return null;
+              });
+        }
+        if (options.openLoop()) {
+          schedule(dueTurns, startNanos, endNanos);
+        }
+      }
+      return recorder.report(options, System.nanoTime(), dueTurns.size());
+    }
+  }
+
+  private void drive(Conversation conversation, BlockingQueue<Long> dueTurns, long endNanos)
+      throws InterruptedException {
+    while (true) {
+      long now = System.nanoTime();
+      if (now >= endNanos) {
+        return;
+      }
+      if (!options.openLoop()) {
+        conversation.runTurn(now);
+        continue;
+      }
+      Long due = dueTurns.poll(endNanos - now, TimeUnit.NANOSECONDS);
+      if (due == null) {
+        return;
+      }
+      conversation.runTurn(due);
+    }
+  }
+
+  /** Adds a due turn at the configured rate until the end of the run. */
+  private void schedule(BlockingQueue<Long> dueTurns, long startNanos, long endNanos) {
+    long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate());
+    for (long due = startNanos; due < endNanos; due += intervalNanos) {
+      long wait;
+      while ((wait = due - System.nanoTime()) > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      dueTurns.add(due);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package org.example.a2a.client.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of a load run, read from {@code load.*} system properties.
+ *
+ * @param url The base URL of the A2A service.
+ * @param concurrency The number of conversations held open at the same time.
+ * @param rate Turns started per second across all conversations, or 0 to start the next turn of a
+ *     conversation as soon as the previous one has finished.
+ * @param duration How long new turns are started.
+ * @param turns The number of turns per conversation before a new one is started.
+ * @param streamingRatio The share of conversations that use streaming, between 0 and 1.
+ * @param timeout How long a turn may take before it is counted as timed out.
+ * @param report The file the JSON report is written to.
+ */
+public record LoadOptions(
+    String url,
+    int concurrency,
+    double rate,
+    Duration duration,
+    int turns,
+    double streamingRatio,
+    Duration timeout,
+    Path report) {
+
+  public static LoadOptions fromSystemProperties() {
+    return new LoadOptions(
+        System.getProperty("load.url", "http://localhost:8080"),
+        Integer.getInteger("load.concurrency", 10),
+        Double.parseDouble(System.getProperty("load.rate", "0")),
+        Duration.ofSeconds(Long.getLong("load.duration-seconds", 60)),
+        Integer.getInteger("load.turns", 3),
+        Double.parseDouble(System.getProperty("load.streaming-ratio", "0.5")),
+        Duration.ofSeconds(Long.getLong("load.timeout-seconds", 120)),
+        Path.of(System.getProperty("load.report", "target/load-report.json")));
+  }
+
+  /** Whether turns arrive at a fixed rate, independent of how fast the server answers. */
+  public boolean openLoop() {
+    return rate > 0;
+  }
+}
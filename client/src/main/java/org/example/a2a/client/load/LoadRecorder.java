@@ -0,0 +1,92 @@
+package org.example.a2a.client.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/** Collects the results of the turns of a load run from all conversations. */
+class LoadRecorder {
+  // Microsecond resolution with three significant digits, resized as needed
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  private final long startNanos;
+  private final Latencies streaming = new Latencies();
+  private final Latencies blocking = new Latencies();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder timedOut = new LongAdder();
+  private final Map<Long, LongAdder> completedPerSecond = new ConcurrentSkipListMap<>();
+
+  /**
+   * @param startNanos The start of the run, the origin of the per-second throughput.
+   */
+  LoadRecorder(long startNanos) {
+    this.startNanos = startNanos;
+  }
+
+  void completed(boolean streamed, long firstEventNanos, long finalNanos, long endNanos) {
+    Latencies latencies = streamed ? streaming : blocking;
+    latencies.firstEvent.recordValue(TimeUnit.NANOSECONDS.toMicros(firstEventNanos));
+    latencies.finalTask.recordValue(TimeUnit.NANOSECONDS.toMicros(finalNanos));
+    long second = TimeUnit.NANOSECONDS.toSeconds(endNanos - startNanos);
+    completedPerSecond.computeIfAbsent(second, s -> new LongAdder()).increment();
+  }
+
+  void failed() {
+    failed.increment();
+  }
+
+  void timedOut() {
+    timedOut.increment();
+  }
+
+  /**
+   * @param options The settings of the run.
+   * @param endNanos The end of the run.
+   * @param unstarted Turns that were due but not started before the end of the run.
+   * @return The report of the run.
+   */
+  LoadReport report(LoadOptions options, long endNanos, long unstarted) {
+    double elapsedSeconds = (endNanos - startNanos) / 1e9;
+    Histogram allFirstEvents = streaming.firstEvent.copy();
+    allFirstEvents.add(blocking.firstEvent);
+    Histogram allFinalTasks = streaming.finalTask.copy();
+    allFinalTasks.add(blocking.finalTask);
+    long completed = allFinalTasks.getTotalCount();
+
+    long lastSecond = TimeUnit.NANOSECONDS.toSeconds(endNanos - startNanos);
+    List<Long> perSecond = new ArrayList<>();
+    for (long second = 0; second <= lastSecond; second++) {
+      LongAdder count = completedPerSecond.get(second);
+      perSecond.add(count == null ? 0 : count.sum());
+    }
+
+    return new LoadReport(
+        LoadReport.Settings.of(options),
+        elapsedSeconds,
+        completed,
+        failed.sum(),
+        timedOut.sum(),
+        unstarted,
+        completed / elapsedSeconds,
+        perSecond,
+        new LoadReport.Turns(
+            LoadReport.LatencySummary.of(allFirstEvents),
+            LoadReport.LatencySummary.of(allFinalTasks)),
+        Map.of("streaming", streaming.summary(), "blocking", blocking.summary()));
+  }
+
+  private static class Latencies {
+    private final Histogram firstEvent = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final Histogram finalTask = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+    private LoadReport.Turns summary() {
+      return new LoadReport.Turns(
+          LoadReport.LatencySummary.of(firstEvent), LoadReport.LatencySummary.of(finalTask));
+    }
+  }
+}
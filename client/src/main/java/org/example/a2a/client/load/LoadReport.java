@@ -0,0 +1,79 @@
+package org.example.a2a.client.load;
+
+import java.util.List;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Machine-readable result of a load run.
+ *
+ * @param settings The settings of the run.
+ * @param elapsedSeconds The time from the first turn until the last one finished.
+ * @param completed Turns that ended with a completed task or a message.
+ * @param failed Turns that ended with an error or a task in another final state.
+ * @param timedOut Turns without a final event within the timeout.
+ * @param unstarted Turns that were due but never started, because all conversations were busy.
+ * @param throughput Completed turns per second.
+ * @param completedPerSecond Completed turns in each second of the run.
+ * @param turns Latencies of all completed turns.
+ * @param byMode Latencies of completed turns, by {@code streaming} and {@code blocking}.
+ */
+public record LoadReport(
+    Settings settings,
+    double elapsedSeconds,
+    long completed,
+    long failed,
+    long timedOut,
+    long unstarted,
+    double throughput,
+    List<Long> completedPerSecond,
+    Turns turns,
+    Map<String, Turns> byMode) {
+
+  /** Settings of the run, in the units they are given in. */
+  public record Settings(
+      String url,
+      int concurrency,
+      double rate,
+      long durationSeconds,
+      int turns,
+      double streamingRatio,
+      long timeoutSeconds) {
+
+    static Settings of(LoadOptions options) {
+      return new Settings(
+          options.url(),
+          options.concurrency(),
+          options.rate(),
+          options.duration().toSeconds(),
+          options.turns(),
+          options.streamingRatio(),
+          options.timeout().toSeconds());
+    }
+  }
+
+  /**
+   * @param timeToFirstEvent From the intended start of a turn until its first event.
+   * @param timeToFinalTask From the intended start of a turn until its final event.
+   */
+  public record Turns(LatencySummary timeToFirstEvent, LatencySummary timeToFinalTask) {}
+
+  /** Percentiles of a latency histogram, in milliseconds. */
+  public record LatencySummary(
+      long count, double mean, double p50, double p90, double p99, double p999, double max) {
+
+    static LatencySummary of(Histogram micros) {
+      if (micros.getTotalCount() == 0) {
+        return new LatencySummary(0, 0, 0, 0, 0, 0, 0);
+      }
+      return new LatencySummary(
+          micros.getTotalCount(),
+          micros.getMean() / 1000,
+          micros.getValueAtPercentile(50) / 1000.0,
+          micros.getValueAtPercentile(90) / 1000.0,
+          micros.getValueAtPercentile(99) / 1000.0,
+          micros.getValueAtPercentile(99.9) / 1000.0,
+          micros.getMaxValue() / 1000.0);
+    }
+  }
+}
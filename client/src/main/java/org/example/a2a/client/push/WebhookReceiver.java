@@ -0,0 +1,149 @@
+package org.example.a2a.client.push;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.a2a.spec.PushNotificationConfig;
+import io.a2a.spec.Task;
+import io.a2a.util.Utils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local HTTP endpoint receiving push notifications, completing a future per task.
+ *
+ * <p>Clients register {@link #config()} with their messages and then wait on {@link #await} instead
+ * of holding a stream or blocking request open while the agent works. Notifications must carry the
+ * token of this receiver, others are rejected. Each request is handled on a virtual thread.
+ *
+ * <p>A final notification may arrive before its task is awaited, it is then kept for {@link
+ * #UNCLAIMED_TTL} and dropped if nobody awaits the task by then.
+ */
+@Slf4j
+public class WebhookReceiver implements AutoCloseable {
+  /** Header carrying the token registered with the webhook. */
+  public static final String TOKEN_HEADER = "X-A2A-Notification-Token";
+
+  /** How long a notification for a task nobody awaits yet is kept. */
+  public static final Duration UNCLAIMED_TTL = Duration.ofMinutes(5);
+
+  private static final String PATH = "/a2a/notifications";
+
+  private final HttpServer server;
+  private final String token = UUID.randomUUID().toString();
+  private final Map<String, CompletableFuture<Task>> tasks = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService expiry =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "webhook-expiry");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /**
+   * Starts the receiver.
+   *
+   * @param host The host name the agent reaches this client under, also bound to.
+   * @param port The port to listen on, 0 for any free one.
+   */
+  public WebhookReceiver(String host, int port) {
+    try {
+      this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot listen on " + host + ":" + port, e);
+    }
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext(PATH, this::handle);
+    server.start();
+    log.info("Receiving push notifications on {}", url());
+  }
+
+  /**
+   * Returns a receiver configured by {@code a2a.push.*} system properties.
+   *
+   * @return The started receiver.
+   */
+  public static WebhookReceiver fromSystemProperties() {
+    return new WebhookReceiver(
+        System.getProperty("a2a.push.host", "localhost"), Integer.getInteger("a2a.push.port", 0));
+  }
+
+  /** Returns the push notification config to send with messages. */
+  public PushNotificationConfig config() {
+    return new PushNotificationConfig.Builder().url(url()).token(token).build();
+  }
+
+  /**
+   * Returns a future completing with the task once a notification reports a final state.
+   *
+   * @param taskId The task id.
+   * @return The future, also completed if the notification arrived at most {@link
+   *     #UNCLAIMED_TTL} before this call.
+   */
+  public CompletableFuture<Task> await(String taskId) {
+    CompletableFuture<Task> future = tasks.computeIfAbsent(taskId, id -> new CompletableFuture<>());
+    // The entry is only needed until the caller holds the completed future
+    future.whenComplete((task, error) -> tasks.remove(taskId, future));
+    return future;
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    expiry.shutdownNow();
+  }
+
+  private String url() {
+    InetSocketAddress address = server.getAddress();
+    return "http://" + address.getHostString() + ":" + address.getPort() + PATH;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      if (!token.equals(exchange.getRequestHeaders().getFirst(TOKEN_HEADER))) {
+        exchange.sendResponseHeaders(401, -1);
+        return;
+      }
+      Task task;
+      try (InputStream body = exchange.getRequestBody()) {
+        task = Utils.OBJECT_MAPPER.readValue(body, Task.class);
+      } catch (IOException e) {
+        log.warn("Malformed push notification", e);
+        exchange.sendResponseHeaders(400, -1);
+        return;
+      }
+      if (task.getStatus() != null && task.getStatus().state().isFinal()) {
+        complete(task);
+      }
+      exchange.sendResponseHeaders(204, -1);
+    }
+  }
+
+  private void complete(Task task) {
+    CompletableFuture<Task> early = CompletableFuture.completedFuture(task);
+    CompletableFuture<Task> awaited = tasks.putIfAbsent(task.getId(), early);
+    if (awaited != null) {
+      awaited.complete(task);
+      return;
+    }
+    // Kept for a late await, but not for tasks that are never awaited
+    expiry.schedule(
+        () -> tasks.remove(task.getId(), early),
+        UNCLAIMED_TTL.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,52 @@
+package org.example.a2a.server;
+
+import io.a2a.spec.AgentCapabilities;
+import io.a2a.spec.AgentCard;
+import io.a2a.spec.AgentSkill;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The agent card advertised by this server.
+ *
+ * <p>The native build initialises this class at build time, so the card is part of the image heap
+ * instead of being assembled on the first request. It therefore holds nothing but the card.
+ */
+final class AgentCards {
+  /** The public agent card. */
+  static final AgentCard PUBLIC = build();
+
+  private AgentCards() {}
+
+  private static AgentCard build() {
+    return new AgentCard.Builder()
+        .name("Weather Agent")
+        .description("An agent that retrieves and forecasts weather information.")
+        .url("http://localhost:8080/")
+        .version("1.0.0")
+        .preferredTransport("HTTP+JSON")
+        .defaultInputModes(List.of("text/plain"))
+        .defaultOutputModes(List.of("text/plain"))
+        .capabilities(
+            new AgentCapabilities.Builder()
+                .streaming(true)
+                // Whether server maintain task lifecycle information after task completion
+                .stateTransitionHistory(false)
+                .pushNotifications(true)
+                .build())
+        .skills(getAgentSkills())
+        .build();
+  }
+
+  private static List<AgentSkill> getAgentSkills() {
+    AgentSkill skill =
+        new AgentSkill.Builder()
+            .id(AgentSkills.WEATHER_SEARCH)
+            .name("Search weather")
+            .description("Helps with weather in city, or states")
+            .tags(Collections.singletonList("weather"))
+            .examples(List.of("weather in LA, CA"))
+            .build();
+    return List.of(skill);
+  }
+}
@@ -2,59 +2,291 @@ package org.example.a2a.server;
 
 import io.a2a.server.PublicAgentCard;
 import io.a2a.server.agentexecution.AgentExecutor;
-import io.a2a.spec.AgentCapabilities;
+import io.a2a.server.tasks.PushNotificationConfigStore;
+import io.a2a.server.tasks.PushNotificationSender;
+import io.a2a.server.tasks.TaskStore;
+import io.a2a.server.util.async.Internal;
 import io.a2a.spec.AgentCard;
-import io.a2a.spec.AgentSkill;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.arc.DefaultBean;
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Priority;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.enterprise.inject.Disposes;
 import jakarta.enterprise.inject.Produces;
-import java.util.Collections;
-import java.util.List;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.example.a2a.server.cache.RequestCoalescer;
+import org.example.a2a.server.cache.RequestKeys;
+import org.example.a2a.server.cache.ResponseCache;
+import org.example.a2a.server.cache.ResponseCacheConfig;
+import org.example.a2a.server.execution.Bulkhead;
+import org.example.a2a.server.execution.ExecutionConfig;
+import org.example.a2a.server.history.ConversationCache;
+import org.example.a2a.server.history.ConversationCacheConfig;
+import org.example.a2a.server.history.HistoryCompactionConfig;
+import org.example.a2a.server.history.HistoryCompactor;
+import org.example.a2a.server.metrics.PipelineMetrics;
+import org.example.a2a.server.orchestration.InFlightCalls;
+import org.example.a2a.server.orchestration.OrchestrationBackend;
+import org.example.a2a.server.orchestration.OrchestrationAgent;
+import org.example.a2a.server.orchestration.OrchestrationClientProvider;
+import org.example.a2a.server.orchestration.SdkOrchestrationBackend;
+import org.example.a2a.server.orchestration.simulator.SimulatedOrchestrationBackend;
+import org.example.a2a.server.orchestration.simulator.SimulatorConfig;
+import org.example.a2a.server.push.BatchingPushNotificationSender;
+import org.example.a2a.server.push.PushDispatchConfig;
+import org.example.a2a.server.resilience.ResilienceConfig;
+import org.example.a2a.server.resilience.ResilientOrchestrationBackend;
+import org.example.a2a.server.routing.ModelRouter;
+import org.example.a2a.server.routing.RoutingConfig;
+import org.example.a2a.server.scatter.DownstreamAgents;
+import org.example.a2a.server.scatter.ScatterGatherConfig;
+import org.example.a2a.server.scheduling.FairScheduler;
+import org.example.a2a.server.scheduling.SchedulerConfig;
+import org.example.a2a.server.tasks.MappedTaskStore;
+import org.example.a2a.server.tasks.TaskStoreConfig;
 
+@Slf4j
 @ApplicationScoped
 public class AgentConfiguration {
+  @Inject OrchestrationClientProvider orchestrationClientProvider;
+  @Inject SimulatorConfig simulatorConfig;
+  @Inject AgentExecutorConfig executorConfig;
+  @Inject ConversationCacheConfig conversationCacheConfig;
+  @Inject HistoryCompactionConfig historyCompactionConfig;
+  @Inject ResponseCacheConfig responseCacheConfig;
+  @Inject ExecutionConfig executionConfig;
+  @Inject TaskStoreConfig taskStoreConfig;
+  @Inject RoutingConfig routingConfig;
+  @Inject ResilienceConfig resilienceConfig;
+  @Inject PushDispatchConfig pushDispatchConfig;
+  @Inject ScatterGatherConfig scatterGatherConfig;
+  @Inject SchedulerConfig schedulerConfig;
+  @Inject MeterRegistry registry;
+
+  // Runs blocking orchestration calls and reads completion deltas, so that executor threads can be
+  // released on cancellation
+  private ExecutorService orchestrationCallExecutor;
+  private MappedTaskStore mappedTaskStore;
+  private ResponseCache responseCache;
+  private BatchingPushNotificationSender pushNotificationSender;
+
+  @PostConstruct
+  void init() {
+    orchestrationCallExecutor =
+        executionConfig.mode() == ExecutionConfig.Mode.VIRTUAL
+            ? Executors.newVirtualThreadPerTaskExecutor()
+            : Executors.newCachedThreadPool();
+  }
+
+  /**
+   * Replaces the executor the A2A request handler runs agent executions on with virtual threads.
+   *
+   * <p>Executions block for the whole orchestration round trip. On virtual threads a waiting
+   * execution costs a few kilobytes of heap instead of a platform thread, the {@link Bulkhead}
+   * bounds how many of them call upstream at once.
+   */
+  @Produces
+  @Internal
+  @Alternative
+  @Priority(1)
+  @Singleton
+  @IfBuildProperty(name = "agent.execution.mode", stringValue = "virtual")
+  public Executor virtualThreadExecutor() {
+    return Executors.newVirtualThreadPerTaskExecutor();
+  }
+
+  /**
+   * Replaces the SDK's in-memory task store with one that keeps tasks in memory-mapped files.
+   *
+   * <p>Tasks survive restarts and only their index stays on the heap, which the stateful executor
+   * relies on to continue conversations from the task history.
+   */
+  @Produces
+  @Alternative
+  @Priority(1)
+  @Singleton
+  @IfBuildProperty(name = "agent.task-store.type", stringValue = "mapped")
+  public TaskStore mappedTaskStore() {
+    mappedTaskStore = new MappedTaskStore(taskStoreConfig, registry);
+    return mappedTaskStore;
+  }
+
+  /**
+   * Replaces the SDK's push notification sender, which posts every single update, with a queued one
+   * that batches, coalesces and retries deliveries.
+   *
+   * <p>Clients of slow tasks can then register a webhook and close their connection instead of
+   * holding a stream open for the whole generation.
+   */
+  @Produces
+  @Alternative
+  @Priority(1)
+  @Singleton
+  public PushNotificationSender pushNotificationSender(PushNotificationConfigStore configStore) {
+    pushNotificationSender =
+        new BatchingPushNotificationSender(pushDispatchConfig, configStore, registry);
+    return pushNotificationSender;
+  }
+
+  @Produces
+  @Singleton
+  public PipelineMetrics pipelineMetrics() {
+    return new PipelineMetrics(registry, AgentSkills.ALL);
+  }
+
+  @Produces
+  @Singleton
+  public Bulkhead bulkhead() {
+    return new Bulkhead(executionConfig.bulkhead(), registry);
+  }
+
+  @Produces
+  @Singleton
+  public OrchestrationAgent orchestrationAgent() {
+    OrchestrationBackend backend;
+    if (simulatorConfig.enabled()) {
+      log.warn("Completions are simulated locally, AI Core is not called");
+      backend = new SimulatedOrchestrationBackend(simulatorConfig);
+    } else {
+      // One agent per application, so all executors share the pooled orchestration client
+      backend = new SdkOrchestrationBackend(orchestrationClientProvider);
+    }
+    // Also wraps the simulator, so that brownouts injected there exercise retries and the circuit
+    return new OrchestrationAgent(
+        new ResilientOrchestrationBackend(backend, resilienceConfig, registry));
+  }
+
+  @Produces
+  @Singleton
+  public ModelRouter modelRouter() {
+    return new ModelRouter(routingConfig, orchestrationCallExecutor, registry);
+  }
+
+  @Produces
+  @Singleton
+  public ConversationCache conversationCache() {
+    return new ConversationCache(conversationCacheConfig, registry);
+  }
+
+  @Produces
+  @Singleton
+  public HistoryCompactor historyCompactor(
+      OrchestrationAgent agent, InFlightCalls inFlightCalls, FairScheduler scheduler) {
+    return new HistoryCompactor(
+        agent, historyCompactionConfig, inFlightCalls, scheduler, orchestrationCallExecutor);
+  }
+
+  @Produces
+  @Singleton
+  public ResponseCache responseCache() {
+    responseCache = new ResponseCache(responseCacheConfig, registry);
+    return responseCache;
+  }
+
+  @Produces
+  @Singleton
+  public InFlightCalls inFlightCalls() {
+    return new InFlightCalls(orchestrationCallExecutor, resilienceConfig.deadline(), registry);
+  }
+
+  @Produces
+  @Singleton
+  public FairScheduler fairScheduler(Bulkhead bulkhead) {
+    return new FairScheduler(schedulerConfig, bulkhead, registry);
+  }
+
   @DefaultBean // Mark it as the fallback bean, not the primary one
   @Produces
-  public AgentExecutor agentExecutorMinimal() {
-    return new MinimalAgentExecutor();
+  public AgentExecutor agentExecutorMinimal(
+      OrchestrationAgent agent,
+      ModelRouter router,
+      ResponseCache responseCache,
+      InFlightCalls inFlightCalls,
+      FairScheduler scheduler,
+      PipelineMetrics metrics) {
+    return new MinimalAgentExecutor(
+        agent,
+        router,
+        new RequestKeys(),
+        responseCache,
+        new RequestCoalescer<>(registry),
+        inFlightCalls,
+        scheduler,
+        metrics);
+  }
+
+  @Produces
+  public AgentExecutor agentExecutorStateful(
+      OrchestrationAgent agent,
+      ModelRouter router,
+      ConversationCache conversationCache,
+      HistoryCompactor historyCompactor,
+      InFlightCalls inFlightCalls,
+      FairScheduler scheduler,
+      PipelineMetrics metrics) {
+    return new StatefulAgentExecutor(
+        agent,
+        router,
+        conversationCache,
+        historyCompactor,
+        inFlightCalls,
+        scheduler,
+        executorConfig.streaming(),
+        orchestrationCallExecutor,
+        metrics);
+  }
+
+  /**
+   * Replaces both executors with one answering requests from the configured downstream A2A agents.
+   *
+   * <p>No orchestration call is made, so the bulkhead does not apply. The number of sub-queries in
+   * flight is capped by the downstream agents instead.
+   */
+  @Produces
+  @Alternative
+  @Priority(1)
+  @IfBuildProperty(name = "agent.scatter-gather.enabled", stringValue = "true")
+  public AgentExecutor agentExecutorScatterGather(
+      DownstreamAgents downstreamAgents, InFlightCalls inFlightCalls, PipelineMetrics metrics) {
+    return new ScatterGatherAgentExecutor(downstreamAgents, inFlightCalls, metrics);
   }
 
   @Produces
-  public AgentExecutor agentExecutorStateful() {
-    return new StatefulAgentExecutor();
+  @Singleton
+  public DownstreamAgents downstreamAgents() {
+    return new DownstreamAgents(scatterGatherConfig, registry);
+  }
+
+  void closeDownstreamAgents(@Disposes DownstreamAgents downstreamAgents) {
+    downstreamAgents.close();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    orchestrationCallExecutor.shutdownNow();
+    if (mappedTaskStore != null) {
+      mappedTaskStore.close();
+    }
+    if (pushNotificationSender != null) {
+      pushNotificationSender.close();
+    }
+    if (responseCache != null) {
+      responseCache.close();
+    }
   }
 
   @Produces
   @PublicAgentCard
   public AgentCard agentCard() {
-    return new AgentCard.Builder()
-        .name("Weather Agent")
-        .description("An agent that retrieves and forecasts weather information.")
-        .url("http://localhost:8080/")
-        .version("1.0.0")
-        .preferredTransport("HTTP+JSON")
-        .defaultInputModes(List.of("text/plain"))
-        .defaultOutputModes(List.of("text/plain"))
-        .capabilities(
-            new AgentCapabilities.Builder()
-                .streaming(true)
-                // Whether server maintain task lifecycle information after task completion
-                .stateTransitionHistory(false)
-                .pushNotifications(false)
-                .build())
-        .skills(getAgentSkills())
-        .build();
-  }
-
-  private static List<AgentSkill> getAgentSkills() {
-    AgentSkill skill =
-        new AgentSkill.Builder()
-            .id("weather_search")
-            .name("Search weather")
-            .description("Helps with weather in city, or states")
-            .tags(Collections.singletonList("weather"))
-            .examples(List.of("weather in LA, CA"))
-            .build();
-    return List.of(skill);
+    return AgentCards.PUBLIC;
   }
 }
@@ -0,0 +1,36 @@
+package org.example.a2a.server;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+
+/** Execution settings shared by the agent executors. */
+@ConfigMapping(prefix = "agent.executor")
+public interface AgentExecutorConfig {
+
+  Streaming streaming();
+
+  interface Streaming {
+
+    /** Whether the stateful executor forwards completion deltas as they are generated. */
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * Characters buffered while the event queue is blocked before reading from upstream pauses.
+     */
+    @WithDefault("65536")
+    int maxBufferedChars();
+
+    /**
+     * How long deltas are collected into one artifact chunk before it is emitted, 0 emits every
+     * chunk as soon as the event queue accepts it.
+     */
+    @WithDefault("20ms")
+    Duration coalesceWindow();
+
+    /** Characters after which a collected chunk is emitted without waiting for the window. */
+    @WithDefault("512")
+    int coalesceMaxChars();
+  }
+}
@@ -0,0 +1,33 @@
+package org.example.a2a.server;
+
+import io.a2a.server.agentexecution.RequestContext;
+import io.a2a.spec.Message;
+import java.util.Optional;
+import java.util.Set;
+
+/** Identifiers of the skills advertised in the agent card. */
+public final class AgentSkills {
+  public static final String WEATHER_SEARCH = "weather_search";
+
+  /** Ids of all advertised skills. */
+  public static final Set<String> ALL = Set.of(WEATHER_SEARCH);
+
+  /** Message metadata key a client may use to address a specific skill. */
+  public static final String METADATA_KEY = "skillId";
+
+  private AgentSkills() {}
+
+  /**
+   * Resolves the skill a request is addressed to.
+   *
+   * @param context The request context.
+   * @return The skill id from the message metadata, or the weather skill if none is given.
+   */
+  public static String of(RequestContext context) {
+    return Optional.ofNullable(context.getMessage())
+        .map(Message::getMetadata)
+        .map(metadata -> metadata.get(METADATA_KEY))
+        .map(Object::toString)
+        .orElse(WEATHER_SEARCH);
+  }
+}
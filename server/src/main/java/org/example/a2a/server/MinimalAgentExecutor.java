@@ -1,20 +1,73 @@
 package org.example.a2a.server;
 
+import static org.example.a2a.server.orchestration.OrchestrationAgent.normalizedUserText;
 import static org.example.a2a.server.orchestration.OrchestrationAgent.toA2AMessage;
 import static org.example.a2a.server.orchestration.OrchestrationAgent.toOrchestrationUserMessage;
 
 import org.example.a2a.server.orchestration.OrchestrationAgent;
 import com.sap.ai.sdk.orchestration.OrchestrationAiModel;
-import com.sap.ai.sdk.orchestration.OrchestrationChatResponse;
-import com.sap.ai.sdk.orchestration.OrchestrationModuleConfig;
 import com.sap.ai.sdk.orchestration.OrchestrationPrompt;
-import com.sap.ai.sdk.orchestration.UserMessage;
 import io.a2a.server.agentexecution.AgentExecutor;
 import io.a2a.server.agentexecution.RequestContext;
 import io.a2a.server.events.EventQueue;
+import io.a2a.spec.InternalError;
 import io.a2a.spec.JSONRPCError;
+import io.a2a.spec.TaskNotCancelableError;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+import org.example.a2a.server.cache.RequestCoalescer;
+import org.example.a2a.server.cache.RequestKeys;
+import org.example.a2a.server.cache.ResponseCache;
+import org.example.a2a.server.history.TokenEstimator;
+import org.example.a2a.server.metrics.PipelineMetrics;
+import org.example.a2a.server.orchestration.Completion;
+import org.example.a2a.server.orchestration.InFlightCalls;
+import org.example.a2a.server.resilience.OrchestrationUnavailableException;
+import org.example.a2a.server.routing.ModelRouter;
+import org.example.a2a.server.scheduling.FairScheduler;
 
 public class MinimalAgentExecutor implements AgentExecutor {
+  /** Name of this executor in metrics. */
+  public static final String NAME = "minimal";
+
+  private final OrchestrationAgent agent;
+  private final ModelRouter router;
+  private final RequestKeys requestKeys;
+  private final ResponseCache responseCache;
+  private final RequestCoalescer<String> coalescer;
+  private final InFlightCalls inFlightCalls;
+  private final FairScheduler scheduler;
+  private final PipelineMetrics metrics;
+
+  /**
+   * @param agent The agent used to call the orchestration service.
+   * @param router The router choosing the model of each request.
+   * @param requestKeys The builder of keys identifying equivalent requests.
+   * @param responseCache The cache of responses to repeated requests.
+   * @param coalescer The coalescer of identical in-flight requests.
+   * @param inFlightCalls The registry of in-flight calls, used to abort them at their deadline.
+   * @param scheduler The scheduler deciding when upstream calls may go out.
+   * @param metrics The metrics of the execution stages.
+   */
+  public MinimalAgentExecutor(
+      OrchestrationAgent agent,
+      ModelRouter router,
+      RequestKeys requestKeys,
+      ResponseCache responseCache,
+      RequestCoalescer<String> coalescer,
+      InFlightCalls inFlightCalls,
+      FairScheduler scheduler,
+      PipelineMetrics metrics) {
+    this.agent = agent;
+    this.router = router;
+    this.requestKeys = requestKeys;
+    this.responseCache = responseCache;
+    this.coalescer = coalescer;
+    this.inFlightCalls = inFlightCalls;
+    this.scheduler = scheduler;
+    this.metrics = metrics;
+  }
 
   /**
    * Handles incoming message for all supported transport mechanisms.
@@ -30,20 +83,69 @@ public class MinimalAgentExecutor implements AgentExecutor {
    */
   @Override
   public void execute(RequestContext context, EventQueue eventQueue) throws JSONRPCError {
-    UserMessage userMessage = toOrchestrationUserMessage(context.getMessage());
+    String skillId = AgentSkills.of(context);
+    // Routing is left to the upstream call: cached and coalesced responses use no model, and any
+    // candidate may answer, so the key and the model tag cover all candidates of the skill
+    List<OrchestrationAiModel> candidates = router.candidates(skillId);
+    try (PipelineMetrics.Execution execution =
+        metrics.start(NAME, skillId, ModelRouter.names(candidates))) {
+      OrchestrationPrompt prompt =
+          execution.convert(
+              () -> new OrchestrationPrompt(toOrchestrationUserMessage(context.getMessage())));
+      String key = requestKeys.of(skillId, normalizedUserText(context.getMessage()), candidates);
+      // Identical requests in flight share one upstream call, each still gets its own message
+      String tenant = FairScheduler.tenantOf(context);
+      int promptTokens = TokenEstimator.estimate(context.getMessage());
+      Supplier<String> upstream =
+          () ->
+              coalescer.execute(
+                  key, () -> chat(prompt, skillId, tenant, promptTokens, execution));
+      String content;
+      try (InFlightCalls.Call call = inFlightCalls.register(context)) {
+        content =
+            execution.orchestration(
+                () -> call.await(() -> responseCache.getOrCompute(skillId, key, upstream)));
+      } catch (CancellationException e) {
+        // Interrupted while shutting down, nothing left to send
+        return;
+      }
 
-    OrchestrationPrompt prompt = new OrchestrationPrompt(userMessage);
-    OrchestrationModuleConfig config =
-        new OrchestrationModuleConfig().withLlmConfig(OrchestrationAiModel.GPT_4O);
-    OrchestrationChatResponse response = OrchestrationAgent.chat(prompt, config);
+      // Response is consumed by the EventQueue to send back to the client
+      execution.enqueue(() -> eventQueue.enqueueEvent(toA2AMessage(context, content)));
+    } catch (OrchestrationUnavailableException e) {
+      // Fails fast with an A2A error instead of holding the request while upstream is degraded
+      throw new InternalError(e.getMessage());
+    }
+  }
 
-    // Response is consumed by the EventQueue to send back to the client
-    eventQueue.enqueueEvent(toA2AMessage(context, response));
+  private String chat(
+      OrchestrationPrompt prompt,
+      String skillId,
+      String tenant,
+      int promptTokens,
+      PipelineMetrics.Execution execution) {
+    // Only calls that reach upstream use tokens, cached and coalesced responses do not
+    Completion completion;
+    try (FairScheduler.Permit permit = scheduler.acquire(tenant, promptTokens)) {
+      // Routed only now, so that probe slots are only used by calls that reach upstream
+      completion = router.route(skillId).call(config -> agent.chat(prompt, config));
+    }
+    execution.tokens(completion);
+    return completion.content();
   }
 
+  /**
+   * Rejects cancellation, the minimal flow answers with a message and never creates a task.
+   *
+   * <p>The request handler answers {@code cancelTask} for unknown tasks itself, so this is only
+   * reached if another executor created the task.
+   *
+   * @param context The request context of the task to cancel.
+   * @param eventQueue The event queue used to emit the cancelled status.
+   * @throws JSONRPCError Always, as there is no task of this executor to cancel.
+   */
   @Override
-  public void cancel(RequestContext context, EventQueue eventQueue)
-      throws JSONRPCError, UnsupportedOperationException {
-    throw new UnsupportedOperationException("Cancellation not implemented yet");
+  public void cancel(RequestContext context, EventQueue eventQueue) throws JSONRPCError {
+    throw new TaskNotCancelableError();
   }
 }
@@ -0,0 +1,47 @@
+package org.example.a2a.server;
+
+import com.sap.ai.sdk.orchestration.model.TokenUsage;
+import io.a2a.spec.AgentCapabilities;
+import io.a2a.spec.AgentCard;
+import io.a2a.spec.AgentSkill;
+import io.a2a.spec.Artifact;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskArtifactUpdateEvent;
+import io.a2a.spec.TaskStatusUpdateEvent;
+import io.a2a.spec.TextPart;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Registers the classes serialised by Jackson for reflection in the native executable.
+ *
+ * <p>The A2A and orchestration SDKs bind JSON to their model classes reflectively, which native
+ * images only allow for registered classes. The full hierarchy of each root is registered, so that
+ * nested model classes reached through fields are covered too. Orchestration classes are given by
+ * name: the request and response models are generated and not referenced by our code, names missing
+ * in another SDK version only cause a build warning.
+ */
+@RegisterForReflection(
+    targets = {
+      AgentCard.class,
+      AgentSkill.class,
+      AgentCapabilities.class,
+      Task.class,
+      Message.class,
+      TextPart.class,
+      Artifact.class,
+      TaskStatusUpdateEvent.class,
+      TaskArtifactUpdateEvent.class,
+      TokenUsage.class
+    },
+    classNames = {
+      "com.sap.ai.sdk.orchestration.model.CompletionPostRequest",
+      "com.sap.ai.sdk.orchestration.model.CompletionPostResponse",
+      "com.sap.ai.sdk.orchestration.model.ErrorResponse",
+      "com.sap.ai.sdk.orchestration.OrchestrationChatCompletionDelta"
+    },
+    registerFullHierarchy = true)
+final class NativeImageReflection {
+
+  private NativeImageReflection() {}
+}
@@ -0,0 +1,192 @@
+package org.example.a2a.server;
+
+import static org.example.a2a.server.orchestration.OrchestrationAgent.userText;
+
+import io.a2a.server.agentexecution.AgentExecutor;
+import io.a2a.server.agentexecution.RequestContext;
+import io.a2a.server.events.EventQueue;
+import io.a2a.server.tasks.TaskUpdater;
+import io.a2a.spec.InternalError;
+import io.a2a.spec.JSONRPCError;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskNotCancelableError;
+import io.a2a.spec.TextPart;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+import org.example.a2a.server.metrics.PipelineMetrics;
+import org.example.a2a.server.orchestration.InFlightCalls;
+import org.example.a2a.server.resilience.OrchestrationUnavailableException;
+import org.example.a2a.server.scatter.DownstreamAgents;
+
+/**
+ * Answers a request by fanning it out to several downstream A2A agents at once.
+ *
+ * <p>Each downstream agent receives its own sub-query derived from the request, all of them are
+ * sent concurrently. Answers are added to the task as one artifact per agent in the order they
+ * arrive, so clients see partial results while slower agents are still working, and the request
+ * takes as long as its slowest branch instead of the sum of all of them.
+ *
+ * <p>A branch that fails or misses its deadline is left out and named in the final status message.
+ * The task only fails if no agent answered. When the deadline of the whole request passes, the
+ * branches still waiting are aborted and the task completes with the answers received so far.
+ */
+public class ScatterGatherAgentExecutor implements AgentExecutor {
+  /** Name of this executor in metrics. */
+  public static final String NAME = "scatter-gather";
+
+  // Model tag of the executions, the answers come from other agents and not from a model
+  private static final String DOWNSTREAM = "downstream";
+
+  private final DownstreamAgents downstream;
+  private final InFlightCalls inFlightCalls;
+  private final PipelineMetrics metrics;
+
+  /**
+   * @param downstream The clients of the downstream agents.
+   * @param inFlightCalls The registry of in-flight calls, used to abort the branches on
+   *     cancellation and at the deadline of the request.
+   * @param metrics The metrics of the execution stages.
+   */
+  public ScatterGatherAgentExecutor(
+      DownstreamAgents downstream, InFlightCalls inFlightCalls, PipelineMetrics metrics) {
+    this.downstream = downstream;
+    this.inFlightCalls = inFlightCalls;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Sends the sub-queries of a request and emits the answers as they arrive.
+   *
+   * @param context The request context containing incoming data and any related state stored on the
+   *     server-side, such as tasks.
+   * @param eventQueue The event queue used to enqueue response events to be sent back to the
+   *     client.
+   * @throws JSONRPCError If the deadline of the request passed before any branch answered.
+   */
+  @Override
+  public void execute(RequestContext context, EventQueue eventQueue) throws JSONRPCError {
+    try (PipelineMetrics.Execution execution =
+        metrics.start(NAME, AgentSkills.of(context), DOWNSTREAM)) {
+      execute(context, eventQueue, execution);
+    } catch (OrchestrationUnavailableException e) {
+      throw new InternalError(e.getMessage());
+    }
+  }
+
+  private void execute(
+      RequestContext context, EventQueue eventQueue, PipelineMetrics.Execution execution) {
+    TaskUpdater updater = new TaskUpdater(context, eventQueue);
+    Task existingTask = context.getTask();
+    execution.enqueue(
+        () -> {
+          if (existingTask == null || existingTask.getStatus().state().isFinal()) {
+            updater.submit();
+          }
+          updater.startWork();
+        });
+
+    String query = execution.convert(() -> userText(context.getMessage()));
+    // Branches report themselves once finished, whichever way, so answers are emitted in order of
+    // arrival on this thread
+    BlockingQueue<Branch> finished = new LinkedBlockingQueue<>();
+    List<Branch> branches =
+        downstream.names().stream()
+            .map(name -> new Branch(name, downstream.ask(name, query)))
+            .toList();
+    branches.forEach(
+        branch -> branch.answer().whenComplete((text, error) -> finished.add(branch)));
+
+    InFlightCalls.Call call = inFlightCalls.register(context);
+    call.onCancel(() -> branches.forEach(branch -> branch.answer().cancel(true)));
+    List<String> missing = new ArrayList<>();
+    try {
+      execution.orchestration(
+          () -> {
+            for (int i = 0; i < branches.size(); i++) {
+              Branch branch = take(finished);
+              try {
+                String text = branch.answer().join();
+                execution.enqueue(
+                    () ->
+                        updater.addArtifact(
+                            List.of(new TextPart(text)),
+                            UUID.randomUUID().toString(),
+                            branch.name(),
+                            Map.of("agent", branch.name())));
+              } catch (CompletionException | CancellationException e) {
+                // Branches aborted at the deadline of the request have timed out as well
+                String reason = call.isExpired() ? "timed out" : reason(e);
+                missing.add(branch.name() + " (" + reason + ")");
+              }
+            }
+            return null;
+          });
+      // Once finished the call can no longer be cancelled, so only one final status is emitted
+      if (!call.finish()) {
+        // The cancelled status has already been emitted by cancel(...)
+        return;
+      }
+    } catch (CancellationException e) {
+      branches.forEach(branch -> branch.answer().cancel(true));
+      throw e;
+    } finally {
+      call.close();
+    }
+
+    if (missing.isEmpty()) {
+      execution.enqueue(updater::complete);
+      return;
+    }
+    TextPart note = new TextPart("No answer from " + String.join(", ", missing));
+    if (missing.size() == branches.size()) {
+      execution.enqueue(() -> updater.fail(updater.newAgentMessage(List.of(note), null)));
+      call.checkDeadline();
+    } else {
+      execution.enqueue(() -> updater.complete(updater.newAgentMessage(List.of(note), null)));
+    }
+  }
+
+  private static Branch take(BlockingQueue<Branch> finished) {
+    try {
+      return finished.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Waiting for the downstream agents was interrupted");
+    }
+  }
+
+  private static String reason(RuntimeException e) {
+    if (e instanceof CancellationException) {
+      return "cancelled";
+    }
+    return e.getCause() instanceof TimeoutException ? "timed out" : "failed";
+  }
+
+  /**
+   * Cancels a task, aborting the branches still waiting for an answer.
+   *
+   * @param context The request context of the task to cancel.
+   * @param eventQueue The event queue used to emit the cancelled status.
+   * @throws JSONRPCError If the task has already reached a final state.
+   */
+  @Override
+  public void cancel(RequestContext context, EventQueue eventQueue) throws JSONRPCError {
+    Task task = context.getTask();
+    if (task != null && task.getStatus().state().isFinal()) {
+      throw new TaskNotCancelableError();
+    }
+    inFlightCalls.cancel(context.getTaskId());
+    new TaskUpdater(context, eventQueue).cancel();
+  }
+
+  /** The sub-query of one downstream agent. */
+  private record Branch(String name, CompletableFuture<String> answer) {}
+}
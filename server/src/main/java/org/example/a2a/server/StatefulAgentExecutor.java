@@ -3,22 +3,78 @@ package org.example.a2a.server;
 import static org.example.a2a.server.orchestration.OrchestrationAgent.toOrchestrationUserMessage;
 
 import org.example.a2a.server.orchestration.OrchestrationAgent;
-import com.sap.ai.sdk.orchestration.OrchestrationAiModel;
-import com.sap.ai.sdk.orchestration.OrchestrationChatResponse;
 import com.sap.ai.sdk.orchestration.OrchestrationModuleConfig;
 import com.sap.ai.sdk.orchestration.OrchestrationPrompt;
 import io.a2a.server.agentexecution.AgentExecutor;
 import io.a2a.server.agentexecution.RequestContext;
 import io.a2a.server.events.EventQueue;
 import io.a2a.server.tasks.TaskUpdater;
+import io.a2a.spec.InternalError;
 import io.a2a.spec.JSONRPCError;
 import io.a2a.spec.Message;
 import io.a2a.spec.Task;
+import io.a2a.spec.TaskNotCancelableError;
 import io.a2a.spec.TextPart;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import org.example.a2a.server.history.ConversationCache;
+import org.example.a2a.server.history.HistoryCompactor;
+import org.example.a2a.server.history.TokenEstimator;
+import org.example.a2a.server.metrics.PipelineMetrics;
+import org.example.a2a.server.orchestration.AbortableRequest;
+import org.example.a2a.server.orchestration.Completion;
+import org.example.a2a.server.orchestration.InFlightCalls;
+import org.example.a2a.server.resilience.OrchestrationUnavailableException;
+import org.example.a2a.server.routing.ModelRouter;
+import org.example.a2a.server.scheduling.FairScheduler;
+import org.example.a2a.server.streaming.StreamingArtifactWriter;
 
 public class StatefulAgentExecutor implements AgentExecutor {
+  /** Name of this executor in metrics. */
+  public static final String NAME = "stateful";
+
+  private final OrchestrationAgent agent;
+  private final ModelRouter router;
+  private final ConversationCache conversationCache;
+  private final HistoryCompactor historyCompactor;
+  private final InFlightCalls inFlightCalls;
+  private final FairScheduler scheduler;
+  private final AgentExecutorConfig.Streaming streaming;
+  private final Executor streamReadExecutor;
+  private final PipelineMetrics metrics;
+
+  /**
+   * @param agent The agent used to call the orchestration service.
+   * @param router The router choosing the model of each request.
+   * @param conversationCache The cache of converted conversation history.
+   * @param historyCompactor The compactor keeping the history within the token budget.
+   * @param inFlightCalls The registry of in-flight calls, used to abort them on cancellation.
+   * @param scheduler The scheduler deciding when upstream calls may go out.
+   * @param streaming The streaming settings.
+   * @param streamReadExecutor The executor reading completion deltas when streaming is enabled.
+   * @param metrics The metrics of the execution stages.
+   */
+  public StatefulAgentExecutor(
+      OrchestrationAgent agent,
+      ModelRouter router,
+      ConversationCache conversationCache,
+      HistoryCompactor historyCompactor,
+      InFlightCalls inFlightCalls,
+      FairScheduler scheduler,
+      AgentExecutorConfig.Streaming streaming,
+      Executor streamReadExecutor,
+      PipelineMetrics metrics) {
+    this.agent = agent;
+    this.router = router;
+    this.conversationCache = conversationCache;
+    this.historyCompactor = historyCompactor;
+    this.inFlightCalls = inFlightCalls;
+    this.scheduler = scheduler;
+    this.streaming = streaming;
+    this.streamReadExecutor = streamReadExecutor;
+    this.metrics = metrics;
+  }
 
   /**
    * Handles incoming message for all supported transport mechanisms.
@@ -34,6 +90,23 @@ public class StatefulAgentExecutor implements AgentExecutor {
    */
   @Override
   public void execute(RequestContext context, EventQueue eventQueue) throws JSONRPCError {
+    String skillId = AgentSkills.of(context);
+    ModelRouter.Route route = router.route(skillId);
+    try (PipelineMetrics.Execution execution =
+        metrics.start(NAME, skillId, route.model().getName())) {
+      execute(context, eventQueue, skillId, route, execution);
+    } catch (OrchestrationUnavailableException e) {
+      // Fails fast with an A2A error instead of holding the request while upstream is degraded
+      throw new InternalError(e.getMessage());
+    }
+  }
+
+  private void execute(
+      RequestContext context,
+      EventQueue eventQueue,
+      String skillId,
+      ModelRouter.Route route,
+      PipelineMetrics.Execution execution) {
     // TaskUpdater helps manage task lifecycle and emit events
     TaskUpdater updater = new TaskUpdater(context, eventQueue);
 
@@ -41,37 +114,151 @@ public class StatefulAgentExecutor implements AgentExecutor {
     // A TaskStore is a server-side storage for persisting task state across multiple requests.
     Task existingTask = context.getTask();
 
-    if (existingTask == null || existingTask.getStatus().state().isFinal()) {
-      // Starts a new task if none exists.
-      updater.submit();
-    }
+    // Tracked before the first event, so that a cancellation from here on is seen by this
+    // execution and it does not emit a final status of its own
+    InFlightCalls.Call call = inFlightCalls.register(context);
+    try {
+      execution.enqueue(
+          () -> {
+            if (call.isCancelled()) {
+              // The cancelled status has already been emitted by cancel(...)
+              return;
+            }
+            if (existingTask == null || existingTask.getStatus().state().isFinal()) {
+              // Starts a new task if none exists.
+              updater.submit();
+            }
+
+            // Marks the task as in progress to separate initial submission from actual work
+            updater.startWork();
+          });
 
-    // Marks the task as in progress to separate initial submission from actual work
-    updater.startWork();
+      // Extract current user message
+      Message userMessage = context.getMessage();
+      OrchestrationPrompt prompt =
+          execution.convert(
+              () -> new OrchestrationPrompt(toOrchestrationUserMessage(userMessage)));
 
-    // Extract current user message
-    Message userMessage = context.getMessage();
-    OrchestrationPrompt prompt = new OrchestrationPrompt(toOrchestrationUserMessage(userMessage));
+      OrchestrationModuleConfig config = route.config();
+      // Upstream calls of tenants with long histories are scheduled by their estimated prompt size
+      String tenant = FairScheduler.tenantOf(context);
 
-    Optional.ofNullable(existingTask)
-        .map(Task::getHistory)
-        .map(OrchestrationAgent::toOrchestrationMessages)
-        .ifPresent(prompt::messageHistory);
+      int promptTokens = TokenEstimator.estimate(userMessage);
+      if (existingTask != null) {
+        // Only messages added since the previous turn of this context are converted, older turns
+        // beyond the token budget of the skill are replaced by a summary
+        HistoryCompactor.Compacted history =
+            execution.history(
+                () ->
+                    historyCompactor.compact(
+                        skillId,
+                        tenant,
+                        existingTask,
+                        conversationCache.toOrchestrationMessages(existingTask),
+                        config));
+        execution.historyLength(history.messages().size());
+        prompt.messageHistory(history.messages());
+        promptTokens += history.tokens();
+      } else {
+        execution.historyLength(0);
+      }
 
-    OrchestrationModuleConfig config =
-        new OrchestrationModuleConfig().withLlmConfig(OrchestrationAiModel.GPT_4O);
-    OrchestrationChatResponse response = OrchestrationAgent.chat(prompt, config);
+      if (streaming.enabled()) {
+        // Cancellation stops the wait for the turn, and later the stream
+        FairScheduler.Turn turn = scheduler.request(tenant, promptTokens);
+        call.onCancel(turn::cancel);
+        // The turn is held until the stream has ended, as the call occupies upstream until then
+        try (FairScheduler.Permit permit = turn.await()) {
+          // Until the response headers arrive there is no stream to close, only a request to abort
+          AbortableRequest request = new AbortableRequest();
+          call.onCancel(request::abort);
+          // Opening the stream sends the request, the time to the first token starts before it
+          long requestNanos = System.nanoTime();
+          Stream<String> deltas =
+              request.call(
+                  () -> route.stream(modelConfig -> agent.stream(prompt, modelConfig)));
+          call.onCancel(deltas::close);
+          // Forward deltas as appended artifact chunks while the model is still generating
+          StreamingArtifactWriter writer =
+              new StreamingArtifactWriter(
+                  updater,
+                  streamReadExecutor,
+                  streaming.maxBufferedChars(),
+                  streaming.coalesceWindow().toNanos(),
+                  streaming.coalesceMaxChars());
+          try {
+            execution.orchestration(
+                () -> {
+                  writer.write(execution.firstToken(deltas, requestNanos));
+                  // A stream closed at the deadline ends like a complete one
+                  call.checkDeadline();
+                  return null;
+                });
+          } finally {
+            execution.streamed(writer.deltas(), writer.chunks());
+          }
+        }
+      } else {
+        Completion completion =
+            execution.orchestration(
+                () ->
+                    call.await(
+                        () -> {
+                          try (FairScheduler.Permit permit =
+                              scheduler.acquire(tenant, promptTokens)) {
+                            return route.call(modelConfig -> agent.chat(prompt, modelConfig));
+                          }
+                        }));
+        execution.tokens(completion);
 
-    // Update the task with the response artifact
-    updater.addArtifact(List.of(new TextPart(response.getContent())), null, null, null);
+        // Update the task with the response artifact
+        execution.enqueue(
+            () ->
+                updater.addArtifact(
+                    List.of(new TextPart(completion.content())), null, null, null));
+      }
 
-    // Mark the task as complete
-    updater.complete();
+      // Once finished the call can no longer be cancelled, so only one final status is emitted
+      if (call.finish()) {
+        // Mark the task as complete
+        execution.enqueue(updater::complete);
+      }
+    } catch (RuntimeException e) {
+      // The next turn cannot rely on this conversation having been extended as cached
+      conversationCache.invalidate(context.getContextId());
+      if (!call.finish()) {
+        // The cancelled status has already been emitted by cancel(...)
+        return;
+      }
+      // Chunks may already have been emitted, the task must not be left working
+      String reason =
+          call.isExpired()
+              ? "The response did not finish within the deadline of the request"
+              : "The response could not be generated";
+      execution.enqueue(
+          () -> updater.fail(updater.newAgentMessage(List.of(new TextPart(reason)), null)));
+      call.checkDeadline();
+      throw e;
+    } finally {
+      call.close();
+    }
   }
 
+  /**
+   * Cancels a task, aborting its orchestration call if one is in flight.
+   *
+   * @param context The request context of the task to cancel.
+   * @param eventQueue The event queue used to emit the cancelled status.
+   * @throws JSONRPCError If the task has already reached a final state.
+   */
   @Override
-  public void cancel(RequestContext context, EventQueue eventQueue)
-      throws JSONRPCError, UnsupportedOperationException {
-    throw new UnsupportedOperationException("Cancellation not implemented yet");
+  public void cancel(RequestContext context, EventQueue eventQueue) throws JSONRPCError {
+    Task task = context.getTask();
+    if (task != null && task.getStatus().state().isFinal()) {
+      throw new TaskNotCancelableError();
+    }
+    inFlightCalls.cancel(context.getTaskId());
+    conversationCache.invalidate(context.getContextId());
+    new TaskUpdater(context, eventQueue).cancel();
   }
 }
@@ -0,0 +1,180 @@
+package org.example.a2a.server.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Second cache tier storing one file per response, named after the hash of its key.
+ *
+ * <p>Each file holds the expiry time, the full key to rule out hash collisions, and the response.
+ * Expired files are deleted when they are read. A background sweep deletes expired files nobody
+ * reads again and, while the directory exceeds its size bound, the least recently used ones. Reads
+ * refresh the modification time of a file, which serves as its last use. I/O failures are logged
+ * and treated as misses, the cache must never fail a request.
+ */
+@Slf4j
+class DiskResponseStore implements AutoCloseable {
+  private final Path directory;
+  private final long maxBytes;
+  private final ScheduledExecutorService sweeper;
+
+  /**
+   * @param directory The directory holding the cached responses.
+   * @param maxBytes The size bound of the directory.
+   * @param sweepInterval The interval of the sweep deleting expired and evicted files.
+   */
+  DiskResponseStore(Path directory, long maxBytes, Duration sweepInterval) {
+    this.directory = directory;
+    this.maxBytes = maxBytes;
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot create response cache directory " + directory, e);
+    }
+    this.sweeper =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "response-cache-sweep");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long interval = sweepInterval.toMillis();
+    // The first run also bounds a directory left over from before a restart
+    sweeper.scheduleWithFixedDelay(this::sweep, 0, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @param key The key of the request.
+   * @param nowMillis The current time.
+   * @return The stored response, if there is one that has not expired.
+   */
+  Optional<Stored> get(String key, long nowMillis) {
+    Path file = file(key);
+    try (InputStream in = Files.newInputStream(file);
+        DataInputStream data = new DataInputStream(in)) {
+      long expiresAt = data.readLong();
+      String storedKey = readString(data);
+      if (expiresAt <= nowMillis) {
+        Files.deleteIfExists(file);
+        return Optional.empty();
+      }
+      if (!storedKey.equals(key)) {
+        return Optional.empty();
+      }
+      Stored stored = new Stored(readString(data), expiresAt);
+      Files.setLastModifiedTime(file, FileTime.fromMillis(nowMillis));
+      return Optional.of(stored);
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException e) {
+      log.warn("Reading cached response {} failed", file, e);
+      return Optional.empty();
+    }
+  }
+
+  void put(String key, String content, long expiresAtMillis) {
+    Path file = file(key);
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length() + key.length() + 16);
+      try (DataOutputStream data = new DataOutputStream(bytes)) {
+        data.writeLong(expiresAtMillis);
+        writeString(data, key);
+        writeString(data, content);
+      }
+      // Write to a temporary file first, so readers never see a partially written entry
+      Path temp = Files.createTempFile(directory, "response", ".tmp");
+      Files.write(temp, bytes.toByteArray());
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.warn("Writing cached response {} failed", file, e);
+    }
+  }
+
+  /** Stops the sweep, the stored responses stay for the next start. */
+  @Override
+  public void close() {
+    sweeper.shutdownNow();
+  }
+
+  private void sweep() {
+    long now = System.currentTimeMillis();
+    List<Candidate> live = new ArrayList<>();
+    long bytes = 0;
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        if (file.getFileName().toString().endsWith(".tmp")) {
+          continue;
+        }
+        try {
+          if (expiresAt(file) <= now) {
+            Files.deleteIfExists(file);
+            continue;
+          }
+          long size = Files.size(file);
+          live.add(new Candidate(file, size, Files.getLastModifiedTime(file).toMillis()));
+          bytes += size;
+        } catch (NoSuchFileException e) {
+          // Deleted by a reader in the meantime
+        }
+      }
+      if (bytes <= maxBytes) {
+        return;
+      }
+      live.sort(Comparator.comparingLong(Candidate::lastUsed));
+      for (Candidate candidate : live) {
+        if (bytes <= maxBytes) {
+          break;
+        }
+        Files.deleteIfExists(candidate.file());
+        bytes -= candidate.size();
+      }
+    } catch (IOException | RuntimeException e) {
+      // The sweep runs again at the next interval, the executor must not cancel it
+      log.warn("Sweeping the response cache directory {} failed", directory, e);
+    }
+  }
+
+  private static long expiresAt(Path file) throws IOException {
+    try (DataInputStream data = new DataInputStream(Files.newInputStream(file))) {
+      return data.readLong();
+    }
+  }
+
+  private Path file(String key) {
+    return directory.resolve(Hashes.sha256Hex(key));
+  }
+
+  private static void writeString(DataOutputStream data, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    data.writeInt(bytes.length);
+    data.write(bytes);
+  }
+
+  private static String readString(DataInputStream data) throws IOException {
+    return new String(data.readNBytes(data.readInt()), StandardCharsets.UTF_8);
+  }
+
+  /** A response read from disk, with the expiry it was stored with. */
+  record Stored(String content, long expiresAt) {}
+
+  private record Candidate(Path file, long size, long lastUsed) {}
+}
@@ -0,0 +1,99 @@
+package org.example.a2a.server.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import org.example.a2a.server.orchestration.AbortableRequest;
+
+/**
+ * Lets concurrent callers with the same request key share one upstream call.
+ *
+ * <p>The first caller of a key runs the call on its own thread, later callers wait for its result.
+ * A failure is propagated to every waiting caller and nothing is remembered once the call has
+ * finished, so the next request for the key starts a fresh call. If the shared call was cancelled
+ * or aborted, e.g. at the deadline of the caller running it, waiting callers that were not
+ * cancelled themselves retry instead of failing, and one of them runs the call again.
+ *
+ * @param <V> The type of the call result.
+ */
+public class RequestCoalescer<V> {
+  private final Map<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final Counter coalesced;
+
+  public RequestCoalescer(MeterRegistry registry) {
+    this.coalesced =
+        Counter.builder("agent.orchestration.coalesced")
+            .description("Requests served by joining an identical in-flight call")
+            .register(registry);
+    Gauge.builder("agent.orchestration.coalescer.in.flight", inFlight, Map::size)
+        .description("Distinct request keys with an upstream call in flight")
+        .register(registry);
+  }
+
+  /**
+   * Runs the call, or waits for the in-flight call with the same key.
+   *
+   * @param key The key of the request.
+   * @param call The upstream call.
+   * @return The result of the call.
+   */
+  public V execute(String key, Supplier<V> call) {
+    boolean joined = false;
+    while (true) {
+      CompletableFuture<V> own = new CompletableFuture<>();
+      CompletableFuture<V> shared = inFlight.putIfAbsent(key, own);
+      if (shared == null) {
+        return lead(key, own, call);
+      }
+      if (!joined) {
+        coalesced.increment();
+        joined = true;
+      }
+      try {
+        return shared.get();
+      } catch (InterruptedException e) {
+        // Only this caller stops waiting, the shared call continues for the others
+        Thread.currentThread().interrupt();
+        throw new CancellationException("Waiting for a coalesced request was interrupted");
+      } catch (CancellationException e) {
+        // The leader was cancelled or aborted, retry and possibly become the new leader
+      } catch (ExecutionException e) {
+        throw propagate(e.getCause());
+      }
+    }
+  }
+
+  private V lead(String key, CompletableFuture<V> own, Supplier<V> call) {
+    try {
+      V result = call.get();
+      own.complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      if (Thread.currentThread().isInterrupted() || AbortableRequest.currentAborted()) {
+        // Failed because this caller gave up, the others may still wait for their own deadline
+        own.cancel(false);
+      } else {
+        own.completeExceptionally(e);
+      }
+      throw e;
+    } finally {
+      inFlight.remove(key, own);
+    }
+  }
+
+  private static RuntimeException propagate(Throwable cause) {
+    if (cause instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    if (cause instanceof Error error) {
+      throw error;
+    }
+    return new IllegalStateException(cause);
+  }
+}
@@ -0,0 +1,54 @@
+package org.example.a2a.server.cache;
+
+import com.sap.ai.sdk.orchestration.OrchestrationAiModel;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the keys identifying equivalent stateless requests.
+ *
+ * <p>Two requests are equivalent if they address the same skill, ask the same normalised question
+ * and may be answered by the same candidate models. The key covers all candidates rather than the
+ * model a request is routed to, since any of them may answer it, e.g. after a failover or when a
+ * hedged call wins. The module configs of this agent only differ in their model, the prompt
+ * templates are part of the question. The candidates are represented by a fingerprint of their
+ * names, versions and sorted parameters rather than their hash code or rendered form, because keys
+ * are also persisted by the disk tier of the cache and must not change with the SDK version.
+ */
+public class RequestKeys {
+  // Candidate lists are configured per skill, the bound only guards against unexpected variants
+  private static final int MAX_FINGERPRINTS = 256;
+
+  private final Map<List<OrchestrationAiModel>, String> fingerprints = new ConcurrentHashMap<>();
+
+  /**
+   * @param skillId The skill the request is addressed to.
+   * @param userText The normalised user text of the request.
+   * @param candidates The candidate models the response may be generated with.
+   * @return The key of the request.
+   */
+  public String of(String skillId, String userText, List<OrchestrationAiModel> candidates) {
+    return skillId + '\n' + fingerprint(candidates) + '\n' + userText;
+  }
+
+  private String fingerprint(List<OrchestrationAiModel> candidates) {
+    if (fingerprints.size() > MAX_FINGERPRINTS) {
+      fingerprints.clear();
+    }
+    return fingerprints.computeIfAbsent(
+        candidates,
+        models ->
+            Hashes.sha256Hex(
+                models.stream()
+                    .map(RequestKeys::describe)
+                    .sorted()
+                    .collect(Collectors.joining("\n"))));
+  }
+
+  private static String describe(OrchestrationAiModel model) {
+    return model.getName() + '\0' + model.getVersion() + '\0' + new TreeMap<>(model.getParams());
+  }
+}
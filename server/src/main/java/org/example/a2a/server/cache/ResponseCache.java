@@ -0,0 +1,146 @@
+package org.example.a2a.server.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Caches orchestration responses of stateless requests.
+ *
+ * <p>Responses are stored under the keys built by {@link RequestKeys}, so a change of model or
+ * model parameters never serves a response generated with different settings. The in-memory tier
+ * is bounded by the approximate heap size of its entries and evicts the least recently used ones
+ * first. The optional disk tier survives restarts, is bounded by its own size limit, and refills
+ * the memory tier on a hit.
+ */
+public class ResponseCache implements AutoCloseable {
+  // Object header, map entry and expiry per cached response
+  private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+  private final ResponseCacheConfig config;
+  private final DiskResponseStore disk;
+
+  private final Counter memoryHits;
+  private final Counter diskHits;
+  private final Counter misses;
+
+  // Access-ordered for LRU eviction. Guarded by this.
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long bytes;
+
+  public ResponseCache(ResponseCacheConfig config, MeterRegistry registry) {
+    this.config = config;
+    this.disk =
+        config
+            .directory()
+            .map(
+                directory ->
+                    new DiskResponseStore(
+                        directory, config.diskMaxBytes(), config.diskSweepInterval()))
+            .orElse(null);
+    this.memoryHits = counter(registry, "hit", "memory");
+    this.diskHits = counter(registry, "hit", "disk");
+    this.misses = counter(registry, "miss", "none");
+    Gauge.builder("agent.response.cache.bytes", this, cache -> cache.bytes())
+        .description("Approximate heap bytes held by the response cache")
+        .register(registry);
+  }
+
+  private static Counter counter(MeterRegistry registry, String result, String tier) {
+    return Counter.builder("agent.response.cache.requests")
+        .description("Response cache lookups by result and serving tier")
+        .tag("result", result)
+        .tag("tier", tier)
+        .register(registry);
+  }
+
+  /**
+   * Returns the cached response for a request or computes and caches it.
+   *
+   * @param skillId The skill the request is addressed to, selects the time to live.
+   * @param key The key of the request.
+   * @param compute Computes the response on a miss. Failures are propagated and not cached.
+   * @return The response content.
+   */
+  public String getOrCompute(String skillId, String key, Supplier<String> compute) {
+    if (!config.enabled()) {
+      return compute.get();
+    }
+    long now = System.currentTimeMillis();
+
+    String cached = getFromMemory(key, now);
+    if (cached != null) {
+      memoryHits.increment();
+      return cached;
+    }
+    Optional<DiskResponseStore.Stored> stored =
+        Optional.ofNullable(disk).flatMap(d -> d.get(key, now));
+    if (stored.isPresent()) {
+      diskHits.increment();
+      // The memory copy expires with the stored one, a refill must not extend its lifetime
+      putInMemory(key, stored.get().content(), stored.get().expiresAt());
+      return stored.get().content();
+    }
+
+    misses.increment();
+    String content = compute.get();
+    long expiresAt = now + ttl(skillId).toMillis();
+    putInMemory(key, content, expiresAt);
+    if (disk != null) {
+      disk.put(key, content, expiresAt);
+    }
+    return content;
+  }
+
+  /** Stops the background work of the disk tier, if there is one. */
+  @Override
+  public void close() {
+    if (disk != null) {
+      disk.close();
+    }
+  }
+
+  private Duration ttl(String skillId) {
+    return config.ttls().getOrDefault(skillId, config.defaultTtl());
+  }
+
+  private synchronized String getFromMemory(String key, long now) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.expiresAt() <= now) {
+      entries.remove(key);
+      bytes -= entry.bytes();
+      return null;
+    }
+    return entry.content();
+  }
+
+  private synchronized void putInMemory(String key, String content, long expiresAt) {
+    // Strings are UTF-16 or Latin-1 internally, two bytes per char is the upper bound
+    long size = 2L * (key.length() + content.length()) + ENTRY_OVERHEAD_BYTES;
+    if (size > config.maxBytes()) {
+      return;
+    }
+    Entry previous = entries.put(key, new Entry(content, expiresAt, size));
+    bytes += size - (previous == null ? 0 : previous.bytes());
+
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (bytes > config.maxBytes() && eldest.hasNext()) {
+      bytes -= eldest.next().bytes();
+      eldest.remove();
+    }
+  }
+
+  private synchronized long bytes() {
+    return bytes;
+  }
+
+  private record Entry(String content, long expiresAt, long bytes) {}
+}
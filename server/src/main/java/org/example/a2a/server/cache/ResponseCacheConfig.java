@@ -0,0 +1,38 @@
+package org.example.a2a.server.cache;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/** Settings of the response cache in front of stateless orchestration calls. */
+@ConfigMapping(prefix = "agent.response-cache")
+public interface ResponseCacheConfig {
+
+  @WithDefault("false")
+  boolean enabled();
+
+  /** Approximate heap bytes of cached keys and responses, least recently used ones are evicted. */
+  @WithDefault("67108864")
+  long maxBytes();
+
+  /** Time to live of responses of skills without an entry in {@link #ttls()}. */
+  @WithDefault("10m")
+  Duration defaultTtl();
+
+  /** Time to live of cached responses per skill id. */
+  Map<String, Duration> ttls();
+
+  /** Directory of the optional second tier that survives restarts. */
+  Optional<Path> directory();
+
+  /** Bytes of the files in {@link #directory()}, least recently used ones are evicted. */
+  @WithDefault("268435456")
+  long diskMaxBytes();
+
+  /** Interval at which expired and evicted files are deleted from {@link #directory()}. */
+  @WithDefault("1m")
+  Duration diskSweepInterval();
+}
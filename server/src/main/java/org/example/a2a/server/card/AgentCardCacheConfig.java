@@ -0,0 +1,18 @@
+package org.example.a2a.server.card;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+
+/** Caching of the public agent card by clients and intermediaries. */
+@ConfigMapping(prefix = "agent.card.cache")
+public interface AgentCardCacheConfig {
+
+  /** How long clients may use the card without revalidating it. */
+  @WithDefault("5m")
+  Duration maxAge();
+
+  /** How long after that clients may still use the card while revalidating it in the background. */
+  @WithDefault("1d")
+  Duration staleWhileRevalidate();
+}
@@ -0,0 +1,90 @@
+package org.example.a2a.server.card;
+
+import io.a2a.server.PublicAgentCard;
+import io.a2a.spec.AgentCard;
+import io.a2a.util.Utils;
+import io.quarkus.vertx.web.RouteFilter;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import org.example.a2a.server.cache.Hashes;
+
+/**
+ * Makes the public agent card cacheable.
+ *
+ * <p>The card is fixed for the lifetime of the server, so its entity tag is a hash of its JSON
+ * form and its last-modified date is the server start. Conditional requests for an unchanged card
+ * are answered with {@code 304 Not Modified} without rendering it again.
+ */
+@ApplicationScoped
+public class AgentCardCacheHeaders {
+  private static final String CARD_PATH = "/.well-known/agent-card.json";
+
+  @Inject @PublicAgentCard AgentCard agentCard;
+  @Inject AgentCardCacheConfig config;
+
+  private Instant startedAt;
+  private String etag;
+  private String lastModified;
+  private String cacheControl;
+
+  @PostConstruct
+  void init() {
+    try {
+      etag = "\"" + Hashes.sha256Hex(Utils.OBJECT_MAPPER.writeValueAsString(agentCard)) + "\"";
+    } catch (Exception e) {
+      throw new IllegalStateException("Cannot serialise the agent card", e);
+    }
+    startedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(startedAt.atOffset(ZoneOffset.UTC));
+    cacheControl =
+        "public, max-age=%d, stale-while-revalidate=%d"
+            .formatted(config.maxAge().toSeconds(), config.staleWhileRevalidate().toSeconds());
+  }
+
+  @RouteFilter
+  void cacheHeaders(RoutingContext context) {
+    if (!CARD_PATH.equals(context.normalizedPath())) {
+      context.next();
+      return;
+    }
+    context
+        .response()
+        .putHeader(HttpHeaders.ETAG, etag)
+        .putHeader(HttpHeaders.LAST_MODIFIED, lastModified)
+        .putHeader(HttpHeaders.CACHE_CONTROL, cacheControl)
+        .putHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+    if (isUnchanged(context)) {
+      context.response().setStatusCode(304).end();
+      return;
+    }
+    context.next();
+  }
+
+  private boolean isUnchanged(RoutingContext context) {
+    String ifNoneMatch = context.request().getHeader(HttpHeaders.IF_NONE_MATCH);
+    if (ifNoneMatch != null) {
+      // If-None-Match takes precedence over If-Modified-Since
+      return ifNoneMatch.equals("*") || ifNoneMatch.contains(etag);
+    }
+    String ifModifiedSince = context.request().getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+    if (ifModifiedSince == null) {
+      return false;
+    }
+    try {
+      // The card may have changed with a restart, so only dates since this start match
+      Instant since = Instant.from(DateTimeFormatter.RFC_1123_DATE_TIME.parse(ifModifiedSince));
+      return !since.isBefore(startedAt);
+    } catch (DateTimeException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package org.example.a2a.server.execution;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.example.a2a.server.resilience.OrchestrationUnavailableException;
+
+/**
+ * Caps the number of calls to the orchestration service in flight.
+ *
+ * <p>Slots are taken together with the turn of a call in the {@link
+ * org.example.a2a.server.scheduling.FairScheduler}, so only calls that go upstream hold one.
+ * Cached and coalesced responses, history preparation and emitting events do not. Calls beyond the
+ * cap wait in a bounded queue. When the queue is full, or a slot does not free up in time, the call
+ * is rejected at once instead of piling up.
+ */
+public class Bulkhead {
+  private final ExecutionConfig.BulkheadConfig config;
+  private final Semaphore slots;
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final Counter rejected;
+  private final Timer wait;
+
+  public Bulkhead(ExecutionConfig.BulkheadConfig config, MeterRegistry registry) {
+    this.config = config;
+    this.slots = new Semaphore(config.maxConcurrent(), true);
+    this.rejected =
+        Counter.builder("agent.bulkhead.rejected")
+            .description("Orchestration calls rejected because the bulkhead was full")
+            .register(registry);
+    this.wait =
+        Timer.builder("agent.bulkhead.wait")
+            .description("Time orchestration calls waited for a bulkhead slot")
+            .publishPercentileHistogram()
+            .register(registry);
+    Gauge.builder(
+            "agent.bulkhead.active", slots, s -> config.maxConcurrent() - s.availablePermits())
+        .description("Orchestration calls holding a bulkhead slot")
+        .register(registry);
+    Gauge.builder("agent.bulkhead.waiting", waiting, AtomicInteger::get)
+        .description("Orchestration calls waiting for a bulkhead slot")
+        .register(registry);
+  }
+
+  /**
+   * Waits for a slot, to be released with {@link #release()}.
+   *
+   * @throws OrchestrationUnavailableException If the wait queue is full or no slot became free in
+   *     time.
+   * @throws CancellationException If the waiting thread was interrupted, e.g. by cancellation.
+   */
+  public void acquire() {
+    if (slots.tryAcquire()) {
+      wait.record(0, TimeUnit.NANOSECONDS);
+      return;
+    }
+    if (waiting.incrementAndGet() > config.maxQueued()) {
+      waiting.decrementAndGet();
+      throw reject();
+    }
+    long start = System.nanoTime();
+    try {
+      if (!slots.tryAcquire(config.maxWait().toMillis(), TimeUnit.MILLISECONDS)) {
+        throw reject();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Waiting for a bulkhead slot was interrupted");
+    } finally {
+      waiting.decrementAndGet();
+      wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  public void release() {
+    slots.release();
+  }
+
+  private OrchestrationUnavailableException reject() {
+    rejected.increment();
+    return new OrchestrationUnavailableException("The agent is at capacity, retry later");
+  }
+}
@@ -0,0 +1,43 @@
+package org.example.a2a.server.execution;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+
+/** Threading model and admission control of agent executions. */
+@ConfigMapping(prefix = "agent.execution")
+public interface ExecutionConfig {
+
+  /**
+   * Threads running agent executions and orchestration calls.
+   *
+   * <p>Also read at build time to replace the executor of the A2A request handler, so changing it
+   * requires a rebuild.
+   */
+  @WithDefault("platform")
+  Mode mode();
+
+  BulkheadConfig bulkhead();
+
+  enum Mode {
+    /** Pooled platform threads, one per execution in progress. */
+    PLATFORM,
+    /** One virtual thread per execution, blocked executions do not hold a platform thread. */
+    VIRTUAL
+  }
+
+  interface BulkheadConfig {
+
+    /** Maximum number of calls to the orchestration service in flight at the same time. */
+    @WithDefault("64")
+    int maxConcurrent();
+
+    /** Maximum number of calls waiting for a slot, further ones are rejected at once. */
+    @WithDefault("1024")
+    int maxQueued();
+
+    /** Maximum time a call waits for a slot before it is rejected. */
+    @WithDefault("30s")
+    Duration maxWait();
+  }
+}
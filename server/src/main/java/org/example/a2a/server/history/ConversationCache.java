@@ -0,0 +1,196 @@
+package org.example.a2a.server.history;
+
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TextPart;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.example.a2a.server.orchestration.OrchestrationAgent;
+
+/**
+ * Caches the orchestration messages converted from a task history, keyed by context id.
+ *
+ * <p>A2A histories only grow between turns, so each turn converts just the messages added since
+ * the previous one and reuses the cached prefix. The prefix is only reused if it still ends with
+ * the same message, otherwise the history is converted from scratch.
+ *
+ * <p>Completed tasks are resumed by the next turn, so their entries are kept. Entries of tasks that
+ * ended in any other final state (canceled, failed, rejected) are dropped.
+ */
+public class ConversationCache {
+  private final ConversationCacheConfig config;
+  private final Counter hits;
+  private final Counter misses;
+
+  // Access-ordered, so iteration starts at the least recently used entry. Guarded by this.
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long totalChars;
+
+  public ConversationCache(ConversationCacheConfig config, MeterRegistry registry) {
+    this.config = config;
+    this.hits = counter(registry, "hit");
+    this.misses = counter(registry, "miss");
+    Gauge.builder("agent.history.cache.entries", this, cache -> cache.size())
+        .description("Conversations held by the history cache")
+        .register(registry);
+    Gauge.builder("agent.history.cache.chars", this, cache -> cache.totalChars())
+        .description("Message characters held by the history cache")
+        .register(registry);
+  }
+
+  private static Counter counter(MeterRegistry registry, String result) {
+    return Counter.builder("agent.history.cache.requests")
+        .description("History conversions served from the cache or converted from scratch")
+        .tag("result", result)
+        .register(registry);
+  }
+
+  /**
+   * Returns the history of the task as orchestration messages.
+   *
+   * @param task The task whose history is converted.
+   * @return The converted history.
+   */
+  public List<com.sap.ai.sdk.orchestration.Message> toOrchestrationMessages(Task task) {
+    List<Message> history = task.getHistory();
+    TaskState state = task.getStatus().state();
+    if (!config.enabled() || (state.isFinal() && state != TaskState.COMPLETED)) {
+      invalidate(task.getContextId());
+      return OrchestrationAgent.toOrchestrationMessages(history);
+    }
+
+    String contextId = task.getContextId();
+    Entry entry = lookup(contextId, task.getId(), history);
+    boolean cached = entry != null;
+    if (!cached) {
+      entry = new Entry(task.getId());
+    }
+
+    List<com.sap.ai.sdk.orchestration.Message> result;
+    long addedChars;
+    synchronized (entry) {
+      if (entry.messages.size() > history.size()) {
+        // A concurrent turn of the same context got ahead, leave the entry to that one
+        misses.increment();
+        return OrchestrationAgent.toOrchestrationMessages(history);
+      }
+      // Only counted here, as a turn bypassing the entry above converts from scratch
+      (cached ? hits : misses).increment();
+      List<Message> delta = history.subList(entry.messages.size(), history.size());
+      entry.messages.addAll(OrchestrationAgent.toOrchestrationMessages(delta));
+      entry.lastMessageId =
+          history.isEmpty() ? null : history.get(history.size() - 1).getMessageId();
+      addedChars = chars(delta);
+      // Snapshot of references only, the cached list keeps growing with later turns
+      result = List.copyOf(entry.messages);
+    }
+    store(contextId, entry, addedChars);
+    return result;
+  }
+
+  /**
+   * Drops the cached history of a context.
+   *
+   * @param contextId The context id.
+   */
+  public synchronized void invalidate(String contextId) {
+    Entry removed = entries.remove(contextId);
+    if (removed != null) {
+      totalChars -= removed.chars;
+    }
+  }
+
+  private synchronized Entry lookup(String contextId, String taskId, List<Message> history) {
+    evictIdle(System.nanoTime());
+    Entry entry = entries.get(contextId);
+    if (entry == null) {
+      return null;
+    }
+    boolean samePrefix;
+    synchronized (entry) {
+      int cached = entry.messages.size();
+      samePrefix =
+          entry.taskId.equals(taskId)
+              && history.size() >= cached
+              && (cached == 0
+                  || Objects.equals(history.get(cached - 1).getMessageId(), entry.lastMessageId));
+    }
+    if (!samePrefix) {
+      invalidate(contextId);
+      return null;
+    }
+    return entry;
+  }
+
+  private synchronized void store(String contextId, Entry entry, long addedChars) {
+    entry.chars += addedChars;
+    entry.lastAccessNanos = System.nanoTime();
+    Entry previous = entries.put(contextId, entry);
+    if (previous == entry) {
+      totalChars += addedChars;
+    } else {
+      totalChars += entry.chars - (previous == null ? 0 : previous.chars);
+    }
+
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (eldest.hasNext()
+        && (entries.size() > config.maxEntries() || totalChars > config.maxChars())) {
+      totalChars -= eldest.next().chars;
+      eldest.remove();
+    }
+  }
+
+  private void evictIdle(long now) {
+    long idleNanos = config.idleTtl().toNanos();
+    Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+    while (eldest.hasNext()) {
+      Entry entry = eldest.next().getValue();
+      if (now - entry.lastAccessNanos < idleNanos) {
+        // Access order: all following entries were used more recently
+        break;
+      }
+      totalChars -= entry.chars;
+      eldest.remove();
+    }
+  }
+
+  private static long chars(List<Message> messages) {
+    long chars = 0;
+    for (Message message : messages) {
+      for (var part : message.getParts()) {
+        if (part instanceof TextPart textPart) {
+          chars += textPart.getText().length();
+        }
+      }
+    }
+    return chars;
+  }
+
+  private synchronized int size() {
+    return entries.size();
+  }
+
+  private synchronized long totalChars() {
+    return totalChars;
+  }
+
+  private static class Entry {
+    private final String taskId;
+    private final List<com.sap.ai.sdk.orchestration.Message> messages = new ArrayList<>();
+    private String lastMessageId;
+    private long chars;
+    private long lastAccessNanos = System.nanoTime();
+
+    private Entry(String taskId) {
+      this.taskId = taskId;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package org.example.a2a.server.history;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+
+/** Bounds of the per-context cache of converted conversation history. */
+@ConfigMapping(prefix = "agent.history.cache")
+public interface ConversationCacheConfig {
+
+  @WithDefault("true")
+  boolean enabled();
+
+  /** Maximum number of cached conversations, least recently used ones are evicted first. */
+  @WithDefault("10000")
+  int maxEntries();
+
+  /** Maximum number of message characters held across all cached conversations. */
+  @WithDefault("20000000")
+  long maxChars();
+
+  /** Conversations not accessed for this long are evicted. */
+  @WithDefault("30m")
+  Duration idleTtl();
+}
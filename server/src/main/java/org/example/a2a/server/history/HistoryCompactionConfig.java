@@ -0,0 +1,48 @@
+package org.example.a2a.server.history;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.util.Map;
+
+/** Token budgets for the conversation history sent with each prompt. */
+@ConfigMapping(prefix = "agent.history.compaction")
+public interface HistoryCompactionConfig {
+
+  @WithDefault("true")
+  boolean enabled();
+
+  /** History token budget of skills without an entry in {@link #budgets()}. */
+  @WithDefault("4000")
+  int defaultBudget();
+
+  /** History token budget per skill id. */
+  Map<String, Integer> budgets();
+
+  /** Part of the budget reserved for the summary of older turns. */
+  @WithDefault("500")
+  int summaryTokens();
+
+  /** Number of most recent messages that are always sent verbatim. */
+  @WithDefault("4")
+  int minRecentMessages();
+
+  /**
+   * Number of messages that fell out of the window since the last summary before a new one is
+   * generated in the background.
+   */
+  @WithDefault("4")
+  int summaryBatchSize();
+
+  /**
+   * System prompt of summary requests. A {@code %d} placeholder is replaced by the maximum number
+   * of words of the summary.
+   */
+  @WithDefault(
+      "Summarise the following conversation between a user and an assistant in at most %d words."
+          + " Keep all names, places, dates and facts the user may refer to later.")
+  String summaryInstructions();
+
+  /** Maximum number of conversations whose rolling summary is kept. */
+  @WithDefault("10000")
+  int maxSummaries();
+}
@@ -0,0 +1,259 @@
+package org.example.a2a.server.history;
+
+import com.sap.ai.sdk.orchestration.OrchestrationModuleConfig;
+import com.sap.ai.sdk.orchestration.OrchestrationPrompt;
+import io.a2a.spec.Message;
+import io.a2a.spec.Task;
+import io.a2a.spec.TextPart;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.example.a2a.server.orchestration.InFlightCalls;
+import org.example.a2a.server.orchestration.OrchestrationAgent;
+import org.example.a2a.server.scheduling.FairScheduler;
+
+/**
+ * Keeps the conversation history sent with a prompt within a per-skill token budget.
+ *
+ * <p>The most recent messages that fit into the budget are sent verbatim. Older messages are
+ * replaced by a single summary. The summary is cached per context and rolled forward: when more
+ * messages fall out of the window, only those are summarised together with the previous summary.
+ *
+ * <p>Summaries are generated in the background, so a turn never waits for one. A new summary is
+ * only requested once {@code summary-batch-size} messages have fallen out of the window since the
+ * last one. Until it is ready, the window of recent messages is sent with the previous summary,
+ * or alone if there is none yet: the messages in between are left out rather than exceeding the
+ * budget, also when summaries keep failing. Summary calls are tracked like other
+ * orchestration calls: they are bounded by the default deadline and wait for their turn in the
+ * scheduler, accounted to the tenant of the turn that requested them.
+ */
+@Slf4j
+public class HistoryCompactor {
+  private final OrchestrationAgent agent;
+  private final HistoryCompactionConfig config;
+  private final InFlightCalls inFlightCalls;
+  private final FairScheduler scheduler;
+  private final Executor executor;
+
+  // Access-ordered for LRU eviction. Guarded by this.
+  private final Map<String, Summary> summaries;
+  // Contexts whose summary is being generated. Guarded by this.
+  private final Set<String> pending = new HashSet<>();
+
+  /**
+   * @param agent The agent used to generate summaries.
+   * @param config The budgets and summary settings.
+   * @param inFlightCalls The registry of in-flight calls, bounding summary calls by a deadline.
+   * @param scheduler The scheduler deciding when summary calls may go upstream.
+   * @param executor The executor generating summaries in the background.
+   */
+  public HistoryCompactor(
+      OrchestrationAgent agent,
+      HistoryCompactionConfig config,
+      InFlightCalls inFlightCalls,
+      FairScheduler scheduler,
+      Executor executor) {
+    this.agent = agent;
+    this.config = config;
+    this.inFlightCalls = inFlightCalls;
+    this.scheduler = scheduler;
+    this.executor = executor;
+    this.summaries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Summary> eldest) {
+            return size() > config.maxSummaries();
+          }
+        };
+  }
+
+  /**
+   * Fits the converted history of a task into the token budget of a skill.
+   *
+   * @param skillId The skill the request is addressed to.
+   * @param tenant The tenant summary calls are accounted to.
+   * @param task The task owning the history.
+   * @param converted The history of the task converted to orchestration messages.
+   * @param moduleConfig The module config used to generate summaries.
+   * @return The history to send with the prompt and its estimated tokens.
+   */
+  public Compacted compact(
+      String skillId,
+      String tenant,
+      Task task,
+      List<com.sap.ai.sdk.orchestration.Message> converted,
+      OrchestrationModuleConfig moduleConfig) {
+    List<Message> history = task.getHistory();
+    int total = 0;
+    for (Message message : history) {
+      total += TokenEstimator.estimate(message);
+    }
+    if (!config.enabled()) {
+      return new Compacted(converted, total);
+    }
+    int budget = config.budgets().getOrDefault(skillId, config.defaultBudget());
+    if (total <= budget) {
+      return new Compacted(converted, total);
+    }
+    int windowStart = windowStart(history, budget);
+
+    String contextId = task.getContextId();
+    Summary summary;
+    synchronized (this) {
+      summary = summaries.get(contextId);
+    }
+    if (summary != null && !summary.isPrefixOf(history, windowStart)) {
+      // The history diverged from the summarised one, e.g. after a restart of the task
+      summary = null;
+    }
+    int summarised = summary == null ? 0 : summary.count();
+    if (windowStart - summarised >= config.summaryBatchSize()) {
+      summariseInBackground(contextId, tenant, history, windowStart, summary, moduleConfig);
+    }
+
+    // A summary lagging behind the window covers only part of the messages that fell out of it
+    int tokens = 0;
+    List<com.sap.ai.sdk.orchestration.Message> compacted =
+        new ArrayList<>(converted.size() - windowStart + 1);
+    if (summary != null) {
+      String summaryText = "Summary of the earlier conversation: " + summary.text();
+      tokens += TokenEstimator.estimate(summaryText);
+      compacted.add(com.sap.ai.sdk.orchestration.Message.system(summaryText));
+    }
+    for (Message message : history.subList(windowStart, history.size())) {
+      tokens += TokenEstimator.estimate(message);
+    }
+    compacted.addAll(converted.subList(windowStart, converted.size()));
+    return new Compacted(compacted, tokens);
+  }
+
+  /**
+   * History to send with a prompt.
+   *
+   * @param messages The messages, the recent ones preceded by a summary if it was compacted.
+   * @param tokens The estimated tokens of the messages.
+   */
+  public record Compacted(List<com.sap.ai.sdk.orchestration.Message> messages, int tokens) {}
+
+  /** Index of the oldest message that is still sent verbatim, for a history over the budget. */
+  private int windowStart(List<Message> history, int budget) {
+    // Walk back from the newest message until the budget left beside the summary is used up
+    int remaining = budget - config.summaryTokens();
+    int start = history.size();
+    while (start > 0) {
+      int tokens = TokenEstimator.estimate(history.get(start - 1));
+      boolean mustKeep = history.size() - start < config.minRecentMessages();
+      if (!mustKeep && tokens > remaining) {
+        break;
+      }
+      remaining -= tokens;
+      start--;
+    }
+    return start;
+  }
+
+  private void summariseInBackground(
+      String contextId,
+      String tenant,
+      List<Message> history,
+      int count,
+      Summary previous,
+      OrchestrationModuleConfig moduleConfig) {
+    synchronized (this) {
+      if (!pending.add(contextId)) {
+        return;
+      }
+    }
+    // The history of the task may change while the summary is generated
+    List<Message> summarised = List.copyOf(history.subList(0, count));
+    try {
+      executor.execute(
+          () -> {
+            try {
+              Summary summary = summarise(contextId, tenant, summarised, previous, moduleConfig);
+              synchronized (this) {
+                summaries.put(contextId, summary);
+              }
+            } catch (RuntimeException e) {
+              // The next turn requests the summary again, until then only the window is sent
+              log.warn("Summarising the history of context {} failed", contextId, e);
+            } finally {
+              synchronized (this) {
+                pending.remove(contextId);
+              }
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      synchronized (this) {
+        pending.remove(contextId);
+      }
+    }
+  }
+
+  private Summary summarise(
+      String contextId,
+      String tenant,
+      List<Message> history,
+      Summary previous,
+      OrchestrationModuleConfig moduleConfig) {
+    StringBuilder input = new StringBuilder();
+    int from = 0;
+    if (previous != null) {
+      // Roll the existing summary forward instead of summarising everything again
+      input.append("Earlier summary: ").append(previous.text()).append(System.lineSeparator());
+      from = previous.count();
+    }
+    for (Message message : history.subList(from, history.size())) {
+      input.append(message.getRole()).append(": ");
+      for (var part : message.getParts()) {
+        if (part instanceof TextPart textPart) {
+          input.append(textPart.getText()).append(' ');
+        }
+      }
+      input.append(System.lineSeparator());
+    }
+
+    // Roughly three quarters of a word per token
+    String instructions = config.summaryInstructions().formatted(config.summaryTokens() * 3 / 4);
+    OrchestrationPrompt prompt =
+        new OrchestrationPrompt(
+            com.sap.ai.sdk.orchestration.Message.system(instructions),
+            com.sap.ai.sdk.orchestration.Message.user(input.toString()));
+    int promptTokens =
+        TokenEstimator.estimate(instructions) + TokenEstimator.estimate(input.toString());
+    String text;
+    // Registered under its own id, so that it does not replace the call of a turn of the task
+    try (InFlightCalls.Call call = inFlightCalls.register("summary:" + contextId)) {
+      text =
+          call.await(
+              () -> {
+                try (FairScheduler.Permit permit = scheduler.acquire(tenant, promptTokens)) {
+                  return agent.chat(prompt, moduleConfig).content();
+                }
+              });
+    }
+    return new Summary(history.size(), history.get(history.size() - 1).getMessageId(), text);
+  }
+
+  /**
+   * Rolling summary of the first {@code count} messages of a conversation.
+   *
+   * @param count Number of summarised messages.
+   * @param lastMessageId Id of the last summarised message, used to detect diverged histories.
+   * @param text The summary.
+   */
+  private record Summary(int count, String lastMessageId, String text) {
+
+    boolean isPrefixOf(List<Message> history, int upTo) {
+      return count <= upTo
+          && Objects.equals(history.get(count - 1).getMessageId(), lastMessageId);
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package org.example.a2a.server.history;
+
+import io.a2a.spec.Message;
+import io.a2a.spec.TextPart;
+
+/**
+ * Estimates token counts locally, without calling a tokenizer.
+ *
+ * <p>GPT tokenizers average about four characters per token for English text. The estimate is only
+ * used to size prompts, so being off by a few percent is fine.
+ */
+public final class TokenEstimator {
+  private static final int CHARS_PER_TOKEN = 4;
+  // Role and separator tokens added per chat message
+  private static final int MESSAGE_OVERHEAD = 4;
+
+  private TokenEstimator() {}
+
+  public static int estimate(String text) {
+    return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+  }
+
+  public static int estimate(Message message) {
+    int tokens = MESSAGE_OVERHEAD;
+    for (var part : message.getParts()) {
+      if (part instanceof TextPart textPart) {
+        tokens += estimate(textPart.getText());
+      }
+    }
+    return tokens;
+  }
+}
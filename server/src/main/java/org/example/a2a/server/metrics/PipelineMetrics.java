@@ -0,0 +1,201 @@
+package org.example.a2a.server.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.example.a2a.server.orchestration.Completion;
+
+/**
+ * Latency of each stage of an agent execution, tagged by executor, skill and model.
+ *
+ * <p>Stages are timed separately, so that a slow percentile can be attributed to prompt conversion,
+ * the orchestration call, the first streamed token or enqueueing events. All timers publish
+ * percentile histograms for aggregation across instances. Timers are looked up once per name and
+ * tag set, and reused by later executions.
+ */
+public class PipelineMetrics {
+  private static final String OTHER_SKILL = "other";
+
+  private final MeterRegistry registry;
+  private final Set<String> skills;
+  private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+  private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+  /**
+   * @param registry The registry of the metrics.
+   * @param skills The skill ids used as tag values, other ids are tagged {@code other}.
+   */
+  public PipelineMetrics(MeterRegistry registry, Set<String> skills) {
+    this.registry = registry;
+    this.skills = skills;
+  }
+
+  /**
+   * Starts timing an execution, to be closed when the execution has finished.
+   *
+   * @param executor The executor name.
+   * @param skillId The skill the request is addressed to.
+   * @param model The model name.
+   * @return The handle timing the stages of the execution.
+   */
+  public Execution start(String executor, String skillId, String model) {
+    return new Execution(executor, tags(executor, skillId).and("model", model));
+  }
+
+  private Tags tags(String executor, String skillId) {
+    return Tags.of("executor", executor, "skill", skills.contains(skillId) ? skillId : OTHER_SKILL);
+  }
+
+  private Timer timer(String name, String description, Tags tags) {
+    return timers.computeIfAbsent(
+        new TimerKey(name, tags),
+        key ->
+            Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry));
+  }
+
+  private AtomicInteger inFlight(String executor) {
+    return inFlight.computeIfAbsent(
+        executor,
+        name -> {
+          AtomicInteger count = new AtomicInteger();
+          Gauge.builder("agent.pipeline.in.flight", count, AtomicInteger::get)
+              .description("Agent executions in progress")
+              .tag("executor", name)
+              .register(registry);
+          return count;
+        });
+  }
+
+  private record TimerKey(String name, Tags tags) {}
+
+  /** Stage timings of one execution. */
+  public class Execution implements AutoCloseable {
+    private final Tags tags;
+    private final AtomicInteger executions;
+    private final long startNanos = System.nanoTime();
+
+    private Execution(String executor, Tags tags) {
+      this.tags = tags;
+      this.executions = inFlight(executor);
+      executions.incrementAndGet();
+    }
+
+    /** Times the conversion of the request into a prompt. */
+    public <T> T convert(Supplier<T> step) {
+      return time("agent.pipeline.convert", "Time converting the request into a prompt", step);
+    }
+
+    /** Times converting the conversation history and fitting it into the token budget. */
+    public <T> T history(Supplier<T> step) {
+      return time("agent.pipeline.history", "Time preparing the conversation history", step);
+    }
+
+    /** Times the orchestration call, for streamed completions until the last delta. */
+    public <T> T orchestration(Supplier<T> step) {
+      return time("agent.pipeline.orchestration", "Time spent in the orchestration call", step);
+    }
+
+    /** Times emitting events to the event queue. */
+    public void enqueue(Runnable step) {
+      time(
+          "agent.pipeline.enqueue",
+          "Time enqueueing response events",
+          () -> {
+            step.run();
+            return null;
+          });
+    }
+
+    /**
+     * Records the time from the request until the first delta of a completion stream.
+     *
+     * @param deltas The completion stream.
+     * @param requestNanos The {@link System#nanoTime()} taken before the stream was requested, as
+     *     opening it may already wait for the response headers.
+     * @return The stream, recording when its first delta is read.
+     */
+    public Stream<String> firstToken(Stream<String> deltas, long requestNanos) {
+      AtomicBoolean first = new AtomicBoolean(true);
+      Timer timer =
+          timer("agent.pipeline.first.token", "Time until the first streamed token", tags);
+      return deltas.peek(
+          delta -> {
+            if (first.compareAndSet(true, false)) {
+              timer.record(System.nanoTime() - requestNanos, TimeUnit.NANOSECONDS);
+            }
+          });
+    }
+
+    /** Records the token usage of a blocking completion. */
+    public void tokens(Completion completion) {
+      tokens("prompt", completion.promptTokens());
+      tokens("completion", completion.completionTokens());
+    }
+
+    /**
+     * Records how many completion deltas were merged into fewer streamed events.
+     *
+     * @param deltas The deltas read from upstream.
+     * @param events The artifact events emitted for them.
+     */
+    public void streamed(int deltas, int events) {
+      counter("agent.streaming.events", "Artifact events emitted for streamed completions")
+          .increment(events);
+      counter("agent.streaming.events.saved", "Completion deltas merged into another event")
+          .increment(Math.max(0, deltas - events));
+    }
+
+    /** Records the number of history messages sent with the prompt. */
+    public void historyLength(int messages) {
+      DistributionSummary.builder("agent.pipeline.history.messages")
+          .description("History messages sent with each prompt")
+          .tags(tags)
+          .register(registry)
+          .record(messages);
+    }
+
+    private void tokens(String type, int count) {
+      DistributionSummary.builder("agent.orchestration.tokens")
+          .description("Tokens per orchestration call")
+          .tags(tags)
+          .tag("type", type)
+          .register(registry)
+          .record(count);
+    }
+
+    private Counter counter(String name, String description) {
+      return Counter.builder(name).description(description).tags(tags).register(registry);
+    }
+
+    private <T> T time(String name, String description, Supplier<T> step) {
+      long start = System.nanoTime();
+      try {
+        return step.get();
+      } finally {
+        timer(name, description, tags).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    @Override
+    public void close() {
+      executions.decrementAndGet();
+      timer("agent.pipeline.execution", "Total time of an agent execution", tags)
+          .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+}
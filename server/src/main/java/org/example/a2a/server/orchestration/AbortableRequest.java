@@ -0,0 +1,100 @@
+package org.example.a2a.server.orchestration;
+
+import java.util.function.Supplier;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.core5.concurrent.Cancellable;
+
+/**
+ * Lets another thread abort the HTTP requests an orchestration call makes.
+ *
+ * <p>Socket reads of the classic Apache client ignore interrupts, so interrupting the thread of a
+ * blocking call leaves the generation running upstream and its pooled connection leased until the
+ * response is complete. The {@link #INTERCEPTOR} installed into the pooled clients attaches every
+ * request to the abortable request of the thread executing it. Aborting cancels the request, which
+ * closes its connection and fails the blocked read at once.
+ */
+public class AbortableRequest {
+  private static final ThreadLocal<AbortableRequest> CURRENT = new ThreadLocal<>();
+
+  /** Exec chain interceptor attaching requests to the abortable request of their thread. */
+  static final ExecChainHandler INTERCEPTOR =
+      (request, scope, chain) -> {
+        AbortableRequest current = CURRENT.get();
+        // The original request is the one the client made cancellable, the chain works on a copy
+        if (current == null || !(scope.originalRequest instanceof Cancellable cancellable)) {
+          return chain.proceed(request, scope);
+        }
+        current.attach(cancellable);
+        try {
+          return chain.proceed(request, scope);
+        } finally {
+          current.detach(cancellable);
+        }
+      };
+
+  // Guarded by this
+  private Cancellable request;
+  private boolean aborted;
+
+  /**
+   * Runs a call on the current thread, its HTTP requests can then be aborted with {@link #abort()}.
+   *
+   * @param call The call.
+   * @param <T> The result type.
+   * @return The result of the call.
+   */
+  public <T> T call(Supplier<T> call) {
+    AbortableRequest previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      return call.get();
+    } finally {
+      CURRENT.set(previous);
+    }
+  }
+
+  /**
+   * Tells whether the call running on the current thread was aborted. A request failing after its
+   * call was aborted failed because of the abort, not because of the service.
+   *
+   * @return {@code true} if the current thread runs an aborted call.
+   */
+  public static boolean currentAborted() {
+    AbortableRequest current = CURRENT.get();
+    return current != null && current.isAborted();
+  }
+
+  /** Tells whether {@link #abort()} was called. */
+  public synchronized boolean isAborted() {
+    return aborted;
+  }
+
+  /** Cancels the request in progress, and every further request of the call at once. */
+  public void abort() {
+    Cancellable current;
+    synchronized (this) {
+      aborted = true;
+      current = request;
+    }
+    if (current != null) {
+      current.cancel();
+    }
+  }
+
+  private void attach(Cancellable cancellable) {
+    boolean abortNow;
+    synchronized (this) {
+      request = cancellable;
+      abortNow = aborted;
+    }
+    if (abortNow) {
+      cancellable.cancel();
+    }
+  }
+
+  private synchronized void detach(Cancellable cancellable) {
+    if (request == cancellable) {
+      request = null;
+    }
+  }
+}
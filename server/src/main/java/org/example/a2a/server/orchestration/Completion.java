@@ -0,0 +1,10 @@
+package org.example.a2a.server.orchestration;
+
+/**
+ * Result of a blocking orchestration call.
+ *
+ * @param content The generated text.
+ * @param promptTokens Tokens the model read, including the conversation history.
+ * @param completionTokens Tokens the model generated.
+ */
+public record Completion(String content, int promptTokens, int completionTokens) {}
@@ -0,0 +1,316 @@
+package org.example.a2a.server.orchestration;
+
+import io.a2a.server.agentexecution.RequestContext;
+import io.a2a.spec.Message;
+import io.a2a.spec.TaskNotCancelableError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.example.a2a.server.resilience.OrchestrationUnavailableException;
+import org.example.a2a.server.resilience.ResilienceConfig;
+
+/**
+ * Tracks the orchestration call in flight for each task, so that cancelling the task aborts it.
+ *
+ * <p>Streamed completions are aborted by closing the stream, which closes the underlying HTTP
+ * exchange. Blocking completions run on a separate thread: cancelling releases the waiting executor
+ * thread immediately, aborts the HTTP request of the call and interrupts the call thread.
+ *
+ * <p>For each cancelled call, the generation time it would still have taken is estimated from the
+ * average duration of completed calls and recorded as saved time.
+ *
+ * <p>Calls are aborted the same way when the deadline of their request passes. The deadline is the
+ * configured default timeout, or the {@code timeoutMs} message metadata of the request if it is
+ * shorter, and the call then fails with an {@link OrchestrationUnavailableException}.
+ */
+public class InFlightCalls {
+  /** Message metadata key a client may use to shorten the deadline of a request. */
+  public static final String TIMEOUT_METADATA_KEY = "timeoutMs";
+
+  // Weight of the latest completed call in the moving average of call durations
+  private static final double EWMA_ALPHA = 0.1;
+
+  private final Map<String, Call> calls = new ConcurrentHashMap<>();
+  private final ExecutorService callExecutor;
+  private final ResilienceConfig.Deadline deadline;
+  private final ScheduledThreadPoolExecutor deadlines;
+  private final Timer savedTime;
+  private final Counter cancellations;
+  private final Counter deadlinesExceeded;
+  private volatile double averageNanos;
+
+  /**
+   * @param callExecutor The executor running blocking calls.
+   * @param deadline The default and maximum deadline of requests.
+   * @param registry The registry of the cancellation metrics.
+   */
+  public InFlightCalls(
+      ExecutorService callExecutor, ResilienceConfig.Deadline deadline, MeterRegistry registry) {
+    this.callExecutor = callExecutor;
+    this.deadline = deadline;
+    this.deadlines =
+        new ScheduledThreadPoolExecutor(
+            1,
+            runnable -> {
+              Thread thread = new Thread(runnable, "orchestration-deadlines");
+              thread.setDaemon(true);
+              return thread;
+            });
+    // Most calls finish long before their deadline, their timers must not pile up
+    deadlines.setRemoveOnCancelPolicy(true);
+    this.savedTime =
+        Timer.builder("agent.cancellation.saved")
+            .description("Estimated generation time saved by cancelling in-flight calls")
+            .register(registry);
+    this.cancellations =
+        Counter.builder("agent.cancellation.calls")
+            .description("In-flight orchestration calls aborted by task cancellation")
+            .register(registry);
+    this.deadlinesExceeded =
+        Counter.builder("agent.resilience.deadline.exceeded")
+            .description("In-flight orchestration calls aborted because their deadline passed")
+            .register(registry);
+    Gauge.builder("agent.orchestration.in.flight", calls, Map::size)
+        .description("Orchestration calls currently in flight")
+        .register(registry);
+  }
+
+  /**
+   * Registers the call of a task, replacing a previous registration of the same task.
+   *
+   * @param context The request context of the task, giving the task id and the deadline.
+   * @return The handle of the call, to be closed when the call has finished.
+   */
+  public Call register(RequestContext context) {
+    return register(context.getTaskId(), timeoutMillis(context));
+  }
+
+  /**
+   * Registers a call made outside of a request, e.g. in the background, with the default deadline.
+   *
+   * @param id The id of the call, distinct from task ids.
+   * @return The handle of the call, to be closed when the call has finished.
+   */
+  public Call register(String id) {
+    return register(id, deadline.defaultTimeout().toMillis());
+  }
+
+  private Call register(String id, long timeoutMillis) {
+    Call call = new Call(id);
+    calls.put(call.taskId, call);
+    call.expiry = deadlines.schedule(call::expire, timeoutMillis, TimeUnit.MILLISECONDS);
+    return call;
+  }
+
+  private long timeoutMillis(RequestContext context) {
+    long requested =
+        Optional.ofNullable(context.getMessage())
+            .map(Message::getMetadata)
+            .map(metadata -> metadata.get(TIMEOUT_METADATA_KEY))
+            .map(this::parseMillis)
+            .orElse(deadline.defaultTimeout().toMillis());
+    return Math.max(0, Math.min(requested, deadline.maxTimeout().toMillis()));
+  }
+
+  private Long parseMillis(Object value) {
+    try {
+      return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+    } catch (NumberFormatException e) {
+      // Malformed timeouts are ignored like unknown metadata
+      return deadline.defaultTimeout().toMillis();
+    }
+  }
+
+  /**
+   * Aborts the call in flight for a task.
+   *
+   * @param taskId The task id.
+   * @return {@code true} if a call was in flight.
+   * @throws TaskNotCancelableError If the call has already finished and its final status is being
+   *     emitted.
+   */
+  public boolean cancel(String taskId) {
+    Call call = calls.get(taskId);
+    if (call == null) {
+      return false;
+    }
+    if (!call.cancel()) {
+      throw new TaskNotCancelableError();
+    }
+    calls.remove(taskId, call);
+    cancellations.increment();
+    long remaining = (long) averageNanos - (System.nanoTime() - call.startNanos);
+    savedTime.record(Duration.ofNanos(Math.max(0, remaining)));
+    return true;
+  }
+
+  /** Handle of one orchestration call of a task. */
+  public class Call implements AutoCloseable {
+    private final String taskId;
+    private final long startNanos = System.nanoTime();
+    private volatile boolean cancelled;
+    private volatile boolean expired;
+    // Guarded by this
+    private boolean finished;
+    private volatile ScheduledFuture<?> expiry;
+    private Runnable abort = () -> {};
+
+    private Call(String taskId) {
+      this.taskId = taskId;
+    }
+
+    /**
+     * Runs a blocking call on the call executor and waits for its result.
+     *
+     * @param call The blocking call.
+     * @param <T> The result type.
+     * @return The result of the call.
+     * @throws CancellationException If the task was cancelled.
+     * @throws OrchestrationUnavailableException If the deadline of the request passed.
+     */
+    public <T> T await(Supplier<T> call) {
+      AbortableRequest request = new AbortableRequest();
+      Future<T> future = callExecutor.submit(() -> request.call(call));
+      onCancel(
+          () -> {
+            // Interrupting alone leaves a blocked socket read, and the generation, running.
+            // Interrupt first, so the failing read is not mistaken for a failure of the model.
+            future.cancel(true);
+            request.abort();
+          });
+      try {
+        return future.get();
+      } catch (CancellationException e) {
+        checkDeadline();
+        throw e;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        future.cancel(true);
+        request.abort();
+        throw new CancellationException("Waiting for the orchestration call was interrupted");
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        }
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+
+    /**
+     * Sets the action aborting the call, e.g. closing a completion stream.
+     *
+     * @param abort The abort action. Runs immediately if the call was already cancelled or its
+     *     deadline has passed.
+     */
+    public void onCancel(Runnable abort) {
+      synchronized (this) {
+        if (!cancelled && !expired) {
+          this.abort = abort;
+          return;
+        }
+      }
+      abort.run();
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+    /**
+     * Marks the call as finished before its final status is emitted, so that it can no longer be
+     * cancelled. Completion and cancellation thus never both emit a final status.
+     *
+     * @return {@code false} if the call was cancelled, its cancelled status is then emitted by the
+     *     cancellation.
+     */
+    public synchronized boolean finish() {
+      if (cancelled) {
+        return false;
+      }
+      finished = true;
+      return true;
+    }
+
+    /** Whether the call was aborted because the deadline of the request passed. */
+    public boolean isExpired() {
+      return expired;
+    }
+
+    /**
+     * Fails if the call was aborted because the deadline of the request passed.
+     *
+     * @throws OrchestrationUnavailableException If the deadline has passed.
+     */
+    public void checkDeadline() {
+      if (expired) {
+        throw new OrchestrationUnavailableException(
+            "The orchestration call did not finish within the deadline of the request");
+      }
+    }
+
+    private boolean cancel() {
+      return abort(
+          () -> {
+            if (finished) {
+              return false;
+            }
+            cancelled = true;
+            return true;
+          });
+    }
+
+    private void expire() {
+      boolean aborted =
+          abort(
+              () -> {
+                if (cancelled || finished) {
+                  return false;
+                }
+                expired = true;
+                return true;
+              });
+      if (aborted) {
+        deadlinesExceeded.increment();
+      }
+    }
+
+    private boolean abort(BooleanSupplier mark) {
+      Runnable action;
+      synchronized (this) {
+        if (!mark.getAsBoolean()) {
+          return false;
+        }
+        action = abort;
+      }
+      action.run();
+      return true;
+    }
+
+    @Override
+    public void close() {
+      ScheduledFuture<?> timer = expiry;
+      if (timer != null) {
+        timer.cancel(false);
+      }
+      if (calls.remove(taskId, this) && !cancelled && !expired) {
+        long duration = System.nanoTime() - startNanos;
+        double average = averageNanos;
+        averageNanos = average == 0 ? duration : average + EWMA_ALPHA * (duration - average);
+      }
+    }
+  }
+}
@@ -1,8 +1,6 @@
 package org.example.a2a.server.orchestration;
 
 import com.sap.ai.sdk.orchestration.AssistantMessage;
-import com.sap.ai.sdk.orchestration.OrchestrationChatResponse;
-import com.sap.ai.sdk.orchestration.OrchestrationClient;
 import com.sap.ai.sdk.orchestration.OrchestrationModuleConfig;
 import com.sap.ai.sdk.orchestration.OrchestrationPrompt;
 import com.sap.ai.sdk.orchestration.UserMessage;
@@ -10,35 +8,71 @@ import io.a2a.server.agentexecution.RequestContext;
 import io.a2a.spec.Message;
 import io.a2a.spec.TextPart;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 public class OrchestrationAgent {
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
 
-  public static OrchestrationChatResponse chat(
-      OrchestrationPrompt prompt, OrchestrationModuleConfig config) {
-    return new OrchestrationClient().chatCompletion(prompt, config);
+  private final OrchestrationBackend backend;
+
+  public OrchestrationAgent(OrchestrationBackend backend) {
+    this.backend = backend;
+  }
+
+  public Completion chat(OrchestrationPrompt prompt, OrchestrationModuleConfig config) {
+    return backend.chat(prompt, config);
+  }
+
+  public Stream<String> stream(OrchestrationPrompt prompt, OrchestrationModuleConfig config) {
+    return backend.stream(prompt, config);
   }
 
   public static UserMessage toOrchestrationUserMessage(Message message) {
-    List<String> textParts =
-        message.getParts().stream()
-            .filter(TextPart.class::isInstance)
-            .map(TextPart.class::cast)
-            .map(TextPart::getText)
-            .toList();
+    List<String> textParts = textParts(message);
 
     UserMessage userMessage = com.sap.ai.sdk.orchestration.Message.user(textParts.get(0));
     textParts.stream().skip(1).forEach(userMessage::withText);
     return userMessage;
   }
 
+  /**
+   * Returns the text a user message is converted from.
+   *
+   * @param message The A2A user message.
+   * @return The text parts joined by spaces.
+   */
+  public static String userText(Message message) {
+    return String.join(" ", textParts(message));
+  }
+
+  /**
+   * Returns the text a user message is converted from, normalised for use as a lookup key.
+   *
+   * <p>Text parts are joined, case is folded and runs of whitespace are collapsed, so that "Weather
+   * in  Potsdam" and "weather in potsdam" map to the same key.
+   *
+   * @param message The A2A user message.
+   * @return The normalised text of all text parts.
+   */
+  public static String normalizedUserText(Message message) {
+    return WHITESPACE
+        .matcher(userText(message).strip().toLowerCase(Locale.ROOT))
+        .replaceAll(" ");
+  }
+
+  private static List<String> textParts(Message message) {
+    return message.getParts().stream()
+        .filter(TextPart.class::isInstance)
+        .map(TextPart.class::cast)
+        .map(TextPart::getText)
+        .toList();
+  }
+
   private static AssistantMessage toOrchestrationAssistantMessage(Message message) {
-    List<String> textParts =
-        message.getParts().stream()
-            .filter(TextPart.class::isInstance)
-            .map(TextPart.class::cast)
-            .map(TextPart::getText)
-            .toList();
+    List<String> textParts = textParts(message);
 
     return com.sap.ai.sdk.orchestration.Message.assistant(
         String.join(System.lineSeparator(), textParts));
@@ -56,13 +90,17 @@ public class OrchestrationAgent {
         .toList();
   }
 
-  public static Message toA2AMessage(RequestContext context, OrchestrationChatResponse response) {
+  public static Message toA2AMessage(RequestContext context, Completion completion) {
+    return toA2AMessage(context, completion.content());
+  }
+
+  public static Message toA2AMessage(RequestContext context, String content) {
     return new Message.Builder()
         .role(Message.Role.AGENT)
         .messageId(UUID.randomUUID().toString())
         .contextId(context.getContextId())
         .taskId(context.getTaskId())
-        .parts(List.of(new TextPart(response.getContent())))
+        .parts(List.of(new TextPart(content)))
         .build();
   }
 }
@@ -0,0 +1,32 @@
+package org.example.a2a.server.orchestration;
+
+import com.sap.ai.sdk.orchestration.OrchestrationModuleConfig;
+import com.sap.ai.sdk.orchestration.OrchestrationPrompt;
+import java.util.stream.Stream;
+
+/**
+ * Service generating completions for the {@link OrchestrationAgent}.
+ *
+ * <p>Separate from the agent so that the message conversion and everything built on top of it can
+ * run without the AI Core orchestration service, e.g. in benchmarks.
+ */
+public interface OrchestrationBackend {
+
+  /**
+   * Generates a completion and waits for it.
+   *
+   * @param prompt The prompt including the conversation history.
+   * @param config The module configuration, e.g. the model.
+   * @return The completion.
+   */
+  Completion chat(OrchestrationPrompt prompt, OrchestrationModuleConfig config);
+
+  /**
+   * Generates a completion as it is produced.
+   *
+   * @param prompt The prompt including the conversation history.
+   * @param config The module configuration, e.g. the model.
+   * @return The text deltas of the completion. Closing the stream aborts the generation.
+   */
+  Stream<String> stream(OrchestrationPrompt prompt, OrchestrationModuleConfig config);
+}
@@ -0,0 +1,46 @@
+package org.example.a2a.server.orchestration;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+
+/** Connection pool and warm-up settings of the shared orchestration client. */
+@ConfigMapping(prefix = "agent.orchestration.client")
+public interface OrchestrationClientConfig {
+
+  /** Upper bound of open connections across all routes. */
+  @WithDefault("50")
+  int maxConnections();
+
+  /** Upper bound of open connections to a single AI Core host. */
+  @WithDefault("50")
+  int maxConnectionsPerRoute();
+
+  /** How long an idle connection is kept open for reuse. */
+  @WithDefault("60s")
+  Duration keepAlive();
+
+  @WithDefault("5s")
+  Duration connectTimeout();
+
+  /** Socket read timeout, must cover the full generation time of a non-streamed completion. */
+  @WithDefault("120s")
+  Duration socketTimeout();
+
+  Warmup warmup();
+
+  interface Warmup {
+
+    /** Whether the destination is resolved and connections are opened during startup. */
+    @WithDefault("true")
+    boolean enabled();
+
+    /** Number of connections opened in parallel during warm-up. */
+    @WithDefault("4")
+    int connections();
+
+    /** Wait before retrying a failed warm-up, the server is not ready until one succeeds. */
+    @WithDefault("10s")
+    Duration retryInterval();
+  }
+}
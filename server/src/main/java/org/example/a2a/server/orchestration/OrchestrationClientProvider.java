@@ -0,0 +1,171 @@
+package org.example.a2a.server.orchestration;
+
+import com.sap.ai.sdk.core.AiCoreService;
+import com.sap.ai.sdk.orchestration.OrchestrationClient;
+import com.sap.cloud.sdk.cloudplatform.connectivity.ApacheHttpClient5Accessor;
+import com.sap.cloud.sdk.cloudplatform.connectivity.HttpDestination;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpHead;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.example.a2a.server.orchestration.simulator.SimulatorConfig;
+
+/**
+ * Application-scoped owner of the one {@link OrchestrationClient} shared by all agent executors.
+ *
+ * <p>The AI Core destination is resolved once and all requests go through a bounded, keep-alive
+ * connection pool. When warm-up is enabled, the destination is resolved and connections are opened
+ * during startup, so the first A2A requests do not pay for deployment lookup and TLS handshakes.
+ * If the destination cannot be resolved or no connection can be opened, the client is reported as
+ * not ready and warm-up is retried in the background until it succeeds.
+ */
+@Slf4j
+@ApplicationScoped
+public class OrchestrationClientProvider {
+  private static final String SCENARIO = "orchestration";
+
+  @Inject OrchestrationClientConfig config;
+  @Inject MeterRegistry registry;
+  @Inject SimulatorConfig simulatorConfig;
+
+  private PooledHttpClientFactory httpClientFactory;
+  private HttpDestination destination;
+  private volatile OrchestrationClient client;
+  private volatile boolean ready;
+  private volatile String warmupFailure;
+  private ScheduledExecutorService warmupRetries;
+
+  void onStart(@Observes StartupEvent event) {
+    // The client is never used while completions are simulated
+    if (!config.warmup().enabled() || simulatorConfig.enabled()) {
+      ready = true;
+      return;
+    }
+    warmupRetries =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "orchestration-warmup");
+              thread.setDaemon(true);
+              return thread;
+            });
+    warmUp();
+  }
+
+  void onStop(@Observes ShutdownEvent event) {
+    if (warmupRetries != null) {
+      warmupRetries.shutdownNow();
+    }
+    if (httpClientFactory != null) {
+      httpClientFactory.close();
+    }
+  }
+
+  /**
+   * Returns the shared orchestration client, creating it on first use.
+   *
+   * @return The shared orchestration client.
+   */
+  public OrchestrationClient get() {
+    OrchestrationClient current = client;
+    if (current == null) {
+      synchronized (this) {
+        if (client == null) {
+          initialize();
+        }
+        current = client;
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Whether the startup warm-up has succeeded.
+   *
+   * @return {@code true} once the client is ready to serve requests.
+   */
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * Returns why the last warm-up attempt failed, while the client is not ready because of it.
+   *
+   * @return The failure, empty if warm-up succeeded or has not been attempted yet.
+   */
+  public Optional<String> warmupFailure() {
+    return Optional.ofNullable(warmupFailure);
+  }
+
+  private void warmUp() {
+    try {
+      get();
+      warmUpConnections();
+      warmupFailure = null;
+      ready = true;
+    } catch (RuntimeException e) {
+      // Requests would fail the same way, so the server stays out of rotation until it succeeds
+      warmupFailure = e.toString();
+      if (warmupRetries.isShutdown()) {
+        return;
+      }
+      Duration retryInterval = config.warmup().retryInterval();
+      log.warn("Warm-up of the orchestration client failed, retrying in {}", retryInterval, e);
+      warmupRetries.schedule(this::warmUp, retryInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void initialize() {
+    // Kept from a failed attempt, so that retries do not register the pool twice
+    if (httpClientFactory == null) {
+      httpClientFactory = new PooledHttpClientFactory(config);
+      httpClientFactory.bindTo(registry);
+      ApacheHttpClient5Accessor.setHttpClientFactory(httpClientFactory);
+    }
+
+    destination = new AiCoreService().getInferenceDestination().forScenario(SCENARIO);
+    client = new OrchestrationClient(destination);
+  }
+
+  private void warmUpConnections() {
+    var httpClient = ApacheHttpClient5Accessor.getHttpClient(destination);
+    AtomicInteger opened = new AtomicInteger();
+    CompletableFuture<?>[] handshakes =
+        IntStream.range(0, config.warmup().connections())
+            .mapToObj(
+                i ->
+                    CompletableFuture.runAsync(
+                        () -> {
+                          try {
+                            // Any response will do, the connection returns to the pool afterwards
+                            httpClient.execute(
+                                new HttpHead(destination.getUri()),
+                                response -> {
+                                  EntityUtils.consume(response.getEntity());
+                                  return response.getCode();
+                                });
+                            opened.incrementAndGet();
+                          } catch (Exception e) {
+                            log.debug("Warm-up connection failed", e);
+                          }
+                        }))
+            .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(handshakes).join();
+    if (opened.get() == 0 && handshakes.length > 0) {
+      throw new IllegalStateException("No connection to " + destination.getUri() + " opened");
+    }
+    log.info("Opened {} orchestration connections during warm-up", opened.get());
+  }
+}
@@ -0,0 +1,27 @@
+package org.example.a2a.server.orchestration;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.health.Readiness;
+
+/**
+ * Reports the server as not ready until the orchestration client warm-up has succeeded, with the
+ * reason of the last failed attempt.
+ */
+@Readiness
+@ApplicationScoped
+public class OrchestrationReadinessCheck implements HealthCheck {
+
+  @Inject OrchestrationClientProvider clientProvider;
+
+  @Override
+  public HealthCheckResponse call() {
+    HealthCheckResponseBuilder response =
+        HealthCheckResponse.named("orchestration-client").status(clientProvider.isReady());
+    clientProvider.warmupFailure().ifPresent(failure -> response.withData("failure", failure));
+    return response.build();
+  }
+}
@@ -0,0 +1,81 @@
+package org.example.a2a.server.orchestration;
+
+import com.sap.cloud.sdk.cloudplatform.connectivity.ApacheHttpClient5Factory;
+import com.sap.cloud.sdk.cloudplatform.connectivity.HttpDestinationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.ToIntFunction;
+import javax.annotation.Nullable;
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * Creates Apache HTTP clients for the Cloud SDK that all share one bounded connection pool.
+ *
+ * <p>The Cloud SDK caches one HTTP client per destination. Clients created here only borrow the
+ * pool, so evicting them from that cache does not close pooled connections. Their requests can be
+ * aborted from another thread through {@link AbortableRequest}.
+ */
+public class PooledHttpClientFactory implements ApacheHttpClient5Factory {
+  private final PoolingHttpClientConnectionManager connectionManager;
+  private final TimeValue keepAlive;
+
+  public PooledHttpClientFactory(OrchestrationClientConfig config) {
+    this.keepAlive = TimeValue.ofMilliseconds(config.keepAlive().toMillis());
+    this.connectionManager =
+        PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(config.maxConnections())
+            .setMaxConnPerRoute(config.maxConnectionsPerRoute())
+            .setDefaultConnectionConfig(
+                ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.ofMilliseconds(config.connectTimeout().toMillis()))
+                    .setSocketTimeout(Timeout.ofMilliseconds(config.socketTimeout().toMillis()))
+                    .setTimeToLive(keepAlive)
+                    .build())
+            .build();
+  }
+
+  @Override
+  public HttpClient createHttpClient(@Nullable HttpDestinationProperties destination) {
+    return HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setConnectionManagerShared(true)
+        .addExecInterceptorFirst("abortable-request", AbortableRequest.INTERCEPTOR)
+        .setKeepAliveStrategy((response, context) -> keepAlive)
+        .evictIdleConnections(keepAlive)
+        .build();
+  }
+
+  /**
+   * Publishes the pool utilisation as gauges.
+   *
+   * @param registry The registry to bind the gauges to.
+   */
+  public void bindTo(MeterRegistry registry) {
+    gauge(registry, "leased", PoolStats::getLeased);
+    gauge(registry, "available", PoolStats::getAvailable);
+    gauge(registry, "pending", PoolStats::getPending);
+    gauge(registry, "max", PoolStats::getMax);
+  }
+
+  private void gauge(MeterRegistry registry, String state, ToIntFunction<PoolStats> value) {
+    Gauge.builder(
+            "agent.orchestration.pool.connections",
+            connectionManager,
+            manager -> value.applyAsInt(manager.getTotalStats()))
+        .description("Connections of the shared orchestration connection pool")
+        .tag("state", state)
+        .register(registry);
+  }
+
+  /** Closes all pooled connections. */
+  public void close() {
+    connectionManager.close();
+  }
+}
@@ -0,0 +1,29 @@
+package org.example.a2a.server.orchestration;
+
+import com.sap.ai.sdk.orchestration.OrchestrationChatResponse;
+import com.sap.ai.sdk.orchestration.OrchestrationModuleConfig;
+import com.sap.ai.sdk.orchestration.OrchestrationPrompt;
+import com.sap.ai.sdk.orchestration.model.TokenUsage;
+import java.util.stream.Stream;
+
+/** Backend calling the AI Core orchestration service through the pooled client. */
+public class SdkOrchestrationBackend implements OrchestrationBackend {
+  private final OrchestrationClientProvider clientProvider;
+
+  public SdkOrchestrationBackend(OrchestrationClientProvider clientProvider) {
+    this.clientProvider = clientProvider;
+  }
+
+  @Override
+  public Completion chat(OrchestrationPrompt prompt, OrchestrationModuleConfig config) {
+    OrchestrationChatResponse response = clientProvider.get().chatCompletion(prompt, config);
+    TokenUsage usage = response.getTokenUsage();
+    return new Completion(
+        response.getContent(), usage.getPromptTokens(), usage.getCompletionTokens());
+  }
+
+  @Override
+  public Stream<String> stream(OrchestrationPrompt prompt, OrchestrationModuleConfig config) {
+    return clientProvider.get().streamChatCompletion(prompt, config);
+  }
+}
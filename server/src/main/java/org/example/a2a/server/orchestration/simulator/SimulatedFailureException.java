@@ -0,0 +1,9 @@
+package org.example.a2a.server.orchestration.simulator;
+
+/** Failure injected by the {@link SimulatedOrchestrationBackend}. */
+public class SimulatedFailureException extends RuntimeException {
+
+  public SimulatedFailureException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,178 @@
+package org.example.a2a.server.orchestration.simulator;
+
+import com.sap.ai.sdk.orchestration.OrchestrationModuleConfig;
+import com.sap.ai.sdk.orchestration.OrchestrationPrompt;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.example.a2a.server.orchestration.Completion;
+import org.example.a2a.server.orchestration.OrchestrationBackend;
+
+/**
+ * Generates completions locally with configurable latency, generation speed, size and failures.
+ *
+ * <p>Lets executors, caches and streaming be measured end to end without AI Core. Each call draws
+ * its behaviour from its own random generator derived from the seed and the call number, so runs
+ * with the same seed and the same order of calls are identical. Prompts are not tokenised, the
+ * reported prompt token count is always zero.
+ */
+public class SimulatedOrchestrationBackend implements OrchestrationBackend {
+  // 99th percentile of the standard normal distribution
+  private static final double Z_99 = 2.3263;
+  private static final String[] WORDS = {
+    "the", "weather", "in", "Potsdam", "is", "sunny", "with", "a", "light", "breeze", "from",
+    "the", "west", "and", "temperatures", "around", "twenty", "degrees", "today", "tomorrow",
+    "brings", "clouds", "rain", "later", "."
+  };
+
+  private final SimulatorConfig config;
+  private final long seed;
+  private final AtomicLong calls = new AtomicLong();
+
+  public SimulatedOrchestrationBackend(SimulatorConfig config) {
+    this.config = config;
+    this.seed = config.seed().orElseGet(System::nanoTime);
+  }
+
+  @Override
+  public Completion chat(OrchestrationPrompt prompt, OrchestrationModuleConfig moduleConfig) {
+    Plan plan = plan();
+    CountDownLatch never = new CountDownLatch(1);
+    switch (plan.outcome()) {
+      case TIMEOUT -> {
+        awaitUntil(never, System.nanoTime() + config.timeout().toNanos());
+        throw timeout();
+      }
+      case ERROR -> {
+        awaitUntil(never, System.nanoTime() + plan.firstTokenNanos());
+        throw new SimulatedFailureException("Simulated orchestration failure");
+      }
+      default -> {
+        long generation = plan.tokens() * nanosPerToken();
+        awaitUntil(never, System.nanoTime() + plan.firstTokenNanos() + generation);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < plan.tokens(); i++) {
+          content.append(plan.token(i));
+        }
+        return new Completion(content.toString(), 0, plan.tokens());
+      }
+    }
+  }
+
+  @Override
+  public Stream<String> stream(OrchestrationPrompt prompt, OrchestrationModuleConfig moduleConfig) {
+    Plan plan = plan();
+    CountDownLatch closed = new CountDownLatch(1);
+    long nanosPerToken = nanosPerToken();
+    Spliterator<String> deltas =
+        new Spliterators.AbstractSpliterator<>(plan.tokens(), Spliterator.ORDERED) {
+          private final long start = System.nanoTime();
+          private int emitted;
+
+          @Override
+          public boolean tryAdvance(Consumer<? super String> action) {
+            if (emitted == plan.tokens()) {
+              return false;
+            }
+            long due =
+                plan.outcome() == Outcome.TIMEOUT
+                    ? start + config.timeout().toNanos()
+                    : start + plan.firstTokenNanos() + emitted * nanosPerToken;
+            if (awaitUntil(closed, due)) {
+              // Closed by the consumer, like an aborted HTTP exchange
+              return false;
+            }
+            if (plan.outcome() == Outcome.TIMEOUT) {
+              throw timeout();
+            }
+            if (plan.outcome() == Outcome.ERROR && emitted == plan.failAtToken()) {
+              throw new SimulatedFailureException("Simulated failure of the completion stream");
+            }
+            action.accept(plan.token(emitted++));
+            return true;
+          }
+        };
+    return StreamSupport.stream(deltas, false).onClose(closed::countDown);
+  }
+
+  private Plan plan() {
+    RandomGenerator random = new SplittableRandom(seed + calls.getAndIncrement());
+    double spread = config.responseTokensSpread() * config.responseTokens();
+    int tokens =
+        Math.max(
+            1,
+            (int) Math.round(config.responseTokens() + spread * (2 * random.nextDouble() - 1)));
+    double outcome = random.nextDouble();
+    Outcome result =
+        outcome < config.timeoutRate()
+            ? Outcome.TIMEOUT
+            : outcome < config.timeoutRate() + config.errorRate() ? Outcome.ERROR : Outcome.OK;
+    return new Plan(
+        firstTokenNanos(random), tokens, result, random.nextInt(tokens), random.nextInt());
+  }
+
+  private long firstTokenNanos(RandomGenerator random) {
+    SimulatorConfig.Latency latency = config.latency();
+    double median = latency.median().toNanos();
+    double nanos =
+        switch (latency.distribution()) {
+          case CONSTANT -> median;
+          case UNIFORM -> 2 * median * random.nextDouble();
+          case EXPONENTIAL -> -Math.log(1 - random.nextDouble()) * median / Math.log(2);
+          case LOG_NORMAL -> {
+            double sigma = Math.log(latency.p99().toNanos() / median) / Z_99;
+            yield median * Math.exp(sigma * random.nextGaussian());
+          }
+        };
+    return (long) nanos;
+  }
+
+  private long nanosPerToken() {
+    return (long) (TimeUnit.SECONDS.toNanos(1) / config.tokensPerSecond());
+  }
+
+  /**
+   * Waits until the deadline or until the latch opens.
+   *
+   * @return {@code true} if the latch opened first.
+   * @throws CancellationException If the waiting thread was interrupted, e.g. by cancellation.
+   */
+  private static boolean awaitUntil(CountDownLatch latch, long deadlineNanos) {
+    try {
+      return latch.await(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Simulated orchestration call was interrupted");
+    }
+  }
+
+  private static UncheckedIOException timeout() {
+    return new UncheckedIOException(new SocketTimeoutException("Simulated read timeout"));
+  }
+
+  private enum Outcome {
+    OK,
+    ERROR,
+    TIMEOUT
+  }
+
+  /** Behaviour of one call, drawn up front. */
+  private record Plan(
+      long firstTokenNanos, int tokens, Outcome outcome, int failAtToken, int wordOffset) {
+
+    String token(int index) {
+      String word = WORDS[Math.floorMod(wordOffset + index * 7, WORDS.length)];
+      return index == 0 ? word : " " + word;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package org.example.a2a.server.orchestration.simulator;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+import java.util.Optional;
+
+/** Behaviour of the local stand-in for the orchestration service. */
+@ConfigMapping(prefix = "agent.orchestration.simulator")
+public interface SimulatorConfig {
+
+  /** Whether completions are simulated locally instead of calling AI Core. */
+  @WithDefault("false")
+  boolean enabled();
+
+  Latency latency();
+
+  /** Rate at which completion tokens are generated, also while not streaming. */
+  @WithDefault("50")
+  double tokensPerSecond();
+
+  /** Average length of a completion in tokens. */
+  @WithDefault("150")
+  int responseTokens();
+
+  /** Relative spread of completion lengths around the average, e.g. 0.5 for 75 to 225 tokens. */
+  @WithDefault("0.5")
+  double responseTokensSpread();
+
+  /**
+   * Share of calls failing, blocking ones after the time to the first token and streamed ones after
+   * a random delta.
+   */
+  @WithDefault("0")
+  double errorRate();
+
+  /** Share of calls hanging until {@link #timeout()} before failing with a read timeout. */
+  @WithDefault("0")
+  double timeoutRate();
+
+  /** How long a call selected by {@link #timeoutRate()} hangs. */
+  @WithDefault("30s")
+  Duration timeout();
+
+  /** Seed of all random choices, so that runs with the same call order behave the same. */
+  Optional<Long> seed();
+
+  /** Distribution of the time until the first token. */
+  interface Latency {
+
+    @WithDefault("log-normal")
+    Distribution distribution();
+
+    @WithDefault("400ms")
+    Duration median();
+
+    /** 99th percentile, only used by the log-normal distribution. */
+    @WithDefault("2s")
+    Duration p99();
+  }
+
+  enum Distribution {
+    /** Always the median. */
+    CONSTANT,
+    /** Evenly spread between zero and twice the median. */
+    UNIFORM,
+    /** Memoryless, with the given median. */
+    EXPONENTIAL,
+    /** Long-tailed like real model latencies, with the given median and 99th percentile. */
+    LOG_NORMAL
+  }
+}
@@ -0,0 +1,296 @@
+package org.example.a2a.server.push;
+
+import io.a2a.server.tasks.PushNotificationConfigStore;
+import io.a2a.server.tasks.PushNotificationSender;
+import io.a2a.spec.PushNotificationConfig;
+import io.a2a.spec.Task;
+import io.a2a.util.Utils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers task updates to the webhooks registered for a task, off the thread producing them.
+ *
+ * <p>Updates are queued per task: while a notification for a task is pending, newer updates
+ * replace it, so a webhook receives the latest state instead of every intermediate one. The queue
+ * is bounded, updates beyond its capacity are dropped and counted. A dispatcher thread takes
+ * batches of pending tasks and sends their notifications concurrently. Deliveries failing with an
+ * I/O error, a 5xx or a 429 status are retried with exponential backoff, unless a newer update of
+ * the task is pending or its delivery has started by then, so a retry never overwrites a newer
+ * state at the webhook. At most {@code max-concurrent-deliveries} deliveries, including
+ * those waiting for a retry, are outstanding at once; the dispatcher waits for one to finish
+ * before starting another.
+ *
+ * <p>On {@link #close()} the pending notifications of tasks in a final state are still sent, and
+ * outstanding deliveries are awaited for up to {@code drain-timeout}.
+ */
+@Slf4j
+public class BatchingPushNotificationSender implements PushNotificationSender, AutoCloseable {
+  /** Header carrying the token the client registered with the webhook. */
+  public static final String TOKEN_HEADER = "X-A2A-Notification-Token";
+
+  private final PushDispatchConfig config;
+  private final PushNotificationConfigStore configStore;
+  private final MeterRegistry registry;
+  private final ExecutorService httpExecutor;
+  private final HttpClient httpClient;
+  private final Map<String, Task> latest = new ConcurrentHashMap<>();
+  // Per task with deliveries in progress, the version of the latest delivery started
+  private final Map<String, DeliveryState> deliveryStates = new ConcurrentHashMap<>();
+  private final BlockingQueue<String> pending;
+  private final Semaphore deliveries;
+  private final ScheduledExecutorService retries;
+  private final Thread dispatcher;
+  private volatile boolean closed;
+
+  /**
+   * @param config The queue, batching and retry settings.
+   * @param configStore The store of the webhooks registered per task.
+   * @param registry The registry of the delivery metrics.
+   */
+  public BatchingPushNotificationSender(
+      PushDispatchConfig config, PushNotificationConfigStore configStore, MeterRegistry registry) {
+    this.config = config;
+    this.configStore = configStore;
+    this.registry = registry;
+    this.pending = new ArrayBlockingQueue<>(config.queueCapacity());
+    this.deliveries = new Semaphore(config.maxConcurrentDeliveries());
+    this.httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    this.httpClient =
+        HttpClient.newBuilder().connectTimeout(config.timeout()).executor(httpExecutor).build();
+    this.retries =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "push-notification-retries");
+              thread.setDaemon(true);
+              return thread;
+            });
+    Gauge.builder("agent.push.pending", pending, BlockingQueue::size)
+        .description("Tasks with a push notification waiting to be sent")
+        .register(registry);
+    this.dispatcher =
+        Thread.ofPlatform().name("push-notification-dispatcher").daemon().start(this::dispatch);
+  }
+
+  @Override
+  public void sendNotification(Task task) {
+    if (closed) {
+      count("dropped");
+      return;
+    }
+    // A pending notification of the task is replaced, it is not queued again
+    if (latest.put(task.getId(), task) == null && !pending.offer(task.getId())) {
+      latest.remove(task.getId(), task);
+      count("dropped");
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    dispatcher.interrupt();
+    try {
+      dispatcher.join(config.drainTimeout().toMillis());
+      // Intermediate states are superseded anyway, but a webhook waits for the final one
+      for (Task task : List.copyOf(latest.values())) {
+        if (latest.remove(task.getId(), task) && task.getStatus().state().isFinal()) {
+          deliver(task);
+        }
+      }
+      int outstanding = config.maxConcurrentDeliveries();
+      if (!deliveries.tryAcquire(
+          outstanding, config.drainTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+        log.warn(
+            "{} push notifications still outstanding after {}",
+            outstanding - deliveries.availablePermits(),
+            config.drainTimeout());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      retries.shutdownNow();
+      httpClient.shutdownNow();
+      httpExecutor.shutdownNow();
+    }
+  }
+
+  private void dispatch() {
+    List<String> batch = new ArrayList<>(config.batchSize());
+    try {
+      while (true) {
+        batch.add(pending.take());
+        // Updates arriving shortly after the first one share its batch
+        Thread.sleep(config.linger());
+        pending.drainTo(batch, config.batchSize() - 1);
+        for (String taskId : batch) {
+          Task task = latest.remove(taskId);
+          if (task != null) {
+            try {
+              deliver(task);
+            } catch (InterruptedException e) {
+              // Closing, the notification is sent from close() if the task is final
+              latest.putIfAbsent(taskId, task);
+              throw e;
+            }
+          }
+        }
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Sends the notification of a task to its webhooks, waiting for free delivery slots. */
+  private void deliver(Task task) throws InterruptedException {
+    List<PushNotificationConfig> webhooks;
+    byte[] body;
+    try {
+      webhooks = configStore.getInfo(task.getId());
+      if (webhooks == null || webhooks.isEmpty()) {
+        return;
+      }
+      body = Utils.OBJECT_MAPPER.writeValueAsBytes(task);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Cannot prepare push notification of task {}", task.getId(), e);
+      count("failed");
+      return;
+    }
+    // Held until all webhooks have been sent to, so that the state is kept meanwhile
+    long version = begin(task.getId());
+    try {
+      for (PushNotificationConfig webhook : webhooks) {
+        HttpRequest.Builder request =
+            HttpRequest.newBuilder(URI.create(webhook.url()))
+                .timeout(config.timeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (webhook.token() != null && !webhook.token().isBlank()) {
+          request.header(TOKEN_HEADER, webhook.token());
+        }
+        deliveries.acquire();
+        outstanding(task.getId(), 1);
+        send(request.build(), task.getId(), version, 1);
+      }
+    } finally {
+      outstanding(task.getId(), -1);
+    }
+  }
+
+  /** Starts a delivery of a task, superseding the retries of earlier ones. */
+  private long begin(String taskId) {
+    return deliveryStates
+        .compute(
+            taskId,
+            (id, state) ->
+                state == null
+                    ? new DeliveryState(1, 1)
+                    : new DeliveryState(state.version() + 1, state.outstanding() + 1))
+        .version();
+  }
+
+  /** Counts deliveries of a task in progress, its state is forgotten once none is left. */
+  private void outstanding(String taskId, int delta) {
+    deliveryStates.computeIfPresent(
+        taskId,
+        (id, state) ->
+            state.outstanding() + delta <= 0
+                ? null
+                : new DeliveryState(state.version(), state.outstanding() + delta));
+  }
+
+  /** Ends one attempt sequence of a delivery, releasing its slot. */
+  private void ended(String taskId) {
+    outstanding(taskId, -1);
+    deliveries.release();
+  }
+
+  private boolean isSuperseded(String taskId, long version) {
+    DeliveryState state = deliveryStates.get(taskId);
+    return latest.containsKey(taskId) || (state != null && state.version() > version);
+  }
+
+  /** Sends one attempt of a delivery, which holds a delivery slot until its last attempt. */
+  private void send(HttpRequest request, String taskId, long version, int attempt) {
+    httpClient
+        .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+        .whenComplete(
+            (response, error) -> {
+              int status = response == null ? 0 : response.statusCode();
+              if (error == null && status >= 200 && status < 300) {
+                ended(taskId);
+                count("delivered");
+                return;
+              }
+              boolean retryable = error != null || status >= 500 || status == 429;
+              if (!retryable || attempt >= config.maxAttempts()) {
+                log.warn(
+                    "Push notification of task {} to {} failed after {} attempts: {}",
+                    taskId,
+                    request.uri(),
+                    attempt,
+                    error != null ? error.toString() : "status " + status);
+                ended(taskId);
+                count("failed");
+                return;
+              }
+              count("retried");
+              long backoff =
+                  Math.min(
+                      config.maxBackoff().toMillis(),
+                      config.initialBackoff().toMillis() << Math.min(attempt - 1, 20));
+              try {
+                retries.schedule(
+                    () -> {
+                      // A newer update of the task is pending or sent, and supersedes this one
+                      if (isSuperseded(taskId, version)) {
+                        ended(taskId);
+                      } else {
+                        send(request, taskId, version, attempt + 1);
+                      }
+                    },
+                    backoff,
+                    TimeUnit.MILLISECONDS);
+              } catch (RejectedExecutionException e) {
+                // Closed while the delivery was outstanding
+                ended(taskId);
+                count("failed");
+              }
+            });
+  }
+
+  /**
+   * Deliveries of a task in progress.
+   *
+   * @param version The version of the latest delivery started, increasing per task.
+   * @param outstanding Webhook deliveries not finished yet, including those waiting for a retry.
+   */
+  private record DeliveryState(long version, int outstanding) {}
+
+  private void count(String outcome) {
+    Counter.builder("agent.push.notifications")
+        .description("Push notification deliveries by outcome")
+        .tag("outcome", outcome)
+        .register(registry)
+        .increment();
+  }
+}
@@ -0,0 +1,46 @@
+package org.example.a2a.server.push;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+
+/** Outbound queue, batching and retries of push notifications to client webhooks. */
+@ConfigMapping(prefix = "agent.push")
+public interface PushDispatchConfig {
+
+  /** Tasks with a pending notification, further ones are dropped until the queue drains. */
+  @WithDefault("10000")
+  int queueCapacity();
+
+  /** Maximum number of tasks whose notifications are sent together. */
+  @WithDefault("64")
+  int batchSize();
+
+  /** How long the dispatcher waits for more updates before sending a batch. */
+  @WithDefault("20ms")
+  Duration linger();
+
+  /** Deliveries per notification including the first one. */
+  @WithDefault("4")
+  int maxAttempts();
+
+  /** Wait before the first retry, doubled for each further one. */
+  @WithDefault("500ms")
+  Duration initialBackoff();
+
+  /** Upper bound of the wait before any retry. */
+  @WithDefault("10s")
+  Duration maxBackoff();
+
+  /** Deliveries sent or waiting for a retry at once, the dispatcher waits for a free one. */
+  @WithDefault("256")
+  int maxConcurrentDeliveries();
+
+  /** How long closing the sender waits for final notifications to be delivered. */
+  @WithDefault("5s")
+  Duration drainTimeout();
+
+  /** How long a webhook may take to answer a delivery. */
+  @WithDefault("10s")
+  Duration timeout();
+}
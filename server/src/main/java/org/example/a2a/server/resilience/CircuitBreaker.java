@@ -0,0 +1,140 @@
+package org.example.a2a.server.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Locale;
+
+/**
+ * Stops calling a model of the orchestration service while most of its calls fail.
+ *
+ * <p>While closed, the outcomes of the latest calls are kept in a window. When the share of
+ * failures in it reaches the threshold, the circuit opens and calls are rejected at once. After the
+ * open duration a few trial calls are let through: if all succeed the circuit closes, if one fails
+ * it opens again.
+ */
+public class CircuitBreaker {
+
+  /** States of the circuit, the ordinal is published as gauge value. */
+  public enum State {
+    CLOSED,
+    HALF_OPEN,
+    OPEN
+  }
+
+  private final ResilienceConfig.CircuitBreaker config;
+  private final MeterRegistry registry;
+  private final String model;
+  // Failure flags of the latest calls while closed. All fields guarded by this.
+  private final boolean[] window;
+  private int calls;
+  private int failures;
+  private State state = State.CLOSED;
+  private long openedNanos;
+  private int trialsInFlight;
+  private int trialsSucceeded;
+
+  /**
+   * @param config The thresholds and durations of the circuit.
+   * @param registry The registry of the circuit metrics.
+   * @param model The name of the model the circuit guards, used as tag value.
+   */
+  public CircuitBreaker(
+      ResilienceConfig.CircuitBreaker config, MeterRegistry registry, String model) {
+    this.config = config;
+    this.registry = registry;
+    this.model = model;
+    this.window = new boolean[config.windowSize()];
+    Gauge.builder("agent.resilience.circuit.state", this, breaker -> breaker.state().ordinal())
+        .description("State of the orchestration circuit: 0 closed, 1 half open, 2 open")
+        .tag("model", model)
+        .register(registry);
+  }
+
+  /**
+   * Asks for permission to make a call, whose outcome must then be reported.
+   *
+   * @return {@code false} if the circuit is open and the call must not be made.
+   */
+  public synchronized boolean tryAcquire() {
+    if (!config.enabled()) {
+      return true;
+    }
+    if (state == State.OPEN) {
+      if (System.nanoTime() - openedNanos < config.openDuration().toNanos()) {
+        return false;
+      }
+      transition(State.HALF_OPEN);
+    }
+    if (state == State.HALF_OPEN) {
+      if (trialsInFlight + trialsSucceeded >= config.halfOpenCalls()) {
+        return false;
+      }
+      trialsInFlight++;
+    }
+    return true;
+  }
+
+  public synchronized void onSuccess() {
+    if (state == State.HALF_OPEN) {
+      trialsInFlight = Math.max(0, trialsInFlight - 1);
+      if (++trialsSucceeded >= config.halfOpenCalls()) {
+        transition(State.CLOSED);
+      }
+    } else if (state == State.CLOSED) {
+      record(false);
+    }
+  }
+
+  public synchronized void onFailure() {
+    if (state == State.HALF_OPEN) {
+      transition(State.OPEN);
+    } else if (state == State.CLOSED) {
+      record(true);
+      if (calls >= config.minimumCalls()
+          && (double) failures / Math.min(calls, window.length) >= config.failureRateThreshold()) {
+        transition(State.OPEN);
+      }
+    }
+  }
+
+  /** Reports a call that was aborted, e.g. by cancellation, and says nothing about the service. */
+  public synchronized void onIgnored() {
+    if (state == State.HALF_OPEN) {
+      trialsInFlight = Math.max(0, trialsInFlight - 1);
+    }
+  }
+
+  public synchronized State state() {
+    return state;
+  }
+
+  private void record(boolean failure) {
+    int slot = calls % window.length;
+    if (calls >= window.length && window[slot]) {
+      failures--;
+    }
+    window[slot] = failure;
+    if (failure) {
+      failures++;
+    }
+    calls++;
+  }
+
+  private void transition(State next) {
+    state = next;
+    calls = 0;
+    failures = 0;
+    trialsInFlight = 0;
+    trialsSucceeded = 0;
+    if (next == State.OPEN) {
+      openedNanos = System.nanoTime();
+    }
+    Counter.builder("agent.resilience.circuit.transitions")
+        .description("Transitions of the orchestration circuit by the state entered")
+        .tag("model", model)
+        .tag("state", next.name().toLowerCase(Locale.ROOT))
+        .register(registry)
+        .increment();
+  }
+}
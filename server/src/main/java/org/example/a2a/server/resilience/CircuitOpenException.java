@@ -0,0 +1,9 @@
+package org.example.a2a.server.resilience;
+
+/** Thrown when an orchestration call is not made because the circuit of its model is open. */
+public class CircuitOpenException extends OrchestrationUnavailableException {
+
+  public CircuitOpenException(String message) {
+    super(message);
+  }
+}
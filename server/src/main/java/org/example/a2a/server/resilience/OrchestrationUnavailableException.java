@@ -0,0 +1,16 @@
+package org.example.a2a.server.resilience;
+
+/**
+ * Thrown when an orchestration call is not made or given up on, because the circuit is open or
+ * the deadline of the request has passed.
+ */
+public class OrchestrationUnavailableException extends RuntimeException {
+
+  public OrchestrationUnavailableException(String message) {
+    super(message);
+  }
+
+  public OrchestrationUnavailableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
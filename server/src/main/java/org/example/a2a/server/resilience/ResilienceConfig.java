@@ -0,0 +1,76 @@
+package org.example.a2a.server.resilience;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+
+/** Deadlines, retries and the circuit breaker around orchestration calls. */
+@ConfigMapping(prefix = "agent.resilience")
+public interface ResilienceConfig {
+
+  Deadline deadline();
+
+  Retry retry();
+
+  CircuitBreaker circuitBreaker();
+
+  interface Deadline {
+
+    /** Time a request may spend in orchestration calls if the client does not ask for less. */
+    @WithDefault("60s")
+    Duration defaultTimeout();
+
+    /** Upper bound of the timeout a client may ask for in the message metadata. */
+    @WithDefault("5m")
+    Duration maxTimeout();
+  }
+
+  interface Retry {
+
+    /** Attempts per orchestration call including the first one, 1 disables retries. */
+    @WithDefault("3")
+    int maxAttempts();
+
+    /** Upper bound of the randomised wait before the first retry, doubled for each further one. */
+    @WithDefault("200ms")
+    Duration initialBackoff();
+
+    /** Upper bound of the randomised wait before any retry. */
+    @WithDefault("2s")
+    Duration maxBackoff();
+
+    /** Retries earned by each call, e.g. 0.1 allows one retry per ten calls across all requests. */
+    @WithDefault("0.1")
+    double budgetRatio();
+
+    /** Maximum number of retries saved up while calls succeed. */
+    @WithDefault("20")
+    int maxBudget();
+  }
+
+  interface CircuitBreaker {
+
+    @WithDefault("true")
+    boolean enabled();
+
+    /** Share of failed calls in the window at which the circuit opens. */
+    @WithDefault("0.5")
+    double failureRateThreshold();
+
+    /** Number of latest calls the failure rate is computed over. */
+    @WithDefault("50")
+    int windowSize();
+
+    /** Calls the window needs before the circuit may open. */
+    @WithDefault("20")
+    int minimumCalls();
+
+    /** How long calls are rejected once the circuit has opened. */
+    @WithDefault("30s")
+    Duration openDuration();
+
+    /** Trial calls after the open duration, all must succeed to close the circuit again. */
+    @WithDefault("3")
+    int halfOpenCalls();
+  }
+}
@@ -0,0 +1,222 @@
+package org.example.a2a.server.resilience;
+
+import com.sap.ai.sdk.orchestration.OrchestrationModuleConfig;
+import com.sap.ai.sdk.orchestration.OrchestrationPrompt;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.example.a2a.server.orchestration.AbortableRequest;
+import org.example.a2a.server.orchestration.Completion;
+import org.example.a2a.server.orchestration.OrchestrationBackend;
+import org.example.a2a.server.routing.ModelRouter;
+
+/**
+ * Retries failed orchestration calls within a retry budget and fails fast while the circuit of
+ * their model is open.
+ *
+ * <p>Each model has a circuit of its own, so a failing model does not block calls to healthy ones
+ * and the {@link ModelRouter} can fail over to them. The retry budget is shared by all models.
+ *
+ * <p>Retries wait a random time up to an exponentially growing bound (full jitter), so that callers
+ * failing together do not retry together. The wait is interrupted when the request is cancelled or
+ * its deadline passes, see {@link org.example.a2a.server.orchestration.InFlightCalls}.
+ *
+ * <p>Only transient failures, see {@link TransientFailures}, are retried and count against the
+ * circuit. The outcome of a stream is reported once it has been read to the end or failed. Opening
+ * it is retried, but once deltas are forwarded to the client a failure can no longer be retried
+ * transparently.
+ */
+@Slf4j
+public class ResilientOrchestrationBackend implements OrchestrationBackend {
+  private final OrchestrationBackend delegate;
+  private final ResilienceConfig.Retry retry;
+  private final ResilienceConfig.CircuitBreaker circuitBreakerConfig;
+  private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+  private final RetryBudget retryBudget;
+  private final MeterRegistry registry;
+
+  /**
+   * @param delegate The backend making the calls.
+   * @param config The retry and circuit breaker settings.
+   * @param registry The registry of the resilience metrics.
+   */
+  public ResilientOrchestrationBackend(
+      OrchestrationBackend delegate, ResilienceConfig config, MeterRegistry registry) {
+    this.delegate = delegate;
+    this.retry = config.retry();
+    this.circuitBreakerConfig = config.circuitBreaker();
+    this.retryBudget = new RetryBudget(config.retry(), registry);
+    this.registry = registry;
+  }
+
+  @Override
+  public Completion chat(OrchestrationPrompt prompt, OrchestrationModuleConfig config) {
+    return call(config, () -> delegate.chat(prompt, config), this::succeeded);
+  }
+
+  @Override
+  public Stream<String> stream(OrchestrationPrompt prompt, OrchestrationModuleConfig config) {
+    return call(config, () -> delegate.stream(prompt, config), this::guarded);
+  }
+
+  /**
+   * Makes a call, retrying transient failures.
+   *
+   * @param config The module configuration, whose model selects the circuit.
+   * @param call The call.
+   * @param completed Reports the outcome of a call that returned, or arranges for it to be.
+   */
+  private <T> T call(
+      OrchestrationModuleConfig config,
+      Supplier<T> call,
+      BiFunction<CircuitBreaker, T, T> completed) {
+    String model = ModelRouter.modelName(config);
+    CircuitBreaker circuitBreaker =
+        circuitBreakers.computeIfAbsent(
+            model, name -> new CircuitBreaker(circuitBreakerConfig, registry, name));
+    retryBudget.deposit();
+    for (int attempt = 1; ; attempt++) {
+      if (!circuitBreaker.tryAcquire()) {
+        count("rejected");
+        throw new CircuitOpenException("The model " + model + " is unavailable, retry later");
+      }
+      RuntimeException failure;
+      try {
+        return completed.apply(circuitBreaker, call.get());
+      } catch (CancellationException e) {
+        circuitBreaker.onIgnored();
+        throw e;
+      } catch (RuntimeException e) {
+        if (!failed(circuitBreaker, e)) {
+          throw e;
+        }
+        failure = e;
+      }
+
+      if (attempt >= retry.maxAttempts()) {
+        throw failure;
+      }
+      if (!retryBudget.tryWithdraw()) {
+        count("budget_exhausted");
+        throw failure;
+      }
+      log.debug("Retrying orchestration call after attempt {} failed", attempt, failure);
+      count("retried");
+      backOff(attempt);
+    }
+  }
+
+  /**
+   * Reports a failed call to its circuit.
+   *
+   * @return {@code true} if the failure is transient and the call may be retried.
+   */
+  private boolean failed(CircuitBreaker circuitBreaker, RuntimeException failure) {
+    if (Thread.currentThread().isInterrupted() || AbortableRequest.currentAborted()) {
+      // Aborted by cancellation or the deadline, not a failure of the service
+      circuitBreaker.onIgnored();
+      return false;
+    }
+    if (!TransientFailures.isTransient(failure)) {
+      // Rejected requests fail the same way however often they are sent
+      circuitBreaker.onIgnored();
+      count("rejected_request");
+      return false;
+    }
+    circuitBreaker.onFailure();
+    count("failure");
+    return true;
+  }
+
+  private <T> T succeeded(CircuitBreaker circuitBreaker, T result) {
+    circuitBreaker.onSuccess();
+    count("success");
+    return result;
+  }
+
+  private Stream<String> guarded(CircuitBreaker circuitBreaker, Stream<String> deltas) {
+    StreamOutcome outcome = new StreamOutcome(deltas.iterator(), circuitBreaker);
+    return StreamSupport.stream(outcome, false)
+        .onClose(
+            () -> {
+              // Closed early by cancellation or at the deadline, says nothing about the service
+              outcome.report(circuitBreaker::onIgnored);
+              deltas.close();
+            });
+  }
+
+  private void backOff(int attempt) {
+    long bound =
+        Math.min(
+            retry.maxBackoff().toNanos(),
+            retry.initialBackoff().toNanos() << Math.min(attempt - 1, 30));
+    try {
+      Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(bound + 1)));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Waiting for the orchestration retry was interrupted");
+    }
+  }
+
+  private void count(String outcome) {
+    Counter.builder("agent.resilience.calls")
+        .description("Orchestration call attempts by outcome, and retries made or denied")
+        .tag("outcome", outcome)
+        .register(registry)
+        .increment();
+  }
+
+  /** Reports the outcome of a stream to its circuit once it has been read to the end or failed. */
+  private class StreamOutcome extends Spliterators.AbstractSpliterator<String> {
+    private final Iterator<String> deltas;
+    private final CircuitBreaker circuitBreaker;
+    private final AtomicBoolean reported = new AtomicBoolean();
+
+    private StreamOutcome(Iterator<String> deltas, CircuitBreaker circuitBreaker) {
+      super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+      this.deltas = deltas;
+      this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+      String delta;
+      try {
+        if (!deltas.hasNext()) {
+          report(() -> succeeded(circuitBreaker, null));
+          return false;
+        }
+        delta = deltas.next();
+      } catch (CancellationException e) {
+        report(circuitBreaker::onIgnored);
+        throw e;
+      } catch (RuntimeException e) {
+        report(() -> failed(circuitBreaker, e));
+        throw e;
+      }
+      // Failures of the consumer say nothing about the service
+      action.accept(delta);
+      return true;
+    }
+
+    private void report(Runnable outcome) {
+      if (reported.compareAndSet(false, true)) {
+        outcome.run();
+      }
+    }
+  }
+}
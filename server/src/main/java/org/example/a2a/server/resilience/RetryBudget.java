@@ -0,0 +1,43 @@
+package org.example.a2a.server.resilience;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limits retries to a share of all calls, so that retries cannot multiply the load on a backend
+ * that is already failing.
+ *
+ * <p>Every call deposits a fraction of a retry, every retry withdraws a whole one. The balance is
+ * capped, so only a bounded burst of retries is possible after a long healthy period.
+ */
+class RetryBudget {
+  private final double ratio;
+  private final double max;
+  // Guarded by this
+  private double balance;
+
+  RetryBudget(ResilienceConfig.Retry config, MeterRegistry registry) {
+    this.ratio = config.budgetRatio();
+    this.max = config.maxBudget();
+    this.balance = max;
+    Gauge.builder("agent.resilience.retry.budget", this, RetryBudget::balance)
+        .description("Retries currently allowed by the retry budget")
+        .register(registry);
+  }
+
+  synchronized void deposit() {
+    balance = Math.min(max, balance + ratio);
+  }
+
+  synchronized boolean tryWithdraw() {
+    if (balance < 1) {
+      return false;
+    }
+    balance--;
+    return true;
+  }
+
+  private synchronized double balance() {
+    return balance;
+  }
+}
@@ -0,0 +1,49 @@
+package org.example.a2a.server.resilience;
+
+import com.sap.ai.sdk.orchestration.OrchestrationClientException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.example.a2a.server.orchestration.simulator.SimulatedFailureException;
+
+/**
+ * Tells failures of the orchestration service apart from failures of the request.
+ *
+ * <p>I/O errors, {@code 429 Too Many Requests} and {@code 5xx} responses may pass when the call is
+ * made again, and say something about the health of the model. Other responses, such as invalid or
+ * unauthorized requests, oversized prompts or content filter rejections, fail the same way however
+ * often they are sent.
+ */
+public final class TransientFailures {
+  // The SDK reports the status only in the message: "Request failed with status 503 (...)"
+  private static final Pattern STATUS = Pattern.compile("status (\\d{3})");
+
+  private TransientFailures() {}
+
+  /**
+   * Tells whether a failed orchestration call may succeed when it is made again.
+   *
+   * @param failure The failure of the call.
+   * @return {@code true} for I/O errors, {@code 429} and {@code 5xx} responses.
+   */
+  public static boolean isTransient(Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof IOException
+          || cause instanceof UncheckedIOException
+          || cause instanceof SimulatedFailureException) {
+        return true;
+      }
+    }
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof OrchestrationClientException && cause.getMessage() != null) {
+        Matcher status = STATUS.matcher(cause.getMessage());
+        if (status.find()) {
+          int code = Integer.parseInt(status.group(1));
+          return code == 429 || code >= 500;
+        }
+      }
+    }
+    return false;
+  }
+}
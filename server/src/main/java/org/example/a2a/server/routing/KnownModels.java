@@ -0,0 +1,60 @@
+package org.example.a2a.server.routing;
+
+import com.sap.ai.sdk.orchestration.OrchestrationAiModel;
+import com.sap.ai.sdk.orchestration.OrchestrationModuleConfig;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The model constants of the SDK and a module config per model.
+ *
+ * <p>The native build initialises this class at build time, so the constants are scanned then and
+ * need no reflection metadata, and the module configs are part of the image heap. It therefore
+ * holds nothing but these immutable tables.
+ */
+final class KnownModels {
+  /** The model constants of the SDK by name, e.g. {@code gpt-4o} for {@code GPT_4O}. */
+  static final Map<String, OrchestrationAiModel> BY_NAME = scan();
+
+  /** Module configs by model name, immutable and shared by all requests to a model. */
+  static final Map<String, OrchestrationModuleConfig> MODULE_CONFIGS =
+      BY_NAME.entrySet().stream()
+          .collect(
+              Collectors.toUnmodifiableMap(
+                  Map.Entry::getKey,
+                  entry -> new OrchestrationModuleConfig().withLlmConfig(entry.getValue())));
+
+  /**
+   * Model names by module config. Identity lookup, so the name does not depend on how the SDK
+   * compares or prints configs.
+   */
+  static final Map<OrchestrationModuleConfig, String> NAMES = names();
+
+  private KnownModels() {}
+
+  private static Map<String, OrchestrationAiModel> scan() {
+    return Arrays.stream(OrchestrationAiModel.class.getFields())
+        .filter(field -> Modifier.isStatic(field.getModifiers()))
+        .filter(field -> field.getType() == OrchestrationAiModel.class)
+        .map(KnownModels::constant)
+        .collect(Collectors.toMap(OrchestrationAiModel::getName, model -> model, (a, b) -> a));
+  }
+
+  private static OrchestrationAiModel constant(Field field) {
+    try {
+      return (OrchestrationAiModel) field.get(null);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Cannot read model constant " + field.getName(), e);
+    }
+  }
+
+  private static Map<OrchestrationModuleConfig, String> names() {
+    Map<OrchestrationModuleConfig, String> names = new IdentityHashMap<>();
+    MODULE_CONFIGS.forEach((name, config) -> names.put(config, name));
+    return names;
+  }
+}
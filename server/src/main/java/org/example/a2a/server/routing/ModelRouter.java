@@ -0,0 +1,403 @@
+package org.example.a2a.server.routing;
+
+import com.sap.ai.sdk.orchestration.OrchestrationAiModel;
+import com.sap.ai.sdk.orchestration.OrchestrationModuleConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.example.a2a.server.orchestration.AbortableRequest;
+import org.example.a2a.server.resilience.CircuitOpenException;
+import org.example.a2a.server.resilience.TransientFailures;
+
+/**
+ * Routes orchestration calls of a skill to the fastest healthy of its candidate models.
+ *
+ * <p>Every call updates the moving latency and error rate of its model. Candidates are ordered by
+ * latency, models whose error rate exceeds the limit only get a probe request once in a while.
+ * Models without completed calls sort first, so that new candidates are measured.
+ *
+ * <p>A call rejected because the circuit of its model is open goes to the next candidate at once.
+ * Rejections do not reach the model and do not count against its error rate.
+ *
+ * <p>With hedging enabled, a blocking call that takes longer than the configured latency quantile
+ * of its model is sent again to the next candidate. The first result wins and the other call is
+ * cancelled. Streamed completions are not hedged, their deltas are forwarded as they arrive.
+ */
+public class ModelRouter {
+  private final RoutingConfig config;
+  private final ExecutorService callExecutor;
+  private final MeterRegistry registry;
+  private final Map<String, ModelStats> stats = new ConcurrentHashMap<>();
+
+  /**
+   * @param config The candidate models and routing settings.
+   * @param callExecutor The executor running hedged calls.
+   * @param registry The registry of the routing metrics.
+   */
+  public ModelRouter(RoutingConfig config, ExecutorService callExecutor, MeterRegistry registry) {
+    this.config = config;
+    this.callExecutor = callExecutor;
+    this.registry = registry;
+    // Fail at startup rather than on the first request of a skill
+    config.defaultModels().forEach(this::model);
+    config.skills().values().forEach(names -> names.forEach(this::model));
+  }
+
+  /**
+   * Chooses the models a request of a skill is sent to.
+   *
+   * @param skillId The skill the request is addressed to.
+   * @return The route, whose first model is the one to use.
+   */
+  public Route route(String skillId) {
+    List<String> names = config.skills().getOrDefault(skillId, config.defaultModels());
+    long probeNanos = config.probeInterval().toNanos();
+    List<String> probes = new ArrayList<>(1);
+    List<String> healthy = new ArrayList<>(names.size());
+    List<String> unhealthy = new ArrayList<>(0);
+    for (String name : names) {
+      ModelStats modelStats = stats(name);
+      if (modelStats.errorRate() <= config.maxErrorRate()) {
+        healthy.add(name);
+      } else if (probes.isEmpty() && modelStats.admits(config.maxErrorRate(), probeNanos)) {
+        probes.add(name);
+      } else {
+        unhealthy.add(name);
+      }
+    }
+    healthy.sort(Comparator.comparingDouble(name -> stats(name).latencyNanos()));
+    unhealthy.sort(Comparator.comparingDouble(name -> stats(name).errorRate()));
+    List<String> ordered = new ArrayList<>(names.size());
+    ordered.addAll(probes);
+    ordered.addAll(healthy);
+    ordered.addAll(unhealthy);
+    return new Route(ordered.stream().map(this::model).toList());
+  }
+
+  /**
+   * Lists the candidate models of a skill in configuration order, without routing a request.
+   *
+   * @param skillId The skill the request is addressed to.
+   * @return The candidate models.
+   */
+  public List<OrchestrationAiModel> candidates(String skillId) {
+    return config.skills().getOrDefault(skillId, config.defaultModels()).stream()
+        .map(this::model)
+        .toList();
+  }
+
+  /**
+   * Joins the names of models into one metric tag value.
+   *
+   * @param models The models.
+   * @return The model names separated by {@code |}.
+   */
+  public static String names(List<OrchestrationAiModel> models) {
+    return models.stream().map(OrchestrationAiModel::getName).collect(Collectors.joining("|"));
+  }
+
+  private OrchestrationAiModel model(String name) {
+    OrchestrationAiModel model = KnownModels.BY_NAME.get(name);
+    if (model == null) {
+      throw new IllegalArgumentException(
+          "Unknown orchestration model "
+              + name
+              + ", known models are "
+              + KnownModels.BY_NAME.keySet());
+    }
+    return model;
+  }
+
+  private ModelStats stats(String name) {
+    return stats.computeIfAbsent(
+        name,
+        key -> {
+          ModelStats modelStats = new ModelStats(config.ewmaAlpha());
+          Gauge.builder("agent.routing.latency", modelStats, ModelStats::latencyNanos)
+              .description("Moving average of the orchestration call latency in nanoseconds")
+              .tag("model", key)
+              .register(registry);
+          Gauge.builder("agent.routing.error.rate", modelStats, ModelStats::errorRate)
+              .description("Moving average of the share of failed orchestration calls")
+              .tag("model", key)
+              .register(registry);
+          return modelStats;
+        });
+  }
+
+  /**
+   * Returns the name of the model a module config routed by this class addresses.
+   *
+   * @param config The module config.
+   * @return The model name, or {@code default} for configs not created by a router.
+   */
+  public static String modelName(OrchestrationModuleConfig config) {
+    return KnownModels.NAMES.getOrDefault(config, "default");
+  }
+
+  /** The candidate models of one request, fastest healthy first. */
+  public class Route {
+    private final List<OrchestrationAiModel> models;
+
+    private Route(List<OrchestrationAiModel> models) {
+      this.models = models;
+    }
+
+    /** The model the request is sent to first. */
+    public OrchestrationAiModel model() {
+      return models.get(0);
+    }
+
+    /** The module configuration of {@link #model()}. */
+    public OrchestrationModuleConfig config() {
+      return config(model());
+    }
+
+    /**
+     * Runs a blocking call against the first model, hedged with the second if it is slow.
+     *
+     * @param call The call, given the module configuration of the model to use.
+     * @param <T> The result type.
+     * @return The result of the call that finished first.
+     * @throws CancellationException If interrupted while waiting, both calls are then cancelled.
+     */
+    public <T> T call(Function<OrchestrationModuleConfig, T> call) {
+      long hedgeDelay = hedgeDelayNanos();
+      if (hedgeDelay < 0) {
+        return firstAdmitted(models, call);
+      }
+
+      CompletionService<T> completions = new ExecutorCompletionService<>(callExecutor);
+      List<Future<T>> calls = new ArrayList<>(2);
+      List<AbortableRequest> requests = new ArrayList<>(2);
+      calls.add(completions.submit(abortable(requests, () -> timed(model(), call))));
+      try {
+        Future<T> done = completions.poll(hedgeDelay, TimeUnit.NANOSECONDS);
+        if (done == null) {
+          calls.add(completions.submit(abortable(requests, () -> timed(models.get(1), call))));
+          hedged();
+          done = completions.take();
+        }
+        try {
+          T result = done.get();
+          if (calls.size() > 1) {
+            won(calls.indexOf(done));
+          }
+          return result;
+        } catch (ExecutionException e) {
+          if (calls.size() == 1 && e.getCause() instanceof CircuitOpenException) {
+            // Not sent to the first model at all, so there is nothing to hedge
+            return firstAdmitted(models.subList(1, models.size()), call);
+          }
+          if (calls.size() == 1) {
+            throw e;
+          }
+          // The other call may still succeed
+          T result = completions.take().get();
+          won(1 - calls.indexOf(done));
+          return result;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CancellationException("Waiting for the orchestration call was interrupted");
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        }
+        throw new IllegalStateException(e.getCause());
+      } finally {
+        // The loser keeps generating upstream unless its HTTP request is aborted
+        calls.forEach(future -> future.cancel(true));
+        requests.forEach(AbortableRequest::abort);
+      }
+    }
+
+    private <T> Callable<T> abortable(List<AbortableRequest> requests, Supplier<T> call) {
+      AbortableRequest request = new AbortableRequest();
+      requests.add(request);
+      return () -> request.call(call);
+    }
+
+    /**
+     * Opens a completion stream against the first model whose circuit is not open.
+     *
+     * @param call The call, given the module configuration of the model to use.
+     * @return The stream, whose outcome is recorded once it has been read to the end or failed.
+     */
+    public Stream<String> stream(Function<OrchestrationModuleConfig, Stream<String>> call) {
+      CircuitOpenException rejected = null;
+      for (OrchestrationAiModel candidate : models) {
+        try {
+          return stream(candidate, call);
+        } catch (CircuitOpenException e) {
+          rejected = e;
+        }
+      }
+      throw rejected != null ? rejected : new CircuitOpenException("No candidate model left");
+    }
+
+    private Stream<String> stream(
+        OrchestrationAiModel model, Function<OrchestrationModuleConfig, Stream<String>> call) {
+      ModelStats modelStats = stats(model.getName());
+      modelStats.attempted();
+      long start = System.nanoTime();
+      Stream<String> deltas;
+      try {
+        deltas = call.apply(config(model));
+      } catch (CircuitOpenException e) {
+        throw e;
+      } catch (RuntimeException e) {
+        if (TransientFailures.isTransient(e)) {
+          modelStats.failure();
+        }
+        throw e;
+      }
+      OutcomeRecorder recorder = new OutcomeRecorder(deltas.iterator(), modelStats, start);
+      return StreamSupport.stream(recorder, false)
+          .onClose(
+              () -> {
+                recorder.closed = true;
+                deltas.close();
+              });
+    }
+
+    /**
+     * Records the outcome of a completion stream once it has ended.
+     *
+     * <p>A stream read to the end is a success, one whose next delta fails transiently is a
+     * failure. A stream that was closed first, by cancellation or at the deadline, records nothing:
+     * it ends early without saying anything about the model.
+     */
+    private static class OutcomeRecorder extends Spliterators.AbstractSpliterator<String> {
+      private final Iterator<String> deltas;
+      private final ModelStats modelStats;
+      private final long startNanos;
+      private volatile boolean closed;
+      private boolean done;
+
+      private OutcomeRecorder(Iterator<String> deltas, ModelStats modelStats, long startNanos) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.deltas = deltas;
+        this.modelStats = modelStats;
+        this.startNanos = startNanos;
+      }
+
+      @Override
+      public boolean tryAdvance(Consumer<? super String> action) {
+        if (done) {
+          return false;
+        }
+        String delta;
+        try {
+          if (!deltas.hasNext()) {
+            done = true;
+            if (!closed) {
+              modelStats.success(System.nanoTime() - startNanos);
+            }
+            return false;
+          }
+          delta = deltas.next();
+        } catch (RuntimeException e) {
+          done = true;
+          if (!closed && TransientFailures.isTransient(e)) {
+            modelStats.failure();
+          }
+          throw e;
+        }
+        // Failures of the consumer say nothing about the model
+        action.accept(delta);
+        return true;
+      }
+    }
+
+    /** Runs a call against the first of the models whose circuit is not open. */
+    private <T> T firstAdmitted(
+        List<OrchestrationAiModel> candidates, Function<OrchestrationModuleConfig, T> call) {
+      CircuitOpenException rejected = null;
+      for (OrchestrationAiModel candidate : candidates) {
+        try {
+          return timed(candidate, call);
+        } catch (CircuitOpenException e) {
+          rejected = e;
+        }
+      }
+      throw rejected != null ? rejected : new CircuitOpenException("No candidate model left");
+    }
+
+    private <T> T timed(OrchestrationAiModel model, Function<OrchestrationModuleConfig, T> call) {
+      ModelStats modelStats = stats(model.getName());
+      modelStats.attempted();
+      long start = System.nanoTime();
+      T result;
+      try {
+        result = call.apply(config(model));
+      } catch (CancellationException | CircuitOpenException e) {
+        // Lost the race, cancelled by the client or never sent, says nothing about the model
+        throw e;
+      } catch (RuntimeException e) {
+        // Neither does a request failing because it was aborted, or rejected as invalid
+        if (!Thread.currentThread().isInterrupted()
+            && !AbortableRequest.currentAborted()
+            && TransientFailures.isTransient(e)) {
+          modelStats.failure();
+        }
+        throw e;
+      }
+      modelStats.success(System.nanoTime() - start);
+      return result;
+    }
+
+    /** The delay after which the call is hedged, or -1 if it is not. */
+    private long hedgeDelayNanos() {
+      RoutingConfig.Hedging hedging = config.hedging();
+      if (!hedging.enabled() || models.size() < 2) {
+        return -1;
+      }
+      long quantile =
+          stats(model().getName()).quantileNanos(hedging.quantile(), hedging.minSamples());
+      return quantile < 0 ? -1 : Math.max(quantile, hedging.minDelay().toNanos());
+    }
+
+    private OrchestrationModuleConfig config(OrchestrationAiModel model) {
+      return KnownModels.MODULE_CONFIGS.get(model.getName());
+    }
+
+    private void hedged() {
+      Counter.builder("agent.routing.hedged")
+          .description("Orchestration calls sent again to another model because they were slow")
+          .tag("model", model().getName())
+          .register(registry)
+          .increment();
+    }
+
+    private void won(int index) {
+      Counter.builder("agent.routing.wins")
+          .description("Hedged orchestration calls by the call that finished first")
+          .tag("call", index == 0 ? "first" : "hedge")
+          .register(registry)
+          .increment();
+    }
+  }
+}
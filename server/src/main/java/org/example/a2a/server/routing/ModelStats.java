@@ -0,0 +1,86 @@
+package org.example.a2a.server.routing;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency and error statistics of one model, updated by every call routed to it.
+ *
+ * <p>Latency and error rate are exponentially weighted moving averages, so that the routing follows
+ * changes of a deployment within a few calls. Quantiles are taken from a window of the latest
+ * latencies.
+ */
+class ModelStats {
+  private static final int WINDOW = 256;
+
+  private final double alpha;
+  private final long[] window = new long[WINDOW];
+  private final AtomicLong lastAttemptNanos = new AtomicLong(System.nanoTime());
+  // Guarded by this
+  private int samples;
+  private volatile double latencyNanos;
+  private volatile double errorRate;
+
+  /**
+   * @param alpha The weight of the latest call in the moving averages.
+   */
+  ModelStats(double alpha) {
+    this.alpha = alpha;
+  }
+
+  synchronized void success(long nanos) {
+    window[samples % WINDOW] = nanos;
+    latencyNanos = samples == 0 ? nanos : latencyNanos + alpha * (nanos - latencyNanos);
+    errorRate -= alpha * errorRate;
+    samples++;
+  }
+
+  synchronized void failure() {
+    errorRate += alpha * (1 - errorRate);
+  }
+
+  /** Moving average of the latency, 0 while no call has completed. */
+  double latencyNanos() {
+    return latencyNanos;
+  }
+
+  double errorRate() {
+    return errorRate;
+  }
+
+  /**
+   * Returns a latency quantile of the latest calls.
+   *
+   * @param quantile The quantile, between 0 and 1.
+   * @param minSamples The number of calls needed for a meaningful result.
+   * @return The quantile, or -1 if fewer calls have completed.
+   */
+  synchronized long quantileNanos(double quantile, int minSamples) {
+    int size = Math.min(samples, WINDOW);
+    if (size < minSamples || size == 0) {
+      return -1;
+    }
+    long[] sorted = Arrays.copyOf(window, size);
+    Arrays.sort(sorted);
+    return sorted[Math.min(size - 1, (int) Math.ceil(quantile * size) - 1)];
+  }
+
+  /**
+   * Whether the model should receive requests.
+   *
+   * <p>An unhealthy model is let through once per probe interval, its error rate only recovers by
+   * succeeding calls.
+   */
+  boolean admits(double maxErrorRate, long probeIntervalNanos) {
+    if (errorRate <= maxErrorRate) {
+      return true;
+    }
+    long now = System.nanoTime();
+    long last = lastAttemptNanos.get();
+    return now - last >= probeIntervalNanos && lastAttemptNanos.compareAndSet(last, now);
+  }
+
+  void attempted() {
+    lastAttemptNanos.set(System.nanoTime());
+  }
+}
@@ -0,0 +1,52 @@
+package org.example.a2a.server.routing;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/** Candidate models per skill and how requests are routed and hedged between them. */
+@ConfigMapping(prefix = "agent.routing")
+public interface RoutingConfig {
+
+  /** Candidate models of skills without an entry in {@link #skills()}, by name, e.g. gpt-4o. */
+  @WithDefault("gpt-4o")
+  List<String> defaultModels();
+
+  /** Candidate models per skill id, by name. */
+  Map<String, List<String>> skills();
+
+  /** Weight of the latest call in the moving averages of latency and errors of a model. */
+  @WithDefault("0.2")
+  double ewmaAlpha();
+
+  /** Moving error rate above which a model is skipped while healthy candidates remain. */
+  @WithDefault("0.5")
+  double maxErrorRate();
+
+  /** How often an unhealthy model is given a request to find out whether it has recovered. */
+  @WithDefault("30s")
+  Duration probeInterval();
+
+  Hedging hedging();
+
+  interface Hedging {
+
+    /** Whether a second request is sent to the next candidate when the first one is slow. */
+    @WithDefault("false")
+    boolean enabled();
+
+    /** Latency quantile of the first model after which the hedged request is sent. */
+    @WithDefault("0.95")
+    double quantile();
+
+    /** Calls a model needs to have completed before its quantile is trusted for hedging. */
+    @WithDefault("20")
+    int minSamples();
+
+    /** Lower bound of the hedging delay, so that fast models are not hedged on jitter. */
+    @WithDefault("100ms")
+    Duration minDelay();
+  }
+}
@@ -0,0 +1,220 @@
+package org.example.a2a.server.scatter;
+
+import io.a2a.client.Client;
+import io.a2a.client.ClientEvent;
+import io.a2a.client.MessageEvent;
+import io.a2a.client.TaskEvent;
+import io.a2a.client.TaskUpdateEvent;
+import io.a2a.client.config.ClientConfig;
+import io.a2a.client.http.A2ACardResolver;
+import io.a2a.client.http.A2AHttpClient;
+import io.a2a.client.http.JdkA2AHttpClient;
+import io.a2a.client.transport.rest.RestTransport;
+import io.a2a.client.transport.rest.RestTransportConfig;
+import io.a2a.spec.A2AClientError;
+import io.a2a.spec.A2AClientException;
+import io.a2a.spec.AgentCard;
+import io.a2a.spec.Artifact;
+import io.a2a.spec.Message;
+import io.a2a.spec.Part;
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TextPart;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Clients of the downstream agents, sending sub-queries and completing a future per answer.
+ *
+ * <p>All agents share one HTTP client, so connections to each agent are pooled and reused across
+ * requests, and each agent has one A2A client for all requests. Every sub-query is sent with a
+ * context id of its own, and answers are correlated with their sub-query by it, as the client
+ * delivers events to consumers registered once per client.
+ *
+ * <p>Sub-queries are sent on virtual threads and wait for the downstream task to finish. When the
+ * deadline of a branch passes, or its future is cancelled, the request is interrupted.
+ */
+@Slf4j
+public class DownstreamAgents implements AutoCloseable {
+  private final ScatterGatherConfig config;
+  private final A2AHttpClient httpClient = new JdkA2AHttpClient();
+  private final Map<String, Client> clients = new ConcurrentHashMap<>();
+  private final Map<String, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+  private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+  private final Semaphore branches;
+  private final MeterRegistry registry;
+
+  /**
+   * @param config The downstream agents and the deadline of each branch.
+   * @param registry The registry of the branch metrics.
+   */
+  public DownstreamAgents(ScatterGatherConfig config, MeterRegistry registry) {
+    this.config = config;
+    this.branches = new Semaphore(config.maxConcurrentBranches());
+    this.registry = registry;
+    Gauge.builder("agent.scatter.branches.in.flight", pending, Map::size)
+        .description("Sub-queries waiting for the answer of a downstream agent")
+        .register(registry);
+  }
+
+  /** Returns the names of the configured agents. */
+  public List<String> names() {
+    return List.copyOf(config.agents().keySet());
+  }
+
+  /**
+   * Sends the sub-query of an agent derived from the text of a request.
+   *
+   * @param name The name of the agent.
+   * @param query The text of the request.
+   * @return A future completing with the text of the answer, or exceptionally if the agent cannot
+   *     be reached, fails or does not answer within the branch timeout. Cancelling it aborts the
+   *     request.
+   */
+  public CompletableFuture<String> ask(String name, String query) {
+    ScatterGatherConfig.Agent agent = config.agents().get(name);
+    CompletableFuture<String> answer = new CompletableFuture<>();
+    if (!branches.tryAcquire()) {
+      answer.completeExceptionally(
+          new IllegalStateException("Too many sub-queries in flight, " + name + " was skipped"));
+      return answer;
+    }
+    Message message =
+        new Message.Builder()
+            .role(Message.Role.USER)
+            .messageId(UUID.randomUUID().toString())
+            .contextId(UUID.randomUUID().toString())
+            .parts(List.of(new TextPart(agent.query().replace("{query}", query))))
+            .build();
+    pending.put(message.getContextId(), answer);
+    long start = System.nanoTime();
+    Future<?> send = senders.submit(() -> send(name, agent, message, answer));
+    answer.whenComplete(
+        (text, error) -> {
+          pending.remove(message.getContextId());
+          branches.release();
+          // Also interrupts the request once the deadline has passed
+          send.cancel(true);
+          Timer.builder("agent.scatter.branch")
+              .description("Time until a downstream agent answered its sub-query")
+              .tag("agent", name)
+              .tag("outcome", outcome(error))
+              .publishPercentileHistogram()
+              .register(registry)
+              .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        });
+    answer.orTimeout(config.branchTimeout().toNanos(), TimeUnit.NANOSECONDS);
+    return answer;
+  }
+
+  private void send(
+      String name,
+      ScatterGatherConfig.Agent agent,
+      Message message,
+      CompletableFuture<String> answer) {
+    try {
+      client(name, agent).sendMessage(message);
+      // A blocking send returns after the consumer has seen the final event
+      answer.completeExceptionally(
+          new IllegalStateException(name + " did not answer with a message or task"));
+    } catch (A2AClientError | A2AClientException | RuntimeException e) {
+      answer.completeExceptionally(e);
+    }
+  }
+
+  private Client client(String name, ScatterGatherConfig.Agent agent)
+      throws A2AClientError, A2AClientException {
+    Client client = clients.get(name);
+    if (client != null) {
+      return client;
+    }
+    // Resolved outside of the map, concurrent first requests may resolve the card twice
+    AgentCard card = new A2ACardResolver(httpClient, agent.url()).getAgentCard();
+    ClientConfig clientConfig =
+        new ClientConfig.Builder()
+            .setAcceptedOutputModes(List.of("text/plain"))
+            .setStreaming(false)
+            .build();
+    Client created =
+        Client.builder(card)
+            .clientConfig(clientConfig)
+            .withTransport(RestTransport.class, new RestTransportConfig(httpClient))
+            .addConsumers(List.of(this::onEvent))
+            .build();
+    Client previous = clients.putIfAbsent(name, created);
+    return previous != null ? previous : created;
+  }
+
+  private void onEvent(ClientEvent event, AgentCard card) {
+    if (event instanceof MessageEvent messageEvent) {
+      Message reply = messageEvent.getMessage();
+      complete(reply.getContextId(), text(reply.getParts().stream()));
+    } else if (event instanceof TaskEvent taskEvent) {
+      completeIfFinal(taskEvent.getTask());
+    } else if (event instanceof TaskUpdateEvent updateEvent) {
+      completeIfFinal(updateEvent.getTask());
+    }
+  }
+
+  private void completeIfFinal(Task task) {
+    if (!task.getStatus().state().isFinal()) {
+      return;
+    }
+    String artifacts =
+        text(
+            Optional.ofNullable(task.getArtifacts()).orElse(List.of()).stream()
+                .map(Artifact::parts)
+                .flatMap(List::stream));
+    if (task.getStatus().state() == TaskState.COMPLETED) {
+      complete(task.getContextId(), artifacts);
+      return;
+    }
+    CompletableFuture<String> answer = pending.get(task.getContextId());
+    if (answer != null) {
+      answer.completeExceptionally(
+          new IllegalStateException("Downstream task ended " + task.getStatus().state()));
+    }
+  }
+
+  private void complete(String contextId, String text) {
+    CompletableFuture<String> answer = pending.get(contextId);
+    if (answer != null) {
+      answer.complete(text);
+    }
+  }
+
+  private static String text(Stream<Part<?>> parts) {
+    return parts
+        .filter(TextPart.class::isInstance)
+        .map(part -> ((TextPart) part).getText())
+        .collect(Collectors.joining());
+  }
+
+  private static String outcome(Throwable error) {
+    if (error == null) {
+      return "answered";
+    }
+    return error instanceof TimeoutException ? "timeout" : "failed";
+  }
+
+  @Override
+  public void close() {
+    senders.shutdownNow();
+  }
+}
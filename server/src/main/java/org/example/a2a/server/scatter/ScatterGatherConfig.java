@@ -0,0 +1,40 @@
+package org.example.a2a.server.scatter;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+import java.util.Map;
+
+/** Downstream A2A agents a request is fanned out to, and the deadline of each branch. */
+@ConfigMapping(prefix = "agent.scatter-gather")
+public interface ScatterGatherConfig {
+
+  /**
+   * Whether requests are answered by the downstream agents instead of the orchestration service.
+   *
+   * <p>Read at build time to replace the agent executor, so changing it requires a rebuild.
+   */
+  @WithDefault("false")
+  boolean enabled();
+
+  /** Downstream agents by name, the name labels their artifacts and metrics. */
+  Map<String, Agent> agents();
+
+  /** How long a downstream agent may take to answer before its branch is given up. */
+  @WithDefault("10s")
+  Duration branchTimeout();
+
+  /** Maximum number of branches waiting for an answer at the same time, across all requests. */
+  @WithDefault("256")
+  int maxConcurrentBranches();
+
+  interface Agent {
+
+    /** Base URL of the agent, its agent card is resolved from there on first use. */
+    String url();
+
+    /** Sub-query sent to the agent, {@code {query}} is replaced by the text of the request. */
+    @WithDefault("{query}")
+    String query();
+  }
+}
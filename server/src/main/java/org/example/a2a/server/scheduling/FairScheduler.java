@@ -0,0 +1,437 @@
+package org.example.a2a.server.scheduling;
+
+import io.a2a.server.ServerCallContext;
+import io.a2a.server.agentexecution.RequestContext;
+import io.a2a.server.auth.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.example.a2a.server.execution.Bulkhead;
+import org.example.a2a.server.resilience.OrchestrationUnavailableException;
+
+/**
+ * Decides which waiting orchestration call goes upstream next, across tenants.
+ *
+ * <p>A tenant is the authenticated user of a request, unauthenticated requests share one tenant.
+ * Client-supplied ids such as message metadata or context ids are not trusted, a client could
+ * otherwise get a fresh bucket for every call. Each tenant has a token bucket refilled at {@code
+ * tokens-per-minute} with the estimated prompt tokens of its calls, so a few tenants with long
+ * conversation histories cannot use up the quota of the orchestration service on their own. A call
+ * whose tenant has run out of tokens waits, calls of other tenants overtake it.
+ *
+ * <p>Among the calls whose tenant has tokens left, the order is weighted fair queuing: each call is
+ * stamped with a virtual finish time, the finish time of the previous call of its tenant plus its
+ * tokens divided by the weight of the tenant, and the earliest finish time goes first. Calls with
+ * short prompts wait in a priority lane that is served before the others, except that after
+ * {@code priority-burst} short calls in a row one long call is let through.
+ *
+ * <p>A call that got its turn also takes a slot of the {@link Bulkhead}, which caps the calls in
+ * flight when scheduling is disabled. The permit of the call releases both.
+ */
+public class FairScheduler {
+  /** Tenant of requests without an authenticated user. */
+  public static final String ANONYMOUS_TENANT = "anonymous";
+  // Shared by new tenants while max-tenants tenants are active
+  private static final String OVERFLOW_TENANT = "overflow";
+
+  private static final Permit NO_OP = () -> {};
+  // Tenants without waiting calls are forgotten once their bucket has been full for this long
+  private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+  private final SchedulerConfig config;
+  private final Bulkhead bulkhead;
+  private final double tokensPerNano;
+  private final ReentrantLock lock = new ReentrantLock();
+  // All guarded by lock
+  private final Map<String, Tenant> tenants = new HashMap<>();
+  private final TreeSet<Waiter> priorityLane = new TreeSet<>(Waiter.ORDER);
+  private final TreeSet<Waiter> normalLane = new TreeSet<>(Waiter.ORDER);
+  private int inFlight;
+  private int priorityRun;
+  private double virtualTime;
+  private long sequence;
+  private long lastSweepNanos = System.nanoTime();
+
+  private final Timer priorityWait;
+  private final Timer normalWait;
+  private final Counter rejected;
+
+  /**
+   * @param config The concurrency, lanes, buckets and weights.
+   * @param bulkhead The bulkhead capping the calls in flight.
+   * @param registry The registry of the queue depth and wait time metrics.
+   */
+  public FairScheduler(SchedulerConfig config, Bulkhead bulkhead, MeterRegistry registry) {
+    this.config = config;
+    this.bulkhead = bulkhead;
+    this.tokensPerNano = config.tokensPerMinute() / (double) TimeUnit.MINUTES.toNanos(1);
+    this.priorityWait = waitTimer(registry, "priority");
+    this.normalWait = waitTimer(registry, "normal");
+    this.rejected =
+        Counter.builder("agent.scheduler.rejected")
+            .description("Orchestration calls that did not get their turn in time")
+            .register(registry);
+    Gauge.builder("agent.scheduler.queued", this, scheduler -> scheduler.queued(true))
+        .description("Orchestration calls waiting for their turn")
+        .tag("lane", "priority")
+        .register(registry);
+    Gauge.builder("agent.scheduler.queued", this, scheduler -> scheduler.queued(false))
+        .description("Orchestration calls waiting for their turn")
+        .tag("lane", "normal")
+        .register(registry);
+    Gauge.builder("agent.scheduler.in.flight", this, FairScheduler::inFlight)
+        .description("Orchestration calls let through by the scheduler and not finished yet")
+        .register(registry);
+  }
+
+  private static Timer waitTimer(MeterRegistry registry, String lane) {
+    return Timer.builder("agent.scheduler.wait")
+        .description("Time orchestration calls waited for their turn")
+        .tag("lane", lane)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  /**
+   * Resolves the tenant a request is accounted to.
+   *
+   * @param context The request context.
+   * @return The name of the authenticated user, or {@link #ANONYMOUS_TENANT}.
+   */
+  public static String tenantOf(RequestContext context) {
+    return Optional.ofNullable(context.getCallContext())
+        .map(ServerCallContext::getUser)
+        .filter(User::isAuthenticated)
+        .map(User::getUsername)
+        .orElse(ANONYMOUS_TENANT);
+  }
+
+  /**
+   * Waits until a call may go upstream.
+   *
+   * @param tenant The tenant the call is accounted to.
+   * @param promptTokens The estimated prompt tokens of the call.
+   * @return The permit of the call, to be closed once the call has finished.
+   * @throws OrchestrationUnavailableException If the call did not get its turn or a bulkhead slot
+   *     within the maximum wait.
+   * @throws CancellationException If the waiting thread was interrupted, e.g. by cancellation.
+   */
+  public Permit acquire(String tenant, int promptTokens) {
+    return request(tenant, promptTokens).await();
+  }
+
+  /**
+   * Prepares the turn of a call, so that its wait can be cancelled from another thread.
+   *
+   * @param tenant The tenant the call is accounted to.
+   * @param promptTokens The estimated prompt tokens of the call.
+   * @return The turn, to be awaited by the thread making the call.
+   */
+  public Turn request(String tenant, int promptTokens) {
+    return new Turn(tenant, promptTokens);
+  }
+
+  /** Waits until a call has been let through. Called with the lock held. */
+  private void awaitTurn(Waiter waiter, boolean priority, long deadline) {
+    try {
+      while (!waiter.granted) {
+        if (waiter.cancelled) {
+          dequeue(waiter, priority);
+          throw new CancellationException("The call was cancelled while waiting for its turn");
+        }
+        long now = System.nanoTime();
+        if (now - deadline >= 0) {
+          dequeue(waiter, priority);
+          rejected.increment();
+          throw new OrchestrationUnavailableException(
+              "The orchestration call did not get its turn in time, retry later");
+        }
+        // Woken by dispatches, or when the bucket of the tenant may have been refilled
+        waiter.turn.awaitNanos(Math.min(deadline - now, waiter.tenant.refillNanos(waiter.tokens)));
+        dispatch(System.nanoTime());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      if (!waiter.granted) {
+        dequeue(waiter, priority);
+        throw new CancellationException("Waiting for the turn of the call was interrupted");
+      }
+    }
+  }
+
+  private Waiter enqueue(String tenant, int tokens, boolean priority, long now) {
+    Tenant state = tenants.get(tenant);
+    if (state == null) {
+      if (tenants.size() >= config.maxTenants()) {
+        sweep(now);
+      }
+      // Beyond the bound, new tenants share one bucket instead of growing the map
+      String id = tenants.size() < config.maxTenants() ? tenant : OVERFLOW_TENANT;
+      state =
+          tenants.computeIfAbsent(
+              id,
+              key -> new Tenant(config.weights().getOrDefault(key, config.defaultWeight()), now));
+    }
+    double start = Math.max(virtualTime, state.lastFinish);
+    state.lastFinish = start + (double) Math.max(tokens, 1) / Math.max(state.weight, 1);
+    Waiter waiter = new Waiter(state, tokens, state.lastFinish, sequence++, lock.newCondition());
+    lane(priority).add(waiter);
+    state.waiting++;
+    return waiter;
+  }
+
+  /** Removes a call that gives up waiting. Called with the lock held. */
+  private void dequeue(Waiter waiter, boolean priority) {
+    if (lane(priority).remove(waiter)) {
+      waiter.tenant.waiting--;
+    }
+  }
+
+  private void release() {
+    lock.lock();
+    try {
+      inFlight--;
+      dispatch(System.nanoTime());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Lets waiting calls through while there is capacity. Called with the lock held. */
+  private void dispatch(long now) {
+    while (inFlight < config.maxConcurrent()) {
+      boolean longFirst = priorityRun >= config.priorityBurst() && !normalLane.isEmpty();
+      Waiter next = longFirst ? null : eligible(priorityLane, now);
+      if (next != null) {
+        priorityRun++;
+      } else {
+        next = eligible(normalLane, now);
+        if (next == null && longFirst) {
+          next = eligible(priorityLane, now);
+        }
+        if (next == null) {
+          break;
+        }
+        priorityRun = 0;
+      }
+      next.tenant.take(next.tokens);
+      virtualTime = Math.max(virtualTime, next.finish);
+      inFlight++;
+      next.granted = true;
+      next.turn.signal();
+    }
+    if (now - lastSweepNanos > IDLE_NANOS) {
+      sweep(now);
+    }
+  }
+
+  /** Forgets tenants with a full bucket and no waiting calls. Called with the lock held. */
+  private void sweep(long now) {
+    lastSweepNanos = now;
+    tenants.values().removeIf(tenant -> tenant.isIdle(now));
+  }
+
+  /** Removes and returns the first call in a lane whose tenant has tokens left. */
+  private Waiter eligible(TreeSet<Waiter> lane, long now) {
+    Iterator<Waiter> waiters = lane.iterator();
+    while (waiters.hasNext()) {
+      Waiter waiter = waiters.next();
+      if (waiter.tenant.hasTokens(waiter.tokens, now)) {
+        waiters.remove();
+        waiter.tenant.waiting--;
+        return waiter;
+      }
+    }
+    return null;
+  }
+
+  private TreeSet<Waiter> lane(boolean priority) {
+    return priority ? priorityLane : normalLane;
+  }
+
+  private double queued(boolean priority) {
+    lock.lock();
+    try {
+      return lane(priority).size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private double inFlight() {
+    lock.lock();
+    try {
+      return inFlight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** The turn of one orchestration call, which may be cancelled while its thread waits. */
+  public final class Turn {
+    private final String tenant;
+    private final int promptTokens;
+    // Guarded by lock
+    private Waiter waiter;
+    private boolean cancelled;
+
+    private Turn(String tenant, int promptTokens) {
+      this.tenant = tenant;
+      this.promptTokens = promptTokens;
+    }
+
+    /**
+     * Waits until the call may go upstream.
+     *
+     * @return The permit of the call, to be closed once the call has finished.
+     * @throws OrchestrationUnavailableException If the call did not get its turn or a bulkhead
+     *     slot within the maximum wait.
+     * @throws CancellationException If the turn was cancelled or the waiting thread interrupted.
+     */
+    public Permit await() {
+      Permit turn = awaitTurn();
+      try {
+        bulkhead.acquire();
+      } catch (RuntimeException e) {
+        turn.close();
+        throw e;
+      }
+      Permit permit =
+          () -> {
+            bulkhead.release();
+            turn.close();
+          };
+      if (isCancelled()) {
+        // Cancelled while waiting for the slot, which does not watch the turn
+        permit.close();
+        throw new CancellationException("The call was cancelled before its turn");
+      }
+      return permit;
+    }
+
+    private Permit awaitTurn() {
+      if (!config.enabled()) {
+        return NO_OP;
+      }
+      long start = System.nanoTime();
+      boolean priority = promptTokens <= config.shortPromptTokens();
+      lock.lock();
+      try {
+        if (cancelled) {
+          throw new CancellationException("The call was cancelled before its turn");
+        }
+        waiter = enqueue(tenant, promptTokens, priority, start);
+        dispatch(start);
+        awaitTurn(waiter, priority, start + config.maxWait().toNanos());
+      } finally {
+        lock.unlock();
+      }
+      (priority ? priorityWait : normalWait)
+          .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return FairScheduler.this::release;
+    }
+
+    private boolean isCancelled() {
+      lock.lock();
+      try {
+        return cancelled;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Stops waiting for the turn. Has no effect once the call has been let through, its permit is
+     * then closed by the thread making the call.
+     */
+    public void cancel() {
+      lock.lock();
+      try {
+        cancelled = true;
+        if (waiter != null && !waiter.granted) {
+          waiter.cancelled = true;
+          waiter.turn.signal();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /** Turn of one orchestration call, closing it lets the next call through. */
+  @FunctionalInterface
+  public interface Permit extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  /** Token bucket and virtual finish time of a tenant. Guarded by the lock of the scheduler. */
+  private class Tenant {
+    private final int weight;
+    private double tokens = config.burstTokens();
+    private long refilledNanos;
+    private double lastFinish;
+    private int waiting;
+
+    private Tenant(int weight, long now) {
+      this.weight = weight;
+      this.refilledNanos = now;
+    }
+
+    private boolean hasTokens(int needed, long now) {
+      tokens = Math.min(config.burstTokens(), tokens + (now - refilledNanos) * tokensPerNano);
+      refilledNanos = now;
+      // Prompts larger than the bucket go through once it is full instead of never
+      return tokens >= Math.min(needed, config.burstTokens());
+    }
+
+    /** Takes the tokens of a call, calls larger than the bucket leave it in debt. */
+    private void take(int needed) {
+      tokens -= needed;
+    }
+
+    /** Time until the bucket holds enough tokens for a call of the given size. */
+    private long refillNanos(int needed) {
+      double missing = Math.min(needed, config.burstTokens()) - tokens;
+      return missing <= 0 || tokensPerNano == 0 ? IDLE_NANOS : (long) (missing / tokensPerNano) + 1;
+    }
+
+    private boolean isIdle(long now) {
+      return waiting == 0 && hasTokens(config.burstTokens(), now);
+    }
+  }
+
+  /** A call waiting for its turn. */
+  private static final class Waiter {
+    private static final Comparator<Waiter> ORDER =
+        Comparator.<Waiter>comparingDouble(waiter -> waiter.finish)
+            .thenComparingLong(waiter -> waiter.sequence);
+
+    private final Tenant tenant;
+    private final int tokens;
+    private final double finish;
+    private final long sequence;
+    private final Condition turn;
+    private boolean granted;
+    private boolean cancelled;
+
+    private Waiter(Tenant tenant, int tokens, double finish, long sequence, Condition turn) {
+      this.tenant = tenant;
+      this.tokens = tokens;
+      this.finish = finish;
+      this.sequence = sequence;
+      this.turn = turn;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package org.example.a2a.server.scheduling;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.time.Duration;
+import java.util.Map;
+
+/** Order and rate in which orchestration calls of different tenants are let through. */
+@ConfigMapping(prefix = "agent.scheduler")
+public interface SchedulerConfig {
+
+  /** Whether calls are scheduled, otherwise they go upstream in arrival order. */
+  @WithDefault("false")
+  boolean enabled();
+
+  /** Maximum number of orchestration calls in flight, further ones wait in the scheduler. */
+  @WithDefault("32")
+  int maxConcurrent();
+
+  /** Maximum time a call waits for its turn before it fails. */
+  @WithDefault("30s")
+  Duration maxWait();
+
+  /** Estimated prompt tokens up to which a call is short and goes through the priority lane. */
+  @WithDefault("500")
+  int shortPromptTokens();
+
+  /**
+   * Short calls dispatched in a row while long ones are waiting, after which one long call goes
+   * first, so that a flood of short prompts cannot starve long ones.
+   */
+  @WithDefault("8")
+  int priorityBurst();
+
+  /** Estimated prompt tokens per minute refilled into the bucket of each tenant. */
+  @WithDefault("20000")
+  int tokensPerMinute();
+
+  /** Capacity of the bucket of each tenant, the prompt tokens a tenant may use in a burst. */
+  @WithDefault("40000")
+  int burstTokens();
+
+  /**
+   * Maximum number of tenants with their own bucket. While that many are active, calls of further
+   * tenants share one bucket. Tenants are forgotten once their bucket is full and no call waits.
+   */
+  @WithDefault("10000")
+  int maxTenants();
+
+  /** Weight of tenants without an entry in {@link #weights()}. */
+  @WithDefault("1")
+  int defaultWeight();
+
+  /** Share of upstream capacity per tenant id, relative to the weights of the other tenants. */
+  Map<String, Integer> weights();
+}
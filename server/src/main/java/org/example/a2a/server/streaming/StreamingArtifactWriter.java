@@ -0,0 +1,233 @@
+package org.example.a2a.server.streaming;
+
+import io.a2a.server.tasks.TaskUpdater;
+import io.a2a.spec.TextPart;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Forwards a stream of completion deltas to a task as appended artifact chunks.
+ *
+ * <p>Deltas are read from upstream on a separate thread and buffered. The calling thread drains the
+ * buffer and emits one chunk per drain, so deltas arriving while the event queue is blocked by a
+ * slow consumer are merged into the next chunk instead of piling up as individual events. Once the
+ * buffer is full, reading from upstream pauses until the queue has caught up.
+ *
+ * <p>With a coalescing window, a chunk is also held back while the queue is idle, until its first
+ * delta is older than the window or it has reached the size limit. At high token rates this turns
+ * many tiny events, each serialised and sent as its own SSE frame, into few larger ones. The last
+ * chunk, after which the task changes its status, is emitted as soon as the stream has ended.
+ *
+ * <p>Both threads wait on a lock rather than a monitor, so that on virtual threads a waiting reader
+ * or writer releases its carrier thread.
+ */
+public class StreamingArtifactWriter {
+  private static final String ARTIFACT_NAME = "response";
+
+  private final ChunkSink sink;
+  private final Executor readExecutor;
+  private final int maxBufferedChars;
+  private final long windowNanos;
+  private final int windowChars;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  // Signalled when the buffer has been drained or the writer closed
+  private final Condition drained = lock.newCondition();
+  // Signalled when a delta has been buffered or upstream is done
+  private final Condition buffered = lock.newCondition();
+  // All guarded by lock
+  private final StringBuilder buffer = new StringBuilder();
+  private long firstBufferedNanos;
+  private boolean upstreamDone;
+  private boolean closed;
+  private RuntimeException upstreamError;
+  private int deltas;
+  private int chunks;
+
+  /**
+   * @param updater The updater of the task receiving the chunks.
+   * @param readExecutor The executor used to read from upstream.
+   * @param maxBufferedChars Buffered characters after which reading from upstream pauses.
+   */
+  public StreamingArtifactWriter(TaskUpdater updater, Executor readExecutor, int maxBufferedChars) {
+    this(updater, readExecutor, maxBufferedChars, 0, 0);
+  }
+
+  /**
+   * @param updater The updater of the task receiving the chunks.
+   * @param readExecutor The executor used to read from upstream.
+   * @param maxBufferedChars Buffered characters after which reading from upstream pauses.
+   * @param windowNanos How long a chunk is held back for further deltas, 0 to emit it at once.
+   * @param windowChars Size at which a held back chunk is emitted before the window has passed.
+   */
+  public StreamingArtifactWriter(
+      TaskUpdater updater,
+      Executor readExecutor,
+      int maxBufferedChars,
+      long windowNanos,
+      int windowChars) {
+    this(appendingTo(updater), readExecutor, maxBufferedChars, windowNanos, windowChars);
+  }
+
+  StreamingArtifactWriter(
+      ChunkSink sink,
+      Executor readExecutor,
+      int maxBufferedChars,
+      long windowNanos,
+      int windowChars) {
+    this.sink = sink;
+    this.readExecutor = readExecutor;
+    this.maxBufferedChars = maxBufferedChars;
+    this.windowNanos = windowNanos;
+    this.windowChars = Math.min(windowChars, maxBufferedChars);
+  }
+
+  /**
+   * Writes all deltas to the task artifact and returns once the last chunk has been enqueued.
+   *
+   * @param deltas The completion deltas, closed when this method returns.
+   */
+  public void write(Stream<String> deltas) {
+    try (deltas) {
+      try {
+        readExecutor.execute(() -> read(deltas));
+        boolean append = false;
+        Chunk chunk;
+        do {
+          chunk = nextChunk();
+          sink.accept(chunk.text(), append, chunk.last());
+          append = true;
+        } while (!chunk.last());
+      } finally {
+        // Releases the reader if it waits for buffer space nobody will drain any more
+        lock.lock();
+        try {
+          closed = true;
+          drained.signalAll();
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+  }
+
+  /** Returns the number of deltas read from upstream so far. */
+  public int deltas() {
+    lock.lock();
+    try {
+      return deltas;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the number of chunks emitted so far, each one event on the queue. */
+  public int chunks() {
+    lock.lock();
+    try {
+      return chunks;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void read(Stream<String> deltas) {
+    try {
+      deltas.forEach(this::append);
+    } catch (RuntimeException e) {
+      lock.lock();
+      try {
+        upstreamError = e;
+      } finally {
+        lock.unlock();
+      }
+    } finally {
+      lock.lock();
+      try {
+        upstreamDone = true;
+        buffered.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void append(String delta) {
+    lock.lock();
+    try {
+      while (buffer.length() >= maxBufferedChars && !closed) {
+        drained.await();
+      }
+      if (closed) {
+        throw new CancellationException("The writer stopped forwarding the completion stream");
+      }
+      if (buffer.isEmpty()) {
+        firstBufferedNanos = System.nanoTime();
+      }
+      buffer.append(delta);
+      deltas++;
+      buffered.signalAll();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Reading the completion stream was interrupted");
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Chunk nextChunk() {
+    lock.lock();
+    try {
+      while (buffer.isEmpty() && !upstreamDone) {
+        buffered.await();
+      }
+      long remaining;
+      while (!upstreamDone
+          && buffer.length() < windowChars
+          && (remaining = firstBufferedNanos + windowNanos - System.nanoTime()) > 0) {
+        buffered.awaitNanos(remaining);
+      }
+      // Text read before upstream failed is still forwarded, the failure surfaces next time
+      if (upstreamError != null && buffer.isEmpty()) {
+        throw new CompletionException(upstreamError);
+      }
+      String text = buffer.toString();
+      buffer.setLength(0);
+      chunks++;
+      drained.signalAll();
+      return new Chunk(text, upstreamDone && upstreamError == null);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Waiting for the completion stream was interrupted");
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static ChunkSink appendingTo(TaskUpdater updater) {
+    String artifactId = UUID.randomUUID().toString();
+    return (text, append, last) ->
+        updater.addArtifact(
+            List.of(new TextPart(text)), artifactId, ARTIFACT_NAME, null, append, last);
+  }
+
+  private record Chunk(String text, boolean last) {}
+
+  /** Receives the chunks of the artifact in order. */
+  @FunctionalInterface
+  interface ChunkSink {
+
+    /**
+     * @param text The text of the chunk.
+     * @param append Whether the chunk is appended to the previous ones.
+     * @param last Whether it is the last chunk.
+     */
+    void accept(String text, boolean append, boolean last);
+  }
+}
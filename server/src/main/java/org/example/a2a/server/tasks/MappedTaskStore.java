@@ -0,0 +1,390 @@
+package org.example.a2a.server.tasks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.a2a.server.tasks.TaskStore;
+import io.a2a.spec.Task;
+import io.a2a.util.Utils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Task store backed by an append-only log of memory-mapped segment files.
+ *
+ * <p>Every save appends the serialised task to the active segment, every delete appends a
+ * tombstone. The heap only holds an index from task id to the location of the latest record, the
+ * tasks themselves stay in the mapped files and survive restarts, on which the index is rebuilt by
+ * replaying the segments in order.
+ *
+ * <p>A background job evicts tasks that have been in a final state for longer than the configured
+ * time to live, and tasks in any other state that have not been saved for longer than the idle
+ * time to live, e.g. because their execution died with the server. It also rewrites sealed
+ * segments whose share of live records has dropped below the compaction threshold, e.g. because
+ * the tasks in them were saved again or deleted. Tombstones count as live in that share while an
+ * older segment may still hold a record they delete. The active segment is forced to disk at a
+ * fixed interval, so that a crash of the machine loses at most that much of the log.
+ *
+ * <p>Record layout: length (int, written last so torn writes are ignored on replay), operation
+ * (byte), timestamp (long), final state flag (byte), id length (short), id, serialised task.
+ */
+@Slf4j
+public class MappedTaskStore implements TaskStore, AutoCloseable {
+  private static final byte PUT = 1;
+  private static final byte DELETE = 2;
+  private static final int HEADER_BYTES = Integer.BYTES + 1 + Long.BYTES + 1 + Short.BYTES;
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  private final TaskStoreConfig config;
+  private final Map<String, Location> index = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+  private final ScheduledExecutorService maintenance;
+  private final Timer compactions;
+
+  // Written under the lock of this, like all appends
+  private volatile Segment active;
+
+  public MappedTaskStore(TaskStoreConfig config, MeterRegistry registry) {
+    this.config = config;
+    try {
+      Files.createDirectories(config.directory());
+      recover();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot open task store in " + config.directory(), e);
+    }
+    active = segments.isEmpty() ? roll(0) : segments.lastEntry().getValue();
+
+    this.compactions =
+        Timer.builder("agent.task.store.compaction")
+            .description("Duration of task store eviction and compaction runs")
+            .register(registry);
+    Gauge.builder("agent.task.store.tasks", index, Map::size)
+        .description("Tasks held by the task store")
+        .register(registry);
+    Gauge.builder("agent.task.store.segments", segments, Map::size)
+        .description("Log segments of the task store")
+        .register(registry);
+
+    long interval = config.compactionInterval().toMillis();
+    long flushInterval = config.flushInterval().toMillis();
+    this.maintenance =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "task-store-maintenance");
+              thread.setDaemon(true);
+              return thread;
+            });
+    maintenance.scheduleWithFixedDelay(this::maintain, interval, interval, TimeUnit.MILLISECONDS);
+    maintenance.scheduleWithFixedDelay(
+        this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void save(Task task) {
+    byte[] payload;
+    try {
+      payload = Utils.OBJECT_MAPPER.writeValueAsBytes(task);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot serialise task " + task.getId(), e);
+    }
+    boolean finalState = task.getStatus() != null && task.getStatus().state().isFinal();
+    append(PUT, task.getId(), System.currentTimeMillis(), finalState, payload);
+  }
+
+  @Override
+  public Task get(String taskId) {
+    Location location = index.get(taskId);
+    if (location == null) {
+      return null;
+    }
+    byte[] payload = location.segment().read(location.payloadOffset(), location.payloadLength());
+    try {
+      return Utils.OBJECT_MAPPER.readValue(payload, Task.class);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot deserialise task " + taskId, e);
+    }
+  }
+
+  @Override
+  public void delete(String taskId) {
+    if (index.containsKey(taskId)) {
+      append(DELETE, taskId, System.currentTimeMillis(), false, new byte[0]);
+    }
+  }
+
+  @Override
+  public void close() {
+    maintenance.shutdownNow();
+    synchronized (this) {
+      active.buffer.force();
+    }
+  }
+
+  private synchronized void append(
+      byte operation, String taskId, long timestamp, boolean finalState, byte[] payload) {
+    byte[] id = taskId.getBytes(UTF_8);
+    int length = HEADER_BYTES + id.length + payload.length;
+    if (active.remaining() < length) {
+      active = roll(length);
+    }
+    int offset = active.write(operation, timestamp, finalState, id, payload, length);
+
+    Location previous;
+    if (operation == PUT) {
+      previous =
+          index.put(taskId, new Location(active, offset, length, id.length, timestamp, finalState));
+    } else {
+      previous = index.remove(taskId);
+      active.tombstoneBytes.addAndGet(length);
+    }
+    if (previous != null) {
+      previous.segment().deadBytes.addAndGet(previous.length());
+    }
+  }
+
+  private Segment roll(int minSize) {
+    int id = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+    Path file = config.directory().resolve(SEGMENT_PREFIX + "%08d".formatted(id) + SEGMENT_SUFFIX);
+    int size = Math.max(config.segmentSize(), minSize);
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      // Mapping beyond the end grows the file, the new region reads as zeros
+      Segment segment = new Segment(id, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+      if (active != null) {
+        active.buffer.force();
+      }
+      segments.put(id, segment);
+      return segment;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot create task store segment " + file, e);
+    }
+  }
+
+  private void recover() throws IOException {
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(config.directory())) {
+      files =
+          listing
+              .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+              .sorted()
+              .toList();
+    }
+    for (Path file : files) {
+      String name = file.getFileName().toString();
+      int id =
+          Integer.parseInt(
+              name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+      Segment segment;
+      try (FileChannel channel =
+          FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        segment =
+            new Segment(id, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+      }
+      segment.position = replay(segment);
+      segments.put(id, segment);
+    }
+    log.info("Recovered {} tasks from {} segments", index.size(), segments.size());
+  }
+
+  /** Applies all records of a segment to the index and returns the end of the last record. */
+  private int replay(Segment segment) {
+    MappedByteBuffer buffer = segment.buffer;
+    int position = 0;
+    while (position + HEADER_BYTES <= buffer.capacity()) {
+      int length = buffer.getInt(position);
+      if (length < HEADER_BYTES || position + length > buffer.capacity()) {
+        break;
+      }
+      byte operation = buffer.get(position + 4);
+      long timestamp = buffer.getLong(position + 5);
+      boolean finalState = buffer.get(position + 13) != 0;
+      short idLength = buffer.getShort(position + 14);
+      String taskId = new String(segment.read(position + HEADER_BYTES, idLength), UTF_8);
+
+      Location previous;
+      if (operation == PUT) {
+        previous =
+            index.put(
+                taskId, new Location(segment, position, length, idLength, timestamp, finalState));
+      } else {
+        previous = index.remove(taskId);
+        segment.tombstoneBytes.addAndGet(length);
+      }
+      if (previous != null) {
+        previous.segment().deadBytes.addAndGet(previous.length());
+      }
+      position += length;
+    }
+    return position;
+  }
+
+  /** Evicts expired tasks and compacts sealed segments, package-private for tests. */
+  void maintain() {
+    try {
+      compactions.record(
+          () -> {
+            evictExpired();
+            Segment current = active;
+            int oldest = segments.firstKey();
+            segments.values().stream()
+                .filter(segment -> segment != current)
+                .filter(
+                    segment ->
+                        segment.liveRatio(segment.id == oldest) < config.compactionThreshold())
+                .toList()
+                .forEach(this::compact);
+          });
+    } catch (RuntimeException e) {
+      log.warn("Task store maintenance failed", e);
+    }
+  }
+
+  private void flush() {
+    try {
+      // Without the lock, records appended meanwhile are written by the next flush
+      active.buffer.force();
+    } catch (RuntimeException e) {
+      log.warn("Flushing the task store failed", e);
+    }
+  }
+
+  private void evictExpired() {
+    long now = System.currentTimeMillis();
+    long finalCutoff = now - config.ttl().toMillis();
+    long idleCutoff = now - config.idleTtl().toMillis();
+    index.forEach(
+        (taskId, location) -> {
+          long cutoff = location.finalState() ? finalCutoff : idleCutoff;
+          if (location.timestamp() < cutoff) {
+            synchronized (this) {
+              // Only if the task was not saved again in the meantime
+              if (index.get(taskId) == location) {
+                append(DELETE, taskId, System.currentTimeMillis(), false, new byte[0]);
+              }
+            }
+          }
+        });
+  }
+
+  /** Moves the live records of a sealed segment to the active one and deletes the segment. */
+  private synchronized void compact(Segment segment) {
+    boolean olderSegmentsExist = segments.firstKey() < segment.id;
+    MappedByteBuffer buffer = segment.buffer;
+    int position = 0;
+    while (position < segment.position) {
+      int length = buffer.getInt(position);
+      byte operation = buffer.get(position + 4);
+      long timestamp = buffer.getLong(position + 5);
+      boolean finalState = buffer.get(position + 13) != 0;
+      short idLength = buffer.getShort(position + 14);
+      String taskId = new String(segment.read(position + HEADER_BYTES, idLength), UTF_8);
+      Location current = index.get(taskId);
+
+      boolean live =
+          current != null && current.segment() == segment && current.offset() == position;
+      // A tombstone must survive as long as an older segment may hold a record it deletes
+      boolean neededTombstone = operation == DELETE && current == null && olderSegmentsExist;
+      if (live || neededTombstone) {
+        byte[] payload =
+            segment.read(position + HEADER_BYTES + idLength, length - HEADER_BYTES - idLength);
+        append(operation, taskId, timestamp, finalState, payload);
+      }
+      position += length;
+    }
+
+    segments.remove(segment.id);
+    try {
+      Files.deleteIfExists(segment.file);
+    } catch (IOException e) {
+      log.warn("Cannot delete compacted task store segment {}", segment.file, e);
+    }
+  }
+
+  /** Location of the latest record of a task. */
+  private record Location(
+      Segment segment, int offset, int length, int idLength, long timestamp, boolean finalState) {
+
+    int payloadOffset() {
+      return offset + HEADER_BYTES + idLength;
+    }
+
+    int payloadLength() {
+      return length - HEADER_BYTES - idLength;
+    }
+  }
+
+  private static final class Segment {
+    private final int id;
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final AtomicLong deadBytes = new AtomicLong();
+    // Tombstones are only dead once no older segment may hold a record they delete
+    private final AtomicLong tombstoneBytes = new AtomicLong();
+    // Guarded by the store
+    private int position;
+
+    private Segment(int id, Path file, MappedByteBuffer buffer) {
+      this.id = id;
+      this.file = file;
+      this.buffer = buffer;
+    }
+
+    int remaining() {
+      return buffer.capacity() - position;
+    }
+
+    /**
+     * Returns the share of bytes compaction would keep, 0 for a sealed segment left empty because
+     * the first record did not fit into it.
+     *
+     * @param oldest Whether no older segment exists, compaction then drops the tombstones.
+     */
+    double liveRatio(boolean oldest) {
+      long dead = deadBytes.get() + (oldest ? tombstoneBytes.get() : 0);
+      return position == 0 ? 0 : 1 - (double) dead / position;
+    }
+
+    int write(
+        byte operation, long timestamp, boolean finalState, byte[] id, byte[] payload, int length) {
+      int offset = position;
+      buffer.put(offset + 4, operation);
+      buffer.putLong(offset + 5, timestamp);
+      buffer.put(offset + 13, (byte) (finalState ? 1 : 0));
+      buffer.putShort(offset + 14, (short) id.length);
+      buffer.put(offset + HEADER_BYTES, id);
+      buffer.put(offset + HEADER_BYTES + id.length, payload);
+      // The length commits the record
+      buffer.putInt(offset, length);
+      position += length;
+      return offset;
+    }
+
+    byte[] read(int offset, int length) {
+      byte[] bytes = new byte[length];
+      buffer.get(offset, bytes);
+      return bytes;
+    }
+  }
+}
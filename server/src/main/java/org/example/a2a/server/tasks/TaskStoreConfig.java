@@ -0,0 +1,46 @@
+package org.example.a2a.server.tasks;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/** Settings of the task store. */
+@ConfigMapping(prefix = "agent.task-store")
+public interface TaskStoreConfig {
+
+  /**
+   * Either {@code memory} for the SDK's in-memory store or {@code mapped} for {@link
+   * MappedTaskStore}. Read at build time, changing it requires a rebuild.
+   */
+  @WithDefault("memory")
+  String type();
+
+  /** Directory holding the log segments. */
+  @WithDefault("data/tasks")
+  Path directory();
+
+  /** Size of a log segment, records larger than this get a segment of their own. */
+  @WithDefault("67108864")
+  int segmentSize();
+
+  /** Time after which tasks in a final state are evicted. */
+  @WithDefault("24h")
+  Duration ttl();
+
+  /** Time after which tasks in any other state are evicted if they have not been saved again. */
+  @WithDefault("7d")
+  Duration idleTtl();
+
+  /** Interval of the background eviction and compaction. */
+  @WithDefault("5m")
+  Duration compactionInterval();
+
+  /** Sealed segments whose share of live bytes falls below this ratio are compacted. */
+  @WithDefault("0.5")
+  double compactionThreshold();
+
+  /** Interval at which records appended to the active segment are forced to disk. */
+  @WithDefault("1s")
+  Duration flushInterval();
+}
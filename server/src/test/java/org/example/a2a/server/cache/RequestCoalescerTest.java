@@ -0,0 +1,172 @@
+package org.example.a2a.server.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.example.a2a.server.orchestration.AbortableRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RequestCoalescerTest {
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+  private final RequestCoalescer<String> coalescer = new RequestCoalescer<>(registry);
+  // Callers block, so they must not depend on the size of the common pool
+  private final ExecutorService callers = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void shutdownCallers() throws InterruptedException {
+    callers.shutdownNow();
+    callers.awaitTermination(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void failureOfTheSharedCallReachesEveryCaller() throws InterruptedException {
+    CountDownLatch fail = new CountDownLatch(1);
+    CompletableFuture<String> leader =
+        CompletableFuture.supplyAsync(
+            () ->
+                coalescer.execute(
+                    "key",
+                    () -> {
+                      await(fail);
+                      throw new IllegalStateException("Upstream failed");
+                    }),
+            callers);
+    awaitInFlight(1);
+    CompletableFuture<String> follower =
+        CompletableFuture.supplyAsync(() -> coalescer.execute("key", () -> "not called"), callers);
+    awaitCoalesced(1);
+
+    fail.countDown();
+
+    assertTrue(failure(leader) instanceof IllegalStateException);
+    assertTrue(failure(follower) instanceof IllegalStateException);
+    awaitInFlight(0);
+  }
+
+  @Test
+  void followerRunsTheCallAgainWhenTheLeaderIsAborted() throws Exception {
+    AbortableRequest leaderRequest = new AbortableRequest();
+    CountDownLatch aborted = new CountDownLatch(1);
+    CompletableFuture<String> leader =
+        CompletableFuture.supplyAsync(
+            () ->
+                leaderRequest.call(
+                    () ->
+                        coalescer.execute(
+                            "key",
+                            () -> {
+                              // The aborted HTTP request fails with an I/O error
+                              await(aborted);
+                              throw new UncheckedIOException(new IOException("Socket closed"));
+                            })),
+            callers);
+    awaitInFlight(1);
+    CompletableFuture<String> follower =
+        CompletableFuture.supplyAsync(() -> coalescer.execute("key", () -> "follower"), callers);
+    awaitCoalesced(1);
+
+    // The deadline of the leader passes
+    leaderRequest.abort();
+    aborted.countDown();
+
+    assertTrue(failure(leader) instanceof UncheckedIOException);
+    assertEquals("follower", follower.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void cancelledFollowerLeavesTheSharedCallRunning() throws Exception {
+    CountDownLatch finish = new CountDownLatch(1);
+    CompletableFuture<String> leader =
+        CompletableFuture.supplyAsync(
+            () ->
+                coalescer.execute(
+                    "key",
+                    () -> {
+                      await(finish);
+                      return "shared";
+                    }),
+            callers);
+    awaitInFlight(1);
+    CompletableFuture<Throwable> followerFailure = new CompletableFuture<>();
+    Thread follower =
+        Thread.ofPlatform()
+            .start(() -> followerFailure.complete(call(() -> coalescer.execute("key", () -> ""))));
+    awaitCoalesced(1);
+
+    follower.interrupt();
+
+    assertTrue(followerFailure.get(5, TimeUnit.SECONDS) instanceof CancellationException);
+    finish.countDown();
+    assertEquals("shared", leader.get(5, TimeUnit.SECONDS));
+  }
+
+  private static Throwable call(Supplier<String> call) {
+    try {
+      call.get();
+      return null;
+    } catch (RuntimeException e) {
+      return e;
+    }
+  }
+
+  private void awaitInFlight(int expected) throws InterruptedException {
+    awaitMeter("agent.orchestration.coalescer.in.flight", expected);
+  }
+
+  private void awaitCoalesced(int expected) throws InterruptedException {
+    awaitMeter("agent.orchestration.coalesced", expected);
+    // The follower counts itself just before it waits for the shared call
+    Thread.sleep(20);
+  }
+
+  private void awaitMeter(String name, int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (value(name) != expected) {
+      if (System.nanoTime() - deadline > 0) {
+        fail("Expected " + name + " to be " + expected + ", found " + value(name));
+      }
+      Thread.sleep(1);
+    }
+  }
+
+  private double value(String name) {
+    return registry.get(name).meter().measure().iterator().next().getValue();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      if (!latch.await(5, TimeUnit.SECONDS)) {
+        throw new IllegalStateException("Timed out waiting for the latch");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted waiting for the latch");
+    }
+  }
+
+  private static Throwable failure(CompletableFuture<?> future) throws InterruptedException {
+    try {
+      future.get(5, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      return e.getCause();
+    } catch (TimeoutException e) {
+      fail("The call did not finish");
+    }
+    return fail("The call did not fail");
+  }
+}
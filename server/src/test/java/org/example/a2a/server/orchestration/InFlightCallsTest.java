@@ -0,0 +1,140 @@
+package org.example.a2a.server.orchestration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import io.a2a.spec.TaskNotCancelableError;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.example.a2a.server.resilience.OrchestrationUnavailableException;
+import org.example.a2a.server.resilience.ResilienceConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class InFlightCallsTest {
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+  private final ExecutorService callExecutor = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void shutdownExecutor() throws InterruptedException {
+    callExecutor.shutdownNow();
+    callExecutor.awaitTermination(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void cancelReleasesTheWaiterAndInterruptsTheCall() throws Exception {
+    InFlightCalls inFlightCalls = inFlightCalls(Duration.ofMinutes(1));
+    InFlightCalls.Call call = inFlightCalls.register("task");
+    CountDownLatch started = new CountDownLatch(1);
+    CompletableFuture<Boolean> interrupted = new CompletableFuture<>();
+    CompletableFuture<Object> waiter =
+        CompletableFuture.supplyAsync(
+            () ->
+                call.await(
+                    () -> {
+                      started.countDown();
+                      try {
+                        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                        interrupted.complete(false);
+                      } catch (InterruptedException e) {
+                        interrupted.complete(true);
+                      }
+                      return null;
+                    }));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    assertTrue(inFlightCalls.cancel("task"));
+
+    Throwable failure = failure(waiter);
+    assertTrue(failure instanceof CancellationException, "Failed with " + failure);
+    assertTrue(interrupted.get(5, TimeUnit.SECONDS));
+    assertTrue(call.isCancelled());
+    assertFalse(call.finish());
+    call.close();
+    assertEquals(0, inFlight());
+  }
+
+  @Test
+  void finishedCallCannotBeCancelled() {
+    InFlightCalls inFlightCalls = inFlightCalls(Duration.ofMinutes(1));
+    InFlightCalls.Call call = inFlightCalls.register("task");
+
+    assertEquals("done", call.await(() -> "done"));
+    assertTrue(call.finish());
+
+    assertThrows(TaskNotCancelableError.class, () -> inFlightCalls.cancel("task"));
+    call.close();
+    // Once closed the call is no longer in flight at all
+    assertFalse(inFlightCalls.cancel("task"));
+  }
+
+  @Test
+  void expiredCallFailsWithTheDeadline() {
+    InFlightCalls inFlightCalls = inFlightCalls(Duration.ofMillis(50));
+    InFlightCalls.Call call = inFlightCalls.register("task");
+
+    assertThrows(
+        OrchestrationUnavailableException.class,
+        () ->
+            call.await(
+                () -> {
+                  try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                  return null;
+                }));
+
+    assertTrue(call.isExpired());
+    assertFalse(call.isCancelled());
+    assertEquals(1, registry.get("agent.resilience.deadline.exceeded").counter().count());
+    call.close();
+  }
+
+  @Test
+  void abortIsSeenByTheCallAndOnlyWithinIt() {
+    AbortableRequest request = new AbortableRequest();
+    request.abort();
+
+    assertTrue(request.isAborted());
+    assertTrue(request.call(AbortableRequest::currentAborted));
+    assertFalse(AbortableRequest.currentAborted());
+    assertFalse(new AbortableRequest().call(AbortableRequest::currentAborted));
+  }
+
+  private InFlightCalls inFlightCalls(Duration defaultTimeout) {
+    return new InFlightCalls(
+        callExecutor, new TestDeadline(defaultTimeout, Duration.ofMinutes(5)), registry);
+  }
+
+  private double inFlight() {
+    return registry.get("agent.orchestration.in.flight").gauge().value();
+  }
+
+  private static Throwable failure(CompletableFuture<?> future) throws InterruptedException {
+    try {
+      future.get(5, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      return e.getCause();
+    } catch (TimeoutException e) {
+      fail("The waiter was not released");
+    }
+    return fail("The call did not fail");
+  }
+
+  private record TestDeadline(Duration defaultTimeout, Duration maxTimeout)
+      implements ResilienceConfig.Deadline {}
+}
@@ -0,0 +1,95 @@
+package org.example.a2a.server.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void opensWhenTheFailureRateReachesTheThreshold() {
+    CircuitBreaker breaker = breaker(Duration.ofHours(1), 1);
+
+    record(breaker, false, false, true);
+    // Below the minimum number of calls the circuit stays closed
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    record(breaker, true);
+
+    assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    assertFalse(breaker.tryAcquire());
+  }
+
+  @Test
+  void successfulTrialsCloseTheCircuit() {
+    CircuitBreaker breaker = breaker(Duration.ZERO, 2);
+    record(breaker, true, true, true, true);
+
+    assertTrue(breaker.tryAcquire());
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    assertTrue(breaker.tryAcquire());
+    // Both trial slots are taken until their outcome is reported
+    assertFalse(breaker.tryAcquire());
+    breaker.onSuccess();
+    breaker.onSuccess();
+
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+  }
+
+  @Test
+  void failedTrialOpensTheCircuitAgain() {
+    CircuitBreaker breaker = breaker(Duration.ZERO, 2);
+    record(breaker, true, true, true, true);
+
+    assertTrue(breaker.tryAcquire());
+    breaker.onFailure();
+
+    assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+  }
+
+  @Test
+  void ignoredTrialFreesItsSlotWithoutDeciding() {
+    CircuitBreaker breaker = breaker(Duration.ZERO, 1);
+    record(breaker, true, true, true, true);
+
+    assertTrue(breaker.tryAcquire());
+    assertFalse(breaker.tryAcquire());
+    // Aborted by cancellation, says nothing about the service
+    breaker.onIgnored();
+
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    assertTrue(breaker.tryAcquire());
+  }
+
+  /** Makes calls with the given outcomes while the circuit is closed. */
+  private static void record(CircuitBreaker breaker, boolean... failures) {
+    for (boolean failure : failures) {
+      assertTrue(breaker.tryAcquire());
+      if (failure) {
+        breaker.onFailure();
+      } else {
+        breaker.onSuccess();
+      }
+    }
+  }
+
+  /** A window of four calls, opening at half of them failed. */
+  private CircuitBreaker breaker(Duration openDuration, int halfOpenCalls) {
+    return new CircuitBreaker(
+        new TestConfig(true, 0.5, 4, 4, openDuration, halfOpenCalls), registry, "test-model");
+  }
+
+  private record TestConfig(
+      boolean enabled,
+      double failureRateThreshold,
+      int windowSize,
+      int minimumCalls,
+      Duration openDuration,
+      int halfOpenCalls)
+      implements ResilienceConfig.CircuitBreaker {}
+}
@@ -0,0 +1,52 @@
+package org.example.a2a.server.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void savedUpRetriesAreSpentThenEarnedBackByCalls() {
+    RetryBudget budget = new RetryBudget(config(0.5, 2), registry);
+
+    assertTrue(budget.tryWithdraw());
+    assertTrue(budget.tryWithdraw());
+    assertFalse(budget.tryWithdraw());
+
+    // Half a retry per call
+    budget.deposit();
+    assertFalse(budget.tryWithdraw());
+    budget.deposit();
+    assertTrue(budget.tryWithdraw());
+  }
+
+  @Test
+  void balanceIsCappedAfterAHealthyPeriod() {
+    RetryBudget budget = new RetryBudget(config(0.5, 2), registry);
+
+    for (int i = 0; i < 100; i++) {
+      budget.deposit();
+    }
+
+    assertEquals(2, registry.get("agent.resilience.retry.budget").gauge().value());
+  }
+
+  private static ResilienceConfig.Retry config(double budgetRatio, int maxBudget) {
+    return new TestConfig(3, Duration.ofMillis(200), Duration.ofSeconds(2), budgetRatio, maxBudget);
+  }
+
+  private record TestConfig(
+      int maxAttempts,
+      Duration initialBackoff,
+      Duration maxBackoff,
+      double budgetRatio,
+      int maxBudget)
+      implements ResilienceConfig.Retry {}
+}
@@ -0,0 +1,217 @@
+package org.example.a2a.server.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import org.example.a2a.server.execution.Bulkhead;
+import org.example.a2a.server.execution.ExecutionConfig;
+import org.example.a2a.server.resilience.OrchestrationUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class FairSchedulerTest {
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+  private final List<String> granted = Collections.synchronizedList(new ArrayList<>());
+  private final List<Thread> threads = new ArrayList<>();
+
+  @AfterEach
+  void joinThreads() throws InterruptedException {
+    for (Thread thread : threads) {
+      thread.interrupt();
+      thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+  }
+
+  @Test
+  void tenantOutOfTokensIsOvertakenUntilItsBucketIsRefilled() throws InterruptedException {
+    // 100 tokens per second, a bucket of 100 tokens
+    FairScheduler scheduler = scheduler(config(6000, 100, 0, 8, Map.of()));
+
+    FairScheduler.Permit first = scheduler.acquire("a", 100);
+    // Same virtual finish time as the call of b, but enqueued first
+    long emptied = System.nanoTime();
+    enqueue(scheduler, "a", 100);
+    enqueue(scheduler, "b", 100);
+    first.close();
+
+    awaitGranted(2);
+    assertEquals(List.of("b", "a"), granted);
+    long refillMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - emptied);
+    assertTrue(refillMillis >= 500, "a went again after " + refillMillis + " ms");
+  }
+
+  @Test
+  void tenantsShareCapacityByWeight() throws InterruptedException {
+    FairScheduler scheduler = scheduler(config(1_000_000, 1_000_000, 0, 8, Map.of("a", 2)));
+
+    FairScheduler.Permit holder = scheduler.acquire("holder", 1);
+    for (int i = 0; i < 3; i++) {
+      enqueue(scheduler, "a", 100);
+      enqueue(scheduler, "b", 100);
+    }
+    holder.close();
+
+    awaitGranted(6);
+    // a finishes a call every 50 virtual tokens, b every 100
+    assertEquals(List.of("a", "b", "a", "a", "b", "b"), granted);
+  }
+
+  @Test
+  void longCallGoesFirstAfterPriorityBurst() throws InterruptedException {
+    FairScheduler scheduler = scheduler(config(1_000_000, 1_000_000, 10, 2, Map.of()));
+
+    // A long call, so that the holder does not count towards the priority burst
+    FairScheduler.Permit holder = scheduler.acquire("holder", 100);
+    enqueue(scheduler, "long", 100);
+    for (int i = 1; i <= 4; i++) {
+      enqueue(scheduler, "short-" + i, 5);
+    }
+    holder.close();
+
+    awaitGranted(5);
+    assertEquals(List.of("short-1", "short-2", "long", "short-3", "short-4"), granted);
+  }
+
+  @Test
+  void cancelledTurnStopsWaiting() throws InterruptedException {
+    FairScheduler scheduler = scheduler(config(1_000_000, 1_000_000, 0, 8, Map.of()));
+
+    FairScheduler.Permit holder = scheduler.acquire("holder", 1);
+    FairScheduler.Turn turn = scheduler.request("a", 100);
+    List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+    Thread waiting =
+        Thread.ofPlatform()
+            .start(
+                () -> {
+                  try (FairScheduler.Permit permit = turn.await()) {
+                    granted.add("a");
+                  } catch (CancellationException e) {
+                    failures.add(e);
+                  }
+                });
+    threads.add(waiting);
+    awaitQueued(1);
+    turn.cancel();
+    waiting.join(TimeUnit.SECONDS.toMillis(5));
+
+    assertEquals(1, failures.size());
+    assertEquals(0, queued());
+    holder.close();
+    assertTrue(granted.isEmpty());
+  }
+
+  /** Starts a call of a tenant that records its turn, and waits until it is queued. */
+  private void enqueue(FairScheduler scheduler, String tenant, int tokens)
+      throws InterruptedException {
+    int before = queued();
+    Thread thread =
+        Thread.ofPlatform()
+            .start(
+                () -> {
+                  try (FairScheduler.Permit permit = scheduler.acquire(tenant, tokens)) {
+                    granted.add(tenant);
+                  }
+                });
+    threads.add(thread);
+    awaitQueued(before + 1);
+  }
+
+  private void awaitQueued(int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (queued() != expected) {
+      if (System.nanoTime() - deadline > 0) {
+        fail("Expected " + expected + " queued calls, found " + queued());
+      }
+      Thread.sleep(1);
+    }
+  }
+
+  private void awaitGranted(int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (granted.size() < expected) {
+      if (System.nanoTime() - deadline > 0) {
+        fail("Expected " + expected + " granted calls, found " + granted);
+      }
+      Thread.sleep(1);
+    }
+  }
+
+  @Test
+  void bulkheadCapsCallsInFlightWhenSchedulingIsDisabled() {
+    TestConfig disabled =
+        new TestConfig(false, 1, Duration.ofSeconds(30), 0, 8, 1, 1, 100, 1, Map.of());
+    FairScheduler scheduler =
+        new FairScheduler(
+            disabled,
+            new Bulkhead(new TestBulkheadConfig(1, 0, Duration.ofSeconds(30)), registry),
+            registry);
+
+    FairScheduler.Permit first = scheduler.acquire("a", 100);
+    // No queue, so the second call is rejected at once instead of waiting
+    assertThrows(OrchestrationUnavailableException.class, () -> scheduler.acquire("b", 100));
+    first.close();
+    scheduler.acquire("b", 100).close();
+  }
+
+  private FairScheduler scheduler(SchedulerConfig config) {
+    // The scheduler is the tighter limit in these tests
+    Bulkhead bulkhead =
+        new Bulkhead(new TestBulkheadConfig(100, 100, Duration.ofSeconds(30)), registry);
+    return new FairScheduler(config, bulkhead, registry);
+  }
+
+  private int queued() {
+    return (int)
+        registry.find("agent.scheduler.queued").gauges().stream()
+            .mapToDouble(Gauge::value)
+            .sum();
+  }
+
+  /** One call at a time, so that the order of the turns is observable. */
+  private static SchedulerConfig config(
+      int tokensPerMinute,
+      int burstTokens,
+      int shortPromptTokens,
+      int priorityBurst,
+      Map<String, Integer> weights) {
+    return new TestConfig(
+        true,
+        1,
+        Duration.ofSeconds(30),
+        shortPromptTokens,
+        priorityBurst,
+        tokensPerMinute,
+        burstTokens,
+        100,
+        1,
+        weights);
+  }
+
+  private record TestConfig(
+      boolean enabled,
+      int maxConcurrent,
+      Duration maxWait,
+      int shortPromptTokens,
+      int priorityBurst,
+      int tokensPerMinute,
+      int burstTokens,
+      int maxTenants,
+      int defaultWeight,
+      Map<String, Integer> weights)
+      implements SchedulerConfig {}
+
+  private record TestBulkheadConfig(int maxConcurrent, int maxQueued, Duration maxWait)
+      implements ExecutionConfig.BulkheadConfig {}
+}
@@ -0,0 +1,142 @@
+package org.example.a2a.server.streaming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class StreamingArtifactWriterTest {
+  private final ExecutorService readExecutor = Executors.newCachedThreadPool();
+  private final List<String> chunks = Collections.synchronizedList(new ArrayList<>());
+
+  @AfterEach
+  void shutdownReader() throws InterruptedException {
+    readExecutor.shutdownNow();
+    readExecutor.awaitTermination(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void readingPausesWhileTheBufferIsFull() throws InterruptedException {
+    AtomicInteger read = new AtomicInteger();
+    CountDownLatch consumerBlocked = new CountDownLatch(1);
+    CountDownLatch releaseConsumer = new CountDownLatch(1);
+    StreamingArtifactWriter writer =
+        new StreamingArtifactWriter(
+            (text, append, last) -> {
+              chunks.add(text);
+              if (chunks.size() == 1) {
+                // A slow consumer, nothing is drained while it blocks
+                consumerBlocked.countDown();
+                await(releaseConsumer);
+              }
+            },
+            readExecutor,
+            10,
+            0,
+            0);
+    Stream<String> deltas =
+        IntStream.range(0, 100).mapToObj(i -> "x").peek(delta -> read.incrementAndGet());
+
+    Thread writing = Thread.ofPlatform().start(() -> writer.write(deltas));
+    await(consumerBlocked);
+    // The reader fills the buffer, then waits for the consumer
+    awaitStable(read::get);
+    assertTrue(read.get() < 100, "Read " + read.get() + " deltas while nothing was drained");
+    assertTrue(writer.deltas() - chunks.get(0).length() <= 10, "Buffered beyond the limit");
+
+    releaseConsumer.countDown();
+    writing.join(TimeUnit.SECONDS.toMillis(5));
+    assertEquals(100, read.get());
+    assertEquals("x".repeat(100), String.join("", chunks));
+  }
+
+  @Test
+  void failingConsumerStopsTheReaderAndClosesTheStream() throws InterruptedException {
+    AtomicBoolean closed = new AtomicBoolean();
+    AtomicInteger read = new AtomicInteger();
+    StreamingArtifactWriter writer =
+        new StreamingArtifactWriter(
+            (text, append, last) -> {
+              throw new IllegalStateException("The client went away");
+            },
+            readExecutor,
+            10,
+            0,
+            0);
+    Stream<String> deltas =
+        Stream.generate(() -> "x")
+            .peek(delta -> read.incrementAndGet())
+            .onClose(() -> closed.set(true));
+
+    assertThrows(IllegalStateException.class, () -> writer.write(deltas));
+
+    assertTrue(closed.get());
+    // The reader is released from its wait for buffer space and stops
+    awaitStable(read::get);
+    int stopped = read.get();
+    Thread.sleep(50);
+    assertEquals(stopped, read.get());
+  }
+
+  @Test
+  void textReadBeforeUpstreamFailedIsForwardedFirst() {
+    StreamingArtifactWriter writer =
+        new StreamingArtifactWriter(
+            (text, append, last) -> chunks.add(text), readExecutor, 1000, 0, 0);
+    Stream<String> deltas =
+        Stream.of("a", "b", "fail")
+            .map(
+                delta -> {
+                  if (delta.equals("fail")) {
+                    throw new IllegalStateException("Upstream failed");
+                  }
+                  return delta;
+                });
+
+    CompletionException failure =
+        assertThrows(CompletionException.class, () -> writer.write(deltas));
+
+    assertTrue(failure.getCause() instanceof IllegalStateException);
+    assertEquals("ab", String.join("", chunks));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      if (!latch.await(5, TimeUnit.SECONDS)) {
+        fail("Timed out waiting for the latch");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      fail("Interrupted waiting for the latch");
+    }
+  }
+
+  /** Waits until a counter stops changing for a while. */
+  private static void awaitStable(IntSupplier counter) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    int last = -1;
+    while (counter.getAsInt() != last) {
+      if (System.nanoTime() - deadline > 0) {
+        fail("Counter kept changing, last value " + counter.getAsInt());
+      }
+      last = counter.getAsInt();
+      Thread.sleep(50);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package org.example.a2a.server.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.a2a.spec.Task;
+import io.a2a.spec.TaskState;
+import io.a2a.spec.TaskStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedTaskStoreTest {
+  @TempDir Path directory;
+
+  private MappedTaskStore store;
+
+  @AfterEach
+  void closeStore() {
+    if (store != null) {
+      store.close();
+    }
+  }
+
+  @Test
+  void restartRecoversSavedTasksAndDeletions() {
+    store = open(64 * 1024, Duration.ofDays(7));
+    store.save(task("a", "first", TaskState.WORKING));
+    store.save(task("b", "first", TaskState.WORKING));
+    store.save(task("a", "second", TaskState.COMPLETED));
+    store.delete("b");
+
+    store = reopen(64 * 1024, Duration.ofDays(7));
+
+    Task a = store.get("a");
+    assertNotNull(a);
+    assertEquals("second", a.getContextId());
+    assertEquals(TaskState.COMPLETED, a.getStatus().state());
+    assertNull(store.get("b"));
+  }
+
+  @Test
+  void compactionDropsOverwrittenRecordsAndKeepsTheLatest() throws IOException {
+    // Every record gets a segment of its own
+    store = open(1, Duration.ofDays(7));
+    for (int i = 0; i < 5; i++) {
+      store.save(task("a", "version-" + i, TaskState.WORKING));
+    }
+    store.save(task("b", "only", TaskState.WORKING));
+
+    store.maintain();
+
+    // The latest record of a and the active segment holding b
+    assertEquals(2, segmentFiles());
+    assertEquals("version-4", store.get("a").getContextId());
+    store = reopen(1, Duration.ofDays(7));
+    assertEquals("version-4", store.get("a").getContextId());
+    assertEquals("only", store.get("b").getContextId());
+  }
+
+  @Test
+  void tombstoneIsKeptUntilNoOlderSegmentRemains() throws IOException {
+    store = open(1, Duration.ofDays(7));
+    store.save(task("a", "deleted", TaskState.WORKING));
+    store.delete("a");
+    store.save(task("b", "kept", TaskState.WORKING));
+
+    store.maintain();
+    // The record of a is gone, its tombstone stays until a run finds no older segment
+    assertEquals(2, segmentFiles());
+
+    store.maintain();
+    assertEquals(1, segmentFiles());
+    store = reopen(1, Duration.ofDays(7));
+    assertNull(store.get("a"));
+    assertEquals("kept", store.get("b").getContextId());
+  }
+
+  @Test
+  void idleTasksAreEvictedAndFinishedOnesKeptUntilTheirTtl() throws InterruptedException {
+    store = open(64 * 1024, Duration.ofMillis(1));
+    store.save(task("working", "idle", TaskState.WORKING));
+    store.save(task("completed", "done", TaskState.COMPLETED));
+    Thread.sleep(20);
+
+    store.maintain();
+
+    assertNull(store.get("working"));
+    assertNotNull(store.get("completed"));
+  }
+
+  private MappedTaskStore open(int segmentSize, Duration idleTtl) {
+    return new MappedTaskStore(
+        new TestConfig(
+            "mapped",
+            directory,
+            segmentSize,
+            Duration.ofHours(1),
+            idleTtl,
+            // Maintenance is run by the tests
+            Duration.ofHours(1),
+            0.5,
+            Duration.ofHours(1)),
+        new SimpleMeterRegistry());
+  }
+
+  private MappedTaskStore reopen(int segmentSize, Duration idleTtl) {
+    store.close();
+    return open(segmentSize, idleTtl);
+  }
+
+  private long segmentFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.getFileName().toString().startsWith("segment-")).count();
+    }
+  }
+
+  private static Task task(String id, String contextId, TaskState state) {
+    return new Task.Builder().id(id).contextId(contextId).status(new TaskStatus(state)).build();
+  }
+
+  private record TestConfig(
+      String type,
+      Path directory,
+      int segmentSize,
+      Duration ttl,
+      Duration idleTtl,
+      Duration compactionInterval,
+      double compactionThreshold,
+      Duration flushInterval)
+      implements TaskStoreConfig {}
+}